@@ -1,27 +1,35 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.commands;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.commands.Command;
 import com.wynntils.screens.base.WynntilsMenuScreenBase;
 import com.wynntils.screens.lootrunpaths.WynntilsLootrunPathsScreen;
+import com.wynntils.services.lootrunpaths.LootrunPathFileParser;
+import com.wynntils.services.lootrunpaths.LootrunSpatialIndex;
+import com.wynntils.services.lootrunpaths.type.LootrunLibraryEntry;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
 import com.wynntils.services.lootrunpaths.type.LootrunState;
 import com.wynntils.services.lootrunpaths.type.LootrunUndoResult;
+import com.wynntils.utils.TaskUtils;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.mc.PosUtils;
 import java.io.File;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import net.minecraft.ChatFormatting;
 import net.minecraft.Util;
@@ -36,6 +44,8 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 
 public class LootrunCommand extends Command {
     private static final SuggestionProvider<CommandSourceStack> LOOTRUN_SUGGESTION_PROVIDER =
@@ -45,6 +55,10 @@ public class LootrunCommand extends Command {
                             .map(StringArgumentType::escapeIfRequired),
                     suggestions);
 
+    private static final int DEFAULT_NEARBY_RADIUS = 64;
+    private static final int MAX_NEARBY_RADIUS = 2048;
+    private static final int DEFAULT_MERGE_RADIUS = 256;
+
     @Override
     public String getCommandName() {
         return "lootrun";
@@ -83,6 +97,10 @@ public class LootrunCommand extends Command {
                         .then(Commands.argument("name", StringArgumentType.string())
                                 .suggests(LOOTRUN_SUGGESTION_PROVIDER)
                                 .executes(this::deleteLootrun)))
+                .then(Commands.literal("convert")
+                        .then(Commands.argument("name", StringArgumentType.string())
+                                .suggests(LOOTRUN_SUGGESTION_PROVIDER)
+                                .executes(this::convertLootrun)))
                 .then(Commands.literal("rename")
                         .then(Commands.argument("old", StringArgumentType.string())
                                 .suggests(LOOTRUN_SUGGESTION_PROVIDER)
@@ -95,6 +113,15 @@ public class LootrunCommand extends Command {
                         .then(Commands.literal("remove")
                                 .then(Commands.argument("pos", BlockPosArgument.blockPos())
                                         .executes(this::removeChest))))
+                .then(Commands.literal("nearby")
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_NEARBY_RADIUS))
+                                .executes(this::nearbyLootrunsRadius))
+                        .executes(this::nearbyLootruns))
+                .then(Commands.literal("merge")
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_NEARBY_RADIUS))
+                                .executes(this::mergeLootrunsRadius))
+                        .then(Commands.literal("clear").executes(this::clearMergedLootruns))
+                        .executes(this::mergeLootruns))
                 .then(Commands.literal("undo").executes(this::undoLootrun))
                 .then(Commands.literal("folder").executes(this::folderLootrun))
                 .then(Commands.literal("screen").executes(this::screenLootrun))
@@ -148,35 +175,24 @@ public class LootrunCommand extends Command {
 
     private int saveLootrun(CommandContext<CommandSourceStack> context) {
         String name = StringArgumentType.getString(context, "name");
-        LootrunSaveResult lootrunSaveResult = Services.LootrunPaths.saveCurrentLootrun(name);
+        CompletableFuture<LootrunSaveResult> lootrunSaveResult = Services.LootrunPaths.saveCurrentLootrun(name);
 
         if (lootrunSaveResult == null) {
             return 0;
         }
 
-        switch (lootrunSaveResult) {
-            case SAVED -> {
-                context.getSource()
-                        .sendSuccess(
-                                () -> Component.translatable("command.wynntils.lootrun.savedLootrun")
-                                        .withStyle(ChatFormatting.GREEN),
-                                false);
-                return 1;
-            }
-            case ERROR_SAVING -> {
-                context.getSource()
-                        .sendFailure(Component.translatable("command.wynntils.lootrun.errorSavingLootrun")
-                                .withStyle(ChatFormatting.RED));
-                return 0;
-            }
-            case ERROR_ALREADY_EXISTS -> {
-                context.getSource()
-                        .sendFailure(Component.translatable("command.wynntils.lootrun.errorSavingLootrunAlreadyExists")
-                                .withStyle(ChatFormatting.RED));
-                return 0;
-            }
-        }
-        return 0;
+        // The lootrun is written in the background, so the result is reported once it is known
+        lootrunSaveResult.thenAccept(result -> McUtils.sendMessageToClient(
+                switch (result) {
+                    case SAVED -> Component.translatable("command.wynntils.lootrun.savedLootrun")
+                            .withStyle(ChatFormatting.GREEN);
+                    case ERROR_SAVING -> Component.translatable("command.wynntils.lootrun.errorSavingLootrun")
+                            .withStyle(ChatFormatting.RED);
+                    case ERROR_ALREADY_EXISTS -> Component.translatable(
+                                    "command.wynntils.lootrun.errorSavingLootrunAlreadyExists")
+                            .withStyle(ChatFormatting.RED);
+                }));
+        return 1;
     }
 
     private int addJsonLootrunNote(CommandContext<CommandSourceStack> context) {
@@ -267,7 +283,7 @@ public class LootrunCommand extends Command {
 
     private int deleteLootrun(CommandContext<CommandSourceStack> context) {
         String name = StringArgumentType.getString(context, "name");
-        File file = new File(Services.LootrunPaths.LOOTRUNS, name + ".json");
+        File file = Services.LootrunPaths.getLootrunFile(name);
         if (!file.exists()) {
             context.getSource()
                     .sendFailure(Component.translatable("command.wynntils.lootrun.lootrunDoesntExist", name));
@@ -285,11 +301,69 @@ public class LootrunCommand extends Command {
         return 0;
     }
 
+    private int convertLootrun(CommandContext<CommandSourceStack> context) {
+        String name = StringArgumentType.getString(context, "name");
+        File file = Services.LootrunPaths.getLootrunFile(name);
+        if (!file.exists()) {
+            context.getSource()
+                    .sendFailure(Component.translatable("command.wynntils.lootrun.lootrunDoesntExist", name));
+            return 0;
+        }
+
+        boolean toBinary = !file.getName().endsWith(LootrunPathFileParser.BINARY_EXTENSION);
+        String baseName = file.getName()
+                .replace(LootrunPathFileParser.JSON_EXTENSION, "")
+                .replace(LootrunPathFileParser.BINARY_EXTENSION, "");
+        String newName =
+                baseName + (toBinary ? LootrunPathFileParser.BINARY_EXTENSION : LootrunPathFileParser.JSON_EXTENSION);
+        File newFile = new File(Services.LootrunPaths.LOOTRUNS, newName);
+
+        LootrunSaveResult lootrunSaveResult;
+        try {
+            lootrunSaveResult = LootrunPathFileParser.writeFile(LootrunPathFileParser.readFile(file), newFile);
+        } catch (Exception e) {
+            WynntilsMod.warn("Could not convert lootrun file.", e);
+            context.getSource()
+                    .sendFailure(Component.translatable("command.wynntils.lootrun.lootrunCouldNotBeConverted", name));
+            return 0;
+        }
+
+        switch (lootrunSaveResult) {
+            case SAVED -> {
+                context.getSource()
+                        .sendSuccess(
+                                () -> Component.translatable(
+                                                "command.wynntils.lootrun.lootrunConverted", file.getName(), newName)
+                                        .withStyle(ChatFormatting.GREEN),
+                                false);
+                return 1;
+            }
+            case ERROR_SAVING -> {
+                context.getSource()
+                        .sendFailure(Component.translatable("command.wynntils.lootrun.errorSavingLootrun")
+                                .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            case ERROR_ALREADY_EXISTS -> {
+                context.getSource()
+                        .sendFailure(Component.translatable("command.wynntils.lootrun.errorSavingLootrunAlreadyExists")
+                                .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+        }
+        return 0;
+    }
+
     private int renameLootrun(CommandContext<CommandSourceStack> context) {
         String oldName = StringArgumentType.getString(context, "old");
         String newName = StringArgumentType.getString(context, "new");
-        File oldFile = new File(Services.LootrunPaths.LOOTRUNS, oldName + ".json");
-        File newFile = new File(Services.LootrunPaths.LOOTRUNS, newName + ".json");
+        File oldFile = Services.LootrunPaths.getLootrunFile(oldName);
+        // Renaming keeps the format, use convert to change it
+        String extension = oldFile.getName().endsWith(LootrunPathFileParser.BINARY_EXTENSION)
+                ? LootrunPathFileParser.BINARY_EXTENSION
+                : LootrunPathFileParser.JSON_EXTENSION;
+        File newFile = new File(
+                Services.LootrunPaths.LOOTRUNS, newName.endsWith(extension) ? newName : newName + extension);
         if (!oldFile.exists()) {
             context.getSource()
                     .sendFailure(Component.translatable("command.wynntils.lootrun.lootrunDoesntExist", oldName));
@@ -374,6 +448,130 @@ public class LootrunCommand extends Command {
         return 0;
     }
 
+    private int nearbyLootrunsRadius(CommandContext<CommandSourceStack> context) {
+        return findNearbyLootruns(IntegerArgumentType.getInteger(context, "radius"));
+    }
+
+    private int nearbyLootruns(CommandContext<CommandSourceStack> context) {
+        return findNearbyLootruns(DEFAULT_NEARBY_RADIUS);
+    }
+
+    private int findNearbyLootruns(int radius) {
+        Vec3 position = McUtils.player().position();
+
+        // Only changed files have to be indexed again, which is done off the render thread
+        TaskUtils.runAsync(() -> Services.LootrunPaths.refreshLootrunCache()
+                .thenRun(() -> sendNearbyLootruns(position, radius)));
+
+        return 1;
+    }
+
+    private void sendNearbyLootruns(Vec3 position, int radius) {
+        LootrunSpatialIndex spatialIndex = Services.LootrunPaths.getSpatialIndex();
+
+        List<LootrunLibraryEntry> nearby = spatialIndex.getRoutesInBox(new AABB(
+                position.x - radius,
+                position.y - radius,
+                position.z - radius,
+                position.x + radius,
+                position.y + radius,
+                position.z + radius));
+        Optional<LootrunLibraryEntry> nearestStart = spatialIndex.getNearestStart(position);
+
+        if (nearby.isEmpty() && nearestStart.isEmpty()) {
+            McUtils.sendMessageToClient(Component.translatable("command.wynntils.lootrun.nearbyNoLootruns", radius)
+                    .withStyle(ChatFormatting.RED));
+            return;
+        }
+
+        MutableComponent component = Component.translatable("command.wynntils.lootrun.nearbyHeader", radius)
+                .withStyle(ChatFormatting.GREEN);
+        for (LootrunLibraryEntry entry : nearby) {
+            component.append("\n").append(getLoadableLootrunName(entry));
+        }
+
+        nearestStart.ifPresent(entry -> component
+                .append("\n")
+                .append(Component.translatable(
+                                "command.wynntils.lootrun.nearbyNearestStart",
+                                getLoadableLootrunName(entry),
+                                Math.round(entry.start().distanceTo(position)))
+                        .withStyle(ChatFormatting.GRAY)));
+
+        McUtils.sendMessageToClient(component);
+    }
+
+    private int mergeLootrunsRadius(CommandContext<CommandSourceStack> context) {
+        return mergeNearbyLootruns(IntegerArgumentType.getInteger(context, "radius"));
+    }
+
+    private int mergeLootruns(CommandContext<CommandSourceStack> context) {
+        return mergeNearbyLootruns(DEFAULT_MERGE_RADIUS);
+    }
+
+    private int mergeNearbyLootruns(int radius) {
+        Vec3 position = McUtils.player().position();
+
+        // Only the lootruns in the box are read, when they are merged
+        TaskUtils.runAsync(() -> Services.LootrunPaths.refreshLootrunCache()
+                .thenRun(() -> mergeLootrunsInBox(position, radius)));
+
+        return 1;
+    }
+
+    private void mergeLootrunsInBox(Vec3 position, int radius) {
+        LootrunSpatialIndex spatialIndex = Services.LootrunPaths.getSpatialIndex();
+
+        List<LootrunLibraryEntry> nearby = spatialIndex.getRoutesInBox(new AABB(
+                position.x - radius,
+                position.y - radius,
+                position.z - radius,
+                position.x + radius,
+                position.y + radius,
+                position.z + radius));
+
+        if (nearby.isEmpty()) {
+            McUtils.sendMessageToClient(Component.translatable("command.wynntils.lootrun.mergeNoLootruns", radius)
+                    .withStyle(ChatFormatting.RED));
+            return;
+        }
+
+        Services.LootrunPaths.showRouteGraph(nearby)
+                .thenAccept(graph -> McUtils.sendMessageToClient(Component.translatable(
+                                "command.wynntils.lootrun.mergeSuccessful",
+                                graph.getRouteCount(),
+                                graph.getPointCount(),
+                                graph.getNodeCount())
+                        .withStyle(ChatFormatting.GREEN)));
+    }
+
+    private int clearMergedLootruns(CommandContext<CommandSourceStack> context) {
+        if (Services.LootrunPaths.getRouteGraph() == null) {
+            context.getSource().sendFailure(Component.translatable("command.wynntils.lootrun.mergeNoRouteGraph"));
+            return 0;
+        }
+
+        Services.LootrunPaths.clearRouteGraph();
+
+        context.getSource()
+                .sendSuccess(
+                        () -> Component.translatable("command.wynntils.lootrun.mergeCleared")
+                                .withStyle(ChatFormatting.GREEN),
+                        false);
+        return 1;
+    }
+
+    private static Component getLoadableLootrunName(LootrunLibraryEntry entry) {
+        return Component.literal(entry.name())
+                .withStyle(ChatFormatting.AQUA)
+                .withStyle((style) -> style.withClickEvent(new ClickEvent(
+                                ClickEvent.Action.RUN_COMMAND,
+                                "/lootrun load " + StringArgumentType.escapeIfRequired(entry.fileName())))
+                        .withHoverEvent(new HoverEvent(
+                                HoverEvent.Action.SHOW_TEXT,
+                                Component.translatable("command.wynntils.lootrun.nearbyClickToLoad"))));
+    }
+
     private int folderLootrun(CommandContext<CommandSourceStack> context) {
         Util.getPlatform().openFile(Services.LootrunPaths.LOOTRUNS);
         return 1;
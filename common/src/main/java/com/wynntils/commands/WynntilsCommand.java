@@ -14,6 +14,10 @@ import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.commands.Command;
 import com.wynntils.core.net.ApiResponse;
 import com.wynntils.core.net.UrlId;
+import com.wynntils.core.text.ComponentConversionCache;
+import com.wynntils.core.text.StyledText;
+import com.wynntils.handlers.chat.type.ChatPatternStatistics;
+import com.wynntils.handlers.item.ItemAnnotationCache;
 import com.wynntils.screens.base.WynntilsMenuScreenBase;
 import com.wynntils.screens.wynntilsmenu.WynntilsMenuScreen;
 import com.wynntils.services.athena.UpdateService;
@@ -23,6 +27,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -71,8 +76,12 @@ public class WynntilsCommand extends Command {
                 .then(Commands.literal("debug")
                         .then(Commands.literal("profile")
                                 .then(Commands.literal("reset").executes(this::profileReset))
+                                .then(Commands.literal("showAnnotationCache")
+                                        .executes(this::profileShowAnnotationCache))
                                 .then(Commands.literal("showAnnotations").executes(this::profileShowAnnotations))
-                                .then(Commands.literal("showOverlays").executes(this::profileShowOverlays))))
+                                .then(Commands.literal("showChatPatterns").executes(this::profileShowChatPatterns))
+                                .then(Commands.literal("showOverlays").executes(this::profileShowOverlays))
+                                .then(Commands.literal("showTextCache").executes(this::profileShowTextCache))))
                 .then(Commands.literal("discord").executes(this::discordLink))
                 .then(Commands.literal("donate").executes(this::donateLink))
                 .then(Commands.literal("help").executes(this::help))
@@ -89,7 +98,10 @@ public class WynntilsCommand extends Command {
 
     private int profileReset(CommandContext<CommandSourceStack> context) {
         Handlers.Item.resetProfiling();
+        Handlers.Item.getAnnotationCache().resetStatistics();
+        Handlers.Chat.resetPatternStatistics();
         Managers.Overlay.resetProfiling();
+        StyledText.getConversionCache().resetStatistics();
         context.getSource()
                 .sendSuccess(
                         () -> Component.translatable("command.wynntils.debug.profile.cleared")
@@ -99,6 +111,23 @@ public class WynntilsCommand extends Command {
         return 1;
     }
 
+    private int profileShowAnnotationCache(CommandContext<CommandSourceStack> context) {
+        ItemAnnotationCache.Statistics statistics = Handlers.Item.getAnnotationCache().getStatistics();
+
+        context.getSource()
+                .sendSuccess(
+                        () -> Component.translatable(
+                                        "command.wynntils.debug.profile.annotationCache",
+                                        statistics.hits(),
+                                        statistics.misses(),
+                                        "%.1f".formatted(statistics.hitRate() * 100),
+                                        statistics.size())
+                                .withStyle(ChatFormatting.AQUA),
+                        false);
+
+        return 1;
+    }
+
     private int profileShowAnnotations(CommandContext<CommandSourceStack> context) {
         Map<Class<?>, Integer> profilingTimes = Handlers.Item.getProfilingTimes();
         Map<Class<?>, Integer> profilingCounts = Handlers.Item.getProfilingCounts();
@@ -108,6 +137,35 @@ public class WynntilsCommand extends Command {
         return 1;
     }
 
+    private int profileShowChatPatterns(CommandContext<CommandSourceStack> context) {
+        List<ChatPatternStatistics> statistics = Handlers.Chat.getPatternStatistics();
+
+        StringBuilder resList = new StringBuilder();
+        statistics.stream()
+                .sorted(Comparator.comparingLong(ChatPatternStatistics::nanos).reversed())
+                .limit(10)
+                .forEach(pattern -> resList.append("%9.3f ms, %7d runs, %7d hits  %s\n"
+                        .formatted(pattern.nanos() / 1_000_000d, pattern.runs(), pattern.hits(), pattern.name())));
+
+        context.getSource()
+                .sendSuccess(() -> Component.literal(resList.toString()).withStyle(ChatFormatting.AQUA), false);
+
+        double totalTime = statistics.stream().mapToLong(ChatPatternStatistics::nanos).sum() / 1_000_000d;
+        int totalRuns = statistics.stream().mapToInt(ChatPatternStatistics::runs).sum();
+
+        context.getSource()
+                .sendSuccess(
+                        () -> Component.translatable(
+                                        "command.wynntils.debug.profile.chatPatterns",
+                                        statistics.size(),
+                                        totalRuns,
+                                        "%.3f".formatted(totalTime))
+                                .withStyle(ChatFormatting.AQUA),
+                        false);
+
+        return 1;
+    }
+
     private int profileShowOverlays(CommandContext<CommandSourceStack> context) {
         Map<Class<?>, Integer> profilingTimes = Managers.Overlay.getProfilingTimes();
         Map<Class<?>, Integer> profilingCounts = Managers.Overlay.getProfilingCounts();
@@ -117,6 +175,23 @@ public class WynntilsCommand extends Command {
         return 1;
     }
 
+    private int profileShowTextCache(CommandContext<CommandSourceStack> context) {
+        ComponentConversionCache.Statistics statistics = StyledText.getConversionCache().getStatistics();
+
+        context.getSource()
+                .sendSuccess(
+                        () -> Component.translatable(
+                                        "command.wynntils.debug.profile.textCache",
+                                        statistics.identityHits(),
+                                        statistics.structuralHits(),
+                                        statistics.misses(),
+                                        "%.1f".formatted(statistics.hitRate() * 100))
+                                .withStyle(ChatFormatting.AQUA),
+                        false);
+
+        return 1;
+    }
+
     private void showProfilingData(
             CommandContext<CommandSourceStack> context,
             Map<Class<?>, Integer> profilingTimes,
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2021-2023.
+ * Copyright © Wynntils 2021-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.core;
@@ -18,6 +18,7 @@ import com.wynntils.core.components.Services;
 import com.wynntils.core.events.EventBusWrapper;
 import com.wynntils.core.mod.event.WynntilsCrashEvent;
 import com.wynntils.core.mod.type.CrashType;
+import com.wynntils.core.text.StyledText;
 import com.wynntils.utils.mc.McUtils;
 import java.io.File;
 import java.io.InputStream;
@@ -158,6 +159,9 @@ public final class WynntilsMod {
 
     // Ran when resources (including I18n) are available
     public static void onResourcesFinishedLoading() {
+        // Translated components are converted to different texts if the language has changed
+        StyledText.getConversionCache().invalidate();
+
         if (initCompleted) return;
         initCompleted = true;
 
@@ -529,6 +529,10 @@ public final class FunctionManager extends Manager {
         registerFunction(new LootrunFunctions.LastMythicFunction());
         registerFunction(new LootrunFunctions.LootrunBeaconCountFunction());
         registerFunction(new LootrunFunctions.LootrunChallengesFunction());
+        registerFunction(new LootrunFunctions.LootrunHistoryAverageFunction());
+        registerFunction(new LootrunFunctions.LootrunHistoryPerMinuteFunction());
+        registerFunction(new LootrunFunctions.LootrunHistoryRunsFunction());
+        registerFunction(new LootrunFunctions.LootrunHistorySuccessRateFunction());
         registerFunction(new LootrunFunctions.LootrunLastSelectedBeaconColorFunction());
         registerFunction(new LootrunFunctions.LootrunMissionFunction());
         registerFunction(new LootrunFunctions.LootrunRedBeaconChallengeCountFunction());
@@ -0,0 +1,169 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.text;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.contents.TranslatableContents;
+
+/**
+ * Remembers the {@link StyledText}s that components were converted to, as the same components are often converted
+ * many times, like item names on every update, or labels on every render.
+ *
+ * <p>Components are first looked up by identity, in a cache with weak keys so it doesn't keep components alive.
+ * Components are mutable, so the styles, contents and sibling counts of every component in the tree are stored with
+ * its text, and compared by reference on every hit. Styles and contents are immutable, so this notices any change to
+ * the tree, and is still much cheaper than hashing it. Only if that misses, the component is looked up by its
+ * structure, which also finds equal components created from the same packet data. The structural cache is keyed by
+ * deep copies of the components, so it keeps neither the components themselves alive, nor is it affected by later
+ * changes to them. Both caches are bounded.
+ */
+public final class ComponentConversionCache {
+    private static final int MAX_IDENTITY_ENTRIES = 4096;
+    private static final int MAX_STRUCTURAL_ENTRIES = 1024;
+
+    private final Cache<Component, IdentityEntry> identityCache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_IDENTITY_ENTRIES)
+            .build();
+    private final Cache<Component, StyledText> structuralCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_STRUCTURAL_ENTRIES).build();
+
+    private final LongAdder identityHits = new LongAdder();
+    private final LongAdder structuralHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    StyledText get(Component component, Function<Component, StyledText> converter) {
+        IdentityEntry identityEntry = identityCache.getIfPresent(component);
+        if (identityEntry != null && identityEntry.isValidFor(component)) {
+            identityHits.increment();
+            return identityEntry.styledText();
+        }
+
+        StyledText styledText = structuralCache.getIfPresent(component);
+        if (styledText != null) {
+            structuralHits.increment();
+        } else {
+            misses.increment();
+            styledText = converter.apply(component);
+            structuralCache.put(deepCopy(component), styledText);
+        }
+
+        identityCache.put(component, new IdentityEntry(component, styledText));
+        return styledText;
+    }
+
+    public void invalidate() {
+        identityCache.invalidateAll();
+        structuralCache.invalidateAll();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(identityHits.sum(), structuralHits.sum(), misses.sum());
+    }
+
+    public void resetStatistics() {
+        identityHits.reset();
+        structuralHits.reset();
+        misses.reset();
+    }
+
+    public record Statistics(long identityHits, long structuralHits, long misses) {
+        public double hitRate() {
+            long total = identityHits + structuralHits + misses;
+            return total == 0 ? 0 : (double) (identityHits + structuralHits) / total;
+        }
+    }
+
+    private static Component deepCopy(Component component) {
+        MutableComponent copy = MutableComponent.create(component.getContents()).setStyle(component.getStyle());
+        for (Component sibling : component.getSiblings()) {
+            copy.append(deepCopy(sibling));
+        }
+        return copy;
+    }
+
+    /**
+     * The parts of a component tree its text depends on, in the order they are visited. The components themselves
+     * are not kept, as the entry must not keep its key alive.
+     */
+    private static final class IdentityEntry {
+        private final Object[] parts;
+        private final int[] siblingCounts;
+        private final StyledText styledText;
+
+        private IdentityEntry(Component component, StyledText styledText) {
+            List<Object> parts = new ArrayList<>();
+            IntList siblingCounts = new IntArrayList();
+            collect(component, parts, siblingCounts);
+
+            this.parts = parts.toArray();
+            this.siblingCounts = siblingCounts.toIntArray();
+            this.styledText = styledText;
+        }
+
+        private StyledText styledText() {
+            return styledText;
+        }
+
+        private boolean isValidFor(Component component) {
+            return matches(component, 0) == siblingCounts.length;
+        }
+
+        // Returns the index of the component after the visited tree, or -1 if the tree changed
+        private int matches(Component component, int index) {
+            if (index < 0
+                    || index >= siblingCounts.length
+                    || parts[index * 2] != component.getStyle()
+                    || parts[index * 2 + 1] != component.getContents()
+                    || siblingCounts[index] != component.getSiblings().size()) {
+                return -1;
+            }
+
+            int next = index + 1;
+            for (Component argument : getComponentArguments(component)) {
+                next = matches(argument, next);
+            }
+            for (Component sibling : component.getSiblings()) {
+                next = matches(sibling, next);
+            }
+            return next;
+        }
+
+        private static void collect(Component component, List<Object> parts, IntList siblingCounts) {
+            parts.add(component.getStyle());
+            parts.add(component.getContents());
+            siblingCounts.add(component.getSiblings().size());
+
+            for (Component argument : getComponentArguments(component)) {
+                collect(argument, parts, siblingCounts);
+            }
+            for (Component sibling : component.getSiblings()) {
+                collect(sibling, parts, siblingCounts);
+            }
+        }
+
+        // The text of a translation includes its arguments, which can be mutable components themselves
+        private static List<Component> getComponentArguments(Component component) {
+            if (!(component.getContents() instanceof TranslatableContents translatable)) return List.of();
+
+            List<Component> arguments = new ArrayList<>();
+            for (Object argument : translatable.getArgs()) {
+                if (argument instanceof Component argumentComponent) {
+                    arguments.add(argumentComponent);
+                }
+            }
+            return arguments;
+        }
+    }
+}
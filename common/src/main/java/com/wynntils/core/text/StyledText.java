@@ -15,12 +15,12 @@ import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.type.IterationDecision;
 import com.wynntils.utils.type.Pair;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
@@ -37,31 +37,50 @@ import net.minecraft.network.chat.Style;
 public final class StyledText implements Iterable<StyledTextPart> {
     public static final StyledText EMPTY = new StyledText(List.of(), List.of(), List.of());
 
+    private static final ComponentConversionCache CONVERSION_CACHE = new ComponentConversionCache();
+
     private final List<StyledTextPart> parts;
 
     private final List<ClickEvent> clickEvents;
     private final List<HoverEvent> hoverEvents;
 
+    // StyledText is immutable, so the strings and the hash are computed once, when they are first needed.
+    // Racing threads compute the same values, so these need no synchronization.
+    private final String[] strings = new String[PartStyle.StyleType.values().length];
+    private int hash;
+
     /**
      * Note: All callers of this constructor should ensure that the event lists are collected from the parts.
      *       Additionally, they should ensure that the events are distinct.
      */
     private StyledText(List<StyledTextPart> parts, List<ClickEvent> clickEvents, List<HoverEvent> hoverEvents) {
-        this.parts = parts.stream()
-                .filter(styledTextPart -> !styledTextPart.isEmpty())
-                .map(styledTextPart -> new StyledTextPart(styledTextPart, this))
-                .collect(Collectors.toList());
+        // Parts know the text they are in, so they can't be shared with the text they were taken from
+        List<StyledTextPart> ownParts = new ArrayList<>(parts.size());
+        for (StyledTextPart part : parts) {
+            if (part.isEmpty()) continue;
+
+            ownParts.add(new StyledTextPart(part, this));
+        }
+        this.parts = Collections.unmodifiableList(ownParts);
         this.clickEvents = Collections.unmodifiableList(clickEvents);
         this.hoverEvents = Collections.unmodifiableList(hoverEvents);
     }
 
     public static StyledText fromComponent(Component component) {
+        return CONVERSION_CACHE.get(component, StyledText::convertComponent);
+    }
+
+    public static ComponentConversionCache getConversionCache() {
+        return CONVERSION_CACHE;
+    }
+
+    private static StyledText convertComponent(Component component) {
         List<StyledTextPart> parts = new ArrayList<>();
 
         // Walk the component tree using DFS
         // Component#visit behaves weirdly, so we do it manually
         // Save the style of the parent component so we can inherit it
-        Deque<Pair<Component, Style>> deque = new LinkedList<>();
+        Deque<Pair<Component, Style>> deque = new ArrayDeque<>();
 
         deque.add(new Pair<>(component, Style.EMPTY));
 
@@ -80,12 +99,10 @@ public final class StyledText implements Iterable<StyledTextPart> {
             // Only actual styles are inherited, string formatting codes are not
             Style styleToFollowForChildren = current.getStyle().applyTo(parentStyle);
 
-            List<Pair<Component, Style>> siblingPairs = current.getSiblings().stream()
-                    .map(sibling -> new Pair<>(sibling, styleToFollowForChildren))
-                    .collect(Collectors.toList());
-
-            Collections.reverse(siblingPairs);
-            siblingPairs.forEach(deque::addFirst);
+            List<Component> siblings = current.getSiblings();
+            for (int i = siblings.size() - 1; i >= 0; i--) {
+                deque.addFirst(new Pair<>(siblings.get(i), styleToFollowForChildren));
+            }
 
             // Disallow empty parts
             parts.addAll(
@@ -147,6 +164,9 @@ public final class StyledText implements Iterable<StyledTextPart> {
     // We don't want to expose the actual string to the outside world
     // If you need to do an operation with this string, implement it as a method
     public String getString(PartStyle.StyleType type) {
+        String string = strings[type.ordinal()];
+        if (string != null) return string;
+
         StringBuilder builder = new StringBuilder();
 
         PartStyle previousStyle = null;
@@ -155,7 +175,9 @@ public final class StyledText implements Iterable<StyledTextPart> {
             previousStyle = part.getPartStyle();
         }
 
-        return builder.toString();
+        string = builder.toString();
+        strings[type.ordinal()] = string;
+        return string;
     }
 
     /**
@@ -192,19 +214,18 @@ public final class StyledText implements Iterable<StyledTextPart> {
     }
 
     public static StyledText join(StyledText styledTextSeparator, StyledText... texts) {
-        List<StyledTextPart> parts = new ArrayList<>();
+        StyledTextBuilder builder = new StyledTextBuilder();
 
         final int length = texts.length;
         for (int i = 0; i < length; i++) {
-            StyledText text = texts[i];
-            parts.addAll(text.parts);
+            builder.append(texts[i]);
 
             if (i != length - 1) {
-                parts.addAll(styledTextSeparator.parts);
+                builder.append(styledTextSeparator);
             }
         }
 
-        return fromParts(parts);
+        return builder.build();
     }
 
     public static StyledText join(StyledText styledTextSeparator, Iterable<StyledText> texts) {
@@ -220,10 +241,11 @@ public final class StyledText implements Iterable<StyledTextPart> {
     }
 
     public static StyledText concat(StyledText... texts) {
-        return fromParts(Arrays.stream(texts)
-                .map(text -> text.parts)
-                .flatMap(List::stream)
-                .toList());
+        StyledTextBuilder builder = new StyledTextBuilder();
+        for (StyledText text : texts) {
+            builder.append(text);
+        }
+        return builder.build();
     }
 
     public static StyledText concat(Iterable<StyledText> texts) {
@@ -239,6 +261,12 @@ public final class StyledText implements Iterable<StyledTextPart> {
             return this;
         }
 
+        // Don't copy the parts if there is nothing to trim
+        String string = getStringWithoutFormatting();
+        if (!Character.isWhitespace(string.charAt(0)) && !Character.isWhitespace(string.charAt(string.length() - 1))) {
+            return this;
+        }
+
         List<StyledTextPart> newParts = new ArrayList<>(parts);
         newParts.set(0, newParts.get(0).stripLeading());
 
@@ -329,6 +357,9 @@ public final class StyledText implements Iterable<StyledTextPart> {
     }
 
     public StyledText append(StyledText styledText) {
+        if (styledText.parts.isEmpty()) return this;
+        if (parts.isEmpty()) return styledText;
+
         return concat(this, styledText);
     }
 
@@ -337,12 +368,13 @@ public final class StyledText implements Iterable<StyledTextPart> {
     }
 
     public StyledText appendPart(StyledTextPart part) {
-        List<StyledTextPart> newParts = new ArrayList<>(parts);
-        newParts.add(part);
-        return fromParts(newParts);
+        return new StyledTextBuilder(this).appendPart(part).build();
     }
 
     public StyledText prepend(StyledText styledText) {
+        if (styledText.parts.isEmpty()) return this;
+        if (parts.isEmpty()) return styledText;
+
         return concat(styledText, this);
     }
 
@@ -351,9 +383,7 @@ public final class StyledText implements Iterable<StyledTextPart> {
     }
 
     public StyledText prependPart(StyledTextPart part) {
-        List<StyledTextPart> newParts = new ArrayList<>(parts);
-        newParts.add(0, part);
-        return fromParts(newParts);
+        return new StyledTextBuilder(this).prependPart(part).build();
     }
 
     /**
@@ -595,16 +625,22 @@ public final class StyledText implements Iterable<StyledTextPart> {
         return parts.stream().map(StyledText::fromPart).toArray(StyledText[]::new);
     }
 
+    /**
+     * Calls the function with every part, and a list of the parts to replace it with. The list initially only
+     * contains the part itself. If no part is replaced, this text is returned as is.
+     */
     public StyledText iterate(BiFunction<StyledTextPart, List<StyledTextPart>, IterationDecision> function) {
-        List<StyledTextPart> newParts = new ArrayList<>();
+        List<StyledTextPart> newParts = new ArrayList<>(parts.size());
+        boolean changed = false;
 
         for (int i = 0; i < parts.size(); i++) {
             StyledTextPart part = parts.get(i);
-            List<StyledTextPart> functionParts = new ArrayList<>();
+            List<StyledTextPart> functionParts = new ArrayList<>(1);
             functionParts.add(part);
             IterationDecision decision = function.apply(part, functionParts);
 
             newParts.addAll(functionParts);
+            changed |= isReplaced(part, functionParts);
 
             if (decision == IterationDecision.BREAK) {
                 // Add the rest of the parts
@@ -613,28 +649,45 @@ public final class StyledText implements Iterable<StyledTextPart> {
             }
         }
 
-        return fromParts(newParts);
+        return changed ? fromParts(newParts) : this;
     }
 
+    /**
+     * Like {@link #iterate(BiFunction)}, but starting with the last part.
+     */
     public StyledText iterateBackwards(BiFunction<StyledTextPart, List<StyledTextPart>, IterationDecision> function) {
-        List<StyledTextPart> newParts = new ArrayList<>();
+        // The replacements of each part, last part first, so they don't have to be inserted at the front
+        List<List<StyledTextPart>> replacements = new ArrayList<>(parts.size());
+        boolean changed = false;
+        int firstUnvisited = 0;
 
         for (int i = parts.size() - 1; i >= 0; i--) {
             StyledTextPart part = parts.get(i);
-            List<StyledTextPart> functionParts = new ArrayList<>();
+            List<StyledTextPart> functionParts = new ArrayList<>(1);
             functionParts.add(part);
             IterationDecision decision = function.apply(part, functionParts);
 
-            newParts.addAll(0, functionParts);
+            replacements.add(functionParts);
+            changed |= isReplaced(part, functionParts);
 
             if (decision == IterationDecision.BREAK) {
-                // Add the rest of the parts
-                newParts.addAll(0, parts.subList(0, i));
+                firstUnvisited = i;
                 break;
             }
         }
 
-        return fromParts(newParts);
+        if (!changed) return this;
+
+        // Add the rest of the parts
+        StyledTextBuilder builder = new StyledTextBuilder().appendParts(parts.subList(0, firstUnvisited));
+        for (int i = replacements.size() - 1; i >= 0; i--) {
+            builder.appendParts(replacements.get(i));
+        }
+        return builder.build();
+    }
+
+    private static boolean isReplaced(StyledTextPart part, List<StyledTextPart> functionParts) {
+        return functionParts.size() != 1 || functionParts.get(0) != part;
     }
 
     public StyledText withoutFormatting() {
@@ -674,6 +727,10 @@ public final class StyledText implements Iterable<StyledTextPart> {
         return parts.size();
     }
 
+    StyledTextPart getPart(int index) {
+        return parts.get(index);
+    }
+
     /**
      * Returns the first part of this {@link StyledText} that matches the given event.
      * @param clickEvent the event to find
@@ -740,6 +797,8 @@ public final class StyledText implements Iterable<StyledTextPart> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         StyledText that = (StyledText) o;
+        // Only compare the hashes if both are known, computing them would cost more than comparing the parts
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
         return Objects.deepEquals(parts, that.parts)
                 && Objects.deepEquals(clickEvents, that.clickEvents)
                 && Objects.deepEquals(hoverEvents, that.hoverEvents);
@@ -747,7 +806,12 @@ public final class StyledText implements Iterable<StyledTextPart> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(parts, clickEvents, hoverEvents);
+        int result = hash;
+        if (result == 0) {
+            result = Objects.hash(parts, clickEvents, hoverEvents);
+            hash = result;
+        }
+        return result;
     }
 
     public static class StyledTextSerializer implements JsonSerializer<StyledText>, JsonDeserializer<StyledText> {
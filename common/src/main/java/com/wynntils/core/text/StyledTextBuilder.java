@@ -0,0 +1,80 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the parts of a {@link StyledText} that is put together piece by piece, so only the final text is created.
+ * Chaining {@link StyledText#append(StyledText)} instead copies all parts collected so far on every call.
+ */
+public final class StyledTextBuilder {
+    // Prepended parts are kept in reverse order, so both ends can be added to without moving the other parts
+    private final List<StyledTextPart> prependedParts = new ArrayList<>();
+    private final List<StyledTextPart> appendedParts = new ArrayList<>();
+
+    public StyledTextBuilder() {}
+
+    public StyledTextBuilder(StyledText styledText) {
+        append(styledText);
+    }
+
+    public StyledTextBuilder append(StyledText styledText) {
+        for (StyledTextPart part : styledText) {
+            appendedParts.add(part);
+        }
+        return this;
+    }
+
+    public StyledTextBuilder append(String codedString) {
+        return append(StyledText.fromString(codedString));
+    }
+
+    public StyledTextBuilder appendPart(StyledTextPart part) {
+        appendedParts.add(part);
+        return this;
+    }
+
+    public StyledTextBuilder appendParts(List<StyledTextPart> parts) {
+        appendedParts.addAll(parts);
+        return this;
+    }
+
+    public StyledTextBuilder prepend(StyledText styledText) {
+        for (int i = styledText.getPartCount() - 1; i >= 0; i--) {
+            prependedParts.add(styledText.getPart(i));
+        }
+        return this;
+    }
+
+    public StyledTextBuilder prepend(String codedString) {
+        return prepend(StyledText.fromString(codedString));
+    }
+
+    public StyledTextBuilder prependPart(StyledTextPart part) {
+        prependedParts.add(part);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return prependedParts.isEmpty() && appendedParts.isEmpty();
+    }
+
+    /**
+     * Creates the text from the parts collected so far. The builder can still be used afterwards.
+     */
+    public StyledText build() {
+        if (isEmpty()) return StyledText.EMPTY;
+        if (prependedParts.isEmpty()) return StyledText.fromParts(appendedParts);
+
+        List<StyledTextPart> parts = new ArrayList<>(prependedParts.size() + appendedParts.size());
+        parts.addAll(prependedParts);
+        Collections.reverse(parts);
+        parts.addAll(appendedParts);
+        return StyledText.fromParts(parts);
+    }
+}
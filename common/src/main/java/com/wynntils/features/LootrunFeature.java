@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.features;
@@ -32,7 +32,7 @@ public class LootrunFeature extends Feature {
 
     @Override
     protected void onConfigUpdate(Config<?> config) {
-        Services.LootrunPaths.recompileLootrun(false);
+        Services.LootrunPaths.recompileAll();
     }
 
     public enum PathType {
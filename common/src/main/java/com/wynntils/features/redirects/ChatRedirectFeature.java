@@ -4,15 +4,18 @@
  */
 package com.wynntils.features.redirects;
 
+import com.wynntils.core.components.Handlers;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.consumers.features.Feature;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.config.Category;
 import com.wynntils.core.persisted.config.Config;
 import com.wynntils.core.persisted.config.ConfigCategory;
+import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
 import com.wynntils.handlers.chat.type.MessageType;
+import com.wynntils.handlers.chat.type.PatternMatchType;
 import com.wynntils.handlers.chat.type.RecipientType;
 import com.wynntils.models.players.type.PlayerRank;
 import java.util.ArrayList;
@@ -25,7 +28,6 @@ import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraftforge.eventbus.api.EventPriority;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 @ConfigCategory(Category.REDIRECTS)
 public class ChatRedirectFeature extends Feature {
@@ -133,30 +135,44 @@ public class ChatRedirectFeature extends Feature {
         redirectors.add(redirector);
     }
 
-    @SubscribeEvent(priority = EventPriority.HIGH)
-    public void onChatMessage(ChatMessageReceivedEvent e) {
-        if (e.getRecipientType() != RecipientType.INFO) return;
-
-        StyledText message = e.getOriginalStyledText();
-        MessageType messageType = e.getMessageType();
-
+    @Override
+    public void onEnable() {
         for (Redirector redirector : redirectors) {
-            RedirectAction action = redirector.getAction();
-            if (action == RedirectAction.KEEP) continue;
+            for (MessageType messageType : MessageType.values()) {
+                Pattern pattern = redirector.getPattern(messageType);
+                if (pattern == null) continue;
+
+                // Every matching redirector queues its notifications, even after another one canceled the message
+                Handlers.Chat.registerPattern(
+                        this,
+                        pattern,
+                        PatternMatchType.FIND,
+                        PartStyle.StyleType.DEFAULT,
+                        EventPriority.HIGH,
+                        true,
+                        (event, matcher) -> onRedirectorMatch(event, matcher, redirector, messageType));
+            }
+        }
+    }
 
-            Pattern pattern = redirector.getPattern(messageType);
-            if (pattern == null) continue;
+    @Override
+    public void onDisable() {
+        Handlers.Chat.unregisterPatterns(this);
+    }
 
-            Matcher matcher = message.getMatcher(pattern);
+    private void onRedirectorMatch(
+            ChatMessageReceivedEvent e, Matcher matcher, Redirector redirector, MessageType messageType) {
+        if (e.getMessageType() != messageType) return;
+        if (e.getRecipientType() != RecipientType.INFO) return;
 
-            if (matcher.find()) {
-                e.setCanceled(true);
-                if (redirector.getAction() == RedirectAction.HIDE) continue;
+        RedirectAction action = redirector.getAction();
+        if (action == RedirectAction.KEEP) return;
 
-                for (StyledText notification : redirector.getNotifications(matcher)) {
-                    Managers.Notification.queueMessage(notification);
-                }
-            }
+        e.setCanceled(true);
+        if (action == RedirectAction.HIDE) return;
+
+        for (StyledText notification : redirector.getNotifications(matcher)) {
+            Managers.Notification.queueMessage(notification);
         }
     }
 
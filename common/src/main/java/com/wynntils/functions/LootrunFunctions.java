@@ -9,11 +9,17 @@ import com.wynntils.core.consumers.functions.Function;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import com.wynntils.models.beacons.type.BeaconColor;
 import com.wynntils.models.containers.type.MythicFind;
+import com.wynntils.models.lootrun.history.LootrunRunHistory;
+import com.wynntils.models.lootrun.history.LootrunRunQuery;
+import com.wynntils.models.lootrun.type.LootrunLocation;
+import com.wynntils.models.lootrun.type.LootrunRunValue;
+import com.wynntils.models.lootrun.type.MissionType;
 import com.wynntils.models.lootrun.type.TaskLocation;
 import com.wynntils.utils.EnumUtils;
 import com.wynntils.utils.type.CappedValue;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 public class LootrunFunctions {
     public static class DryStreakFunction extends Function<Integer> {
@@ -210,4 +216,98 @@ public class LootrunFunctions {
             return Models.Lootrun.getRedBeaconTaskCount();
         }
     }
+
+    public static class LootrunHistoryRunsFunction extends Function<Integer> {
+        @Override
+        public Integer getValue(FunctionArguments arguments) {
+            return getRunQuery(arguments).map(LootrunRunQuery::count).orElse(0);
+        }
+
+        @Override
+        public FunctionArguments.Builder getArgumentsBuilder() {
+            return new FunctionArguments.OptionalArgumentBuilder(getRunQueryArguments());
+        }
+    }
+
+    public static class LootrunHistorySuccessRateFunction extends Function<Double> {
+        @Override
+        public Double getValue(FunctionArguments arguments) {
+            return getRunQuery(arguments).map(query -> query.getSuccessRate() * 100).orElse(0d);
+        }
+
+        @Override
+        public FunctionArguments.Builder getArgumentsBuilder() {
+            return new FunctionArguments.OptionalArgumentBuilder(getRunQueryArguments());
+        }
+    }
+
+    public static class LootrunHistoryAverageFunction extends Function<Double> {
+        @Override
+        public Double getValue(FunctionArguments arguments) {
+            LootrunRunValue runValue =
+                    EnumUtils.fromJsonFormat(LootrunRunValue.class, arguments.getArgument("value").getStringValue());
+            if (runValue == null) return 0d;
+
+            return getRunQuery(arguments).map(query -> query.completedOnly().average(runValue)).orElse(0d);
+        }
+
+        @Override
+        public FunctionArguments.Builder getArgumentsBuilder() {
+            return new FunctionArguments.OptionalArgumentBuilder(getRunValueQueryArguments());
+        }
+    }
+
+    public static class LootrunHistoryPerMinuteFunction extends Function<Double> {
+        @Override
+        public Double getValue(FunctionArguments arguments) {
+            LootrunRunValue runValue =
+                    EnumUtils.fromJsonFormat(LootrunRunValue.class, arguments.getArgument("value").getStringValue());
+            if (runValue == null) return 0d;
+
+            return getRunQuery(arguments).map(query -> query.completedOnly().perMinute(runValue)).orElse(0d);
+        }
+
+        @Override
+        public FunctionArguments.Builder getArgumentsBuilder() {
+            return new FunctionArguments.OptionalArgumentBuilder(getRunValueQueryArguments());
+        }
+    }
+
+    private static Optional<LootrunRunQuery> getRunQuery(FunctionArguments arguments) {
+        Optional<LootrunRunHistory> runHistory = Models.Lootrun.getRunHistory();
+        if (runHistory.isEmpty()) return Optional.empty();
+
+        LootrunRunQuery query = runHistory.get().query();
+
+        String location = arguments.getArgument("location").getStringValue();
+        if (!location.isEmpty()) {
+            LootrunLocation lootrunLocation = EnumUtils.fromJsonFormat(LootrunLocation.class, location);
+            if (lootrunLocation == null) return Optional.empty();
+
+            query.inLocation(lootrunLocation);
+        }
+
+        String mission = arguments.getArgument("mission").getStringValue();
+        if (!mission.isEmpty()) {
+            MissionType missionType = MissionType.fromName(mission);
+            if (missionType == MissionType.UNKNOWN) return Optional.empty();
+
+            query.withMission(missionType);
+        }
+
+        return Optional.of(query);
+    }
+
+    private static List<FunctionArguments.Argument<?>> getRunQueryArguments() {
+        return List.of(
+                new FunctionArguments.Argument<>("location", String.class, ""),
+                new FunctionArguments.Argument<>("mission", String.class, ""));
+    }
+
+    private static List<FunctionArguments.Argument<?>> getRunValueQueryArguments() {
+        return List.of(
+                new FunctionArguments.Argument<>("value", String.class, "rewardPulls"),
+                new FunctionArguments.Argument<>("location", String.class, ""),
+                new FunctionArguments.Argument<>("mission", String.class, ""));
+    }
 }
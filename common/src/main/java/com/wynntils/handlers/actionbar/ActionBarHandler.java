@@ -8,6 +8,7 @@ import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Handler;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
+import com.wynntils.core.text.StyledTextBuilder;
 import com.wynntils.handlers.actionbar.type.ActionBarPosition;
 import com.wynntils.mc.event.ChatPacketReceivedEvent;
 import java.util.ArrayList;
@@ -82,26 +83,26 @@ public final class ActionBarHandler extends Handler {
 
         Arrays.stream(ActionBarPosition.values()).forEach(pos -> processPosition(pos, positionMatches));
 
-        StyledText newContentBuilder = StyledText.EMPTY;
+        StyledTextBuilder newContentBuilder = new StyledTextBuilder();
         // vanilla segments have three spaces between each segment, regardless of content
         if (!lastSegments.get(ActionBarPosition.LEFT).isHidden()) {
-            newContentBuilder = newContentBuilder.append(positionMatches.get(ActionBarPosition.LEFT));
+            newContentBuilder.append(positionMatches.get(ActionBarPosition.LEFT));
         }
         if (!lastSegments.get(ActionBarPosition.CENTER).isHidden()) {
-            newContentBuilder = newContentBuilder.append(STANDARD_PADDING);
-            newContentBuilder = newContentBuilder.append(positionMatches.get(ActionBarPosition.CENTER));
-            newContentBuilder = newContentBuilder.append(STANDARD_PADDING);
+            newContentBuilder.append(STANDARD_PADDING);
+            newContentBuilder.append(positionMatches.get(ActionBarPosition.CENTER));
+            newContentBuilder.append(STANDARD_PADDING);
         } else {
             // Add padding
-            newContentBuilder = newContentBuilder.append(CENTER_PADDING);
+            newContentBuilder.append(CENTER_PADDING);
         }
         if (!lastSegments.get(ActionBarPosition.RIGHT).isHidden()) {
-            newContentBuilder = newContentBuilder.append(positionMatches.get(ActionBarPosition.RIGHT));
+            newContentBuilder.append(positionMatches.get(ActionBarPosition.RIGHT));
         }
-        newContentBuilder = newContentBuilder.trim(); // In case either left or right is hidden
-        previousProcessedContent = newContentBuilder;
-        if (!content.equals(newContentBuilder)) {
-            event.setMessage(newContentBuilder.getComponent());
+        StyledText newContent = newContentBuilder.build().trim(); // In case either left or right is hidden
+        previousProcessedContent = newContent;
+        if (!content.equals(newContent)) {
+            event.setMessage(newContent.getComponent());
         }
     }
 
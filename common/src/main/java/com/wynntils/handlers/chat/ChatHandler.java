@@ -9,10 +9,14 @@ import com.wynntils.core.components.Handler;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.mod.event.WynncraftConnectionEvent;
+import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
+import com.wynntils.handlers.chat.type.ChatPatternListener;
+import com.wynntils.handlers.chat.type.ChatPatternStatistics;
 import com.wynntils.handlers.chat.type.MessageType;
 import com.wynntils.handlers.chat.type.NpcDialogueType;
+import com.wynntils.handlers.chat.type.PatternMatchType;
 import com.wynntils.handlers.chat.type.RecipientType;
 import com.wynntils.mc.event.ChatPacketReceivedEvent;
 import com.wynntils.mc.event.MobEffectEvent;
@@ -71,6 +75,11 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
  * sending out information that already sent chat lines would need to be updated to
  * a different formatting. This could be done, but requires extra logic, and most
  * importantly, a way to update already printed chat lines.
+ * <p>
+ * Components that only care about messages matching some patterns can register them
+ * with {@link #registerPattern}, instead of each matching all of their patterns against
+ * every message. The listeners of the matching patterns are called with the same
+ * priorities as event bus listeners.
  */
 public final class ChatHandler extends Handler {
     // Test in ChatHandler_NPC_CONFIRM_PATTERN
@@ -101,6 +110,86 @@ public final class ChatHandler extends Handler {
     private long chatScreenTicks = 0;
     private List<Component> collectedLines = new ArrayList<>();
 
+    private final ChatPatternDispatcher patternDispatcher = new ChatPatternDispatcher();
+
+    /**
+     * Calls the listener when the original text of a chat message matches the whole pattern.
+     */
+    public void registerPattern(Object owner, Pattern pattern, ChatPatternListener listener) {
+        registerPattern(owner, pattern, EventPriority.NORMAL, listener);
+    }
+
+    public void registerPattern(Object owner, Pattern pattern, EventPriority priority, ChatPatternListener listener) {
+        registerPattern(owner, pattern, PatternMatchType.MATCHES, PartStyle.StyleType.DEFAULT, priority, listener);
+    }
+
+    public void registerPattern(
+            Object owner,
+            Pattern pattern,
+            PatternMatchType matchType,
+            PartStyle.StyleType styleType,
+            EventPriority priority,
+            ChatPatternListener listener) {
+        registerPattern(owner, pattern, matchType, styleType, priority, false, listener);
+    }
+
+    /**
+     * Like the other overloads, but the listener can also be called after another listener of the same priority
+     * canceled the message, like an event bus listener with receiveCanceled.
+     */
+    public void registerPattern(
+            Object owner,
+            Pattern pattern,
+            PatternMatchType matchType,
+            PartStyle.StyleType styleType,
+            EventPriority priority,
+            boolean receiveCanceled,
+            ChatPatternListener listener) {
+        String name = owner.getClass().getSimpleName() + " " + pattern.pattern();
+        patternDispatcher.register(owner, name, pattern, matchType, styleType, priority, receiveCanceled, listener);
+    }
+
+    /**
+     * Removes all patterns registered by the owner, so their listeners are no longer called.
+     */
+    public void unregisterPatterns(Object owner) {
+        patternDispatcher.unregister(owner);
+    }
+
+    public List<ChatPatternStatistics> getPatternStatistics() {
+        return patternDispatcher.getStatistics();
+    }
+
+    public void resetPatternStatistics() {
+        patternDispatcher.resetStatistics();
+    }
+
+    // One listener per priority, so pattern listeners are called in the same order as event listeners
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onChatMessageHighest(ChatMessageReceivedEvent event) {
+        patternDispatcher.dispatch(event, EventPriority.HIGHEST);
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGH)
+    public void onChatMessageHigh(ChatMessageReceivedEvent event) {
+        patternDispatcher.dispatch(event, EventPriority.HIGH);
+    }
+
+    @SubscribeEvent
+    public void onChatMessageNormal(ChatMessageReceivedEvent event) {
+        patternDispatcher.dispatch(event, EventPriority.NORMAL);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOW)
+    public void onChatMessageLow(ChatMessageReceivedEvent event) {
+        patternDispatcher.dispatch(event, EventPriority.LOW);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onChatMessageLowest(ChatMessageReceivedEvent event) {
+        patternDispatcher.dispatch(event, EventPriority.LOWEST);
+    }
+
     @SubscribeEvent
     public void onConnectionChange(WynncraftConnectionEvent event) {
         // Reset chat handler
@@ -0,0 +1,176 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat;
+
+import com.wynntils.core.text.PartStyle;
+import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
+import com.wynntils.handlers.chat.type.ChatPatternListener;
+import com.wynntils.handlers.chat.type.ChatPatternStatistics;
+import com.wynntils.handlers.chat.type.PatternMatchType;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.minecraftforge.eventbus.api.EventPriority;
+
+/**
+ * Runs the registered chat patterns against every chat message, and calls the listeners of the ones that match.
+ *
+ * <p>Most patterns can only match messages that contain a certain literal, like "has thrown a" or "Guild". These
+ * literals are all looked for with a single pass over the message, and only the patterns whose literal is in the
+ * message, or which have none, are run. The pass is done once per message and style type, no matter how many
+ * priorities the patterns are registered with.
+ */
+final class ChatPatternDispatcher {
+    private final List<Registration> registrations = new ArrayList<>();
+
+    // Built when needed, as patterns are registered in bulk, during startup or when a feature is enabled
+    private final Map<PartStyle.StyleType, LiteralAutomaton> automatons = new EnumMap<>(PartStyle.StyleType.class);
+
+    // The registrations whose literal is in the last message, by the style type they are matched with
+    private final Map<PartStyle.StyleType, BitSet> candidates = new EnumMap<>(PartStyle.StyleType.class);
+    private ChatMessageReceivedEvent candidatesEvent;
+
+    void register(
+            Object owner,
+            String name,
+            Pattern pattern,
+            PatternMatchType matchType,
+            PartStyle.StyleType styleType,
+            EventPriority priority,
+            boolean receiveCanceled,
+            ChatPatternListener listener) {
+        registrations.add(new Registration(
+                owner,
+                name,
+                pattern,
+                PatternLiterals.getRequiredLiteral(pattern),
+                matchType,
+                styleType,
+                priority,
+                receiveCanceled,
+                listener));
+        automatons.remove(styleType);
+        candidatesEvent = null;
+    }
+
+    void unregister(Object owner) {
+        if (!registrations.removeIf(registration -> registration.owner == owner)) return;
+
+        // The literal ids of all registrations after the removed ones have changed
+        automatons.clear();
+        candidatesEvent = null;
+    }
+
+    /**
+     * Calls the listeners of all patterns registered with the priority that match the message. Once a listener
+     * cancels the event, only the listeners registered to receive canceled events are called, like listeners on the
+     * event bus.
+     */
+    void dispatch(ChatMessageReceivedEvent event, EventPriority priority) {
+        if (event != candidatesEvent) {
+            candidatesEvent = event;
+            candidates.clear();
+        }
+
+        for (int i = 0; i < registrations.size(); i++) {
+            Registration registration = registrations.get(i);
+            if (registration.priority != priority) continue;
+            if (event.isCanceled() && !registration.receiveCanceled) continue;
+            if (!registration.literal.isEmpty() && !getCandidates(event, registration.styleType).get(i)) continue;
+
+            long startTime = System.nanoTime();
+            Matcher matcher = event.getOriginalStyledText().getMatcher(registration.pattern, registration.styleType);
+            boolean matched = registration.matchType == PatternMatchType.MATCHES ? matcher.matches() : matcher.find();
+            registration.nanos += System.nanoTime() - startTime;
+            registration.runs++;
+
+            if (!matched) continue;
+
+            registration.hits++;
+            registration.listener.onMatch(event, matcher);
+        }
+    }
+
+    List<ChatPatternStatistics> getStatistics() {
+        return registrations.stream()
+                .map(registration -> new ChatPatternStatistics(
+                        registration.name, registration.runs, registration.hits, registration.nanos))
+                .toList();
+    }
+
+    void resetStatistics() {
+        for (Registration registration : registrations) {
+            registration.runs = 0;
+            registration.hits = 0;
+            registration.nanos = 0;
+        }
+    }
+
+    private BitSet getCandidates(ChatMessageReceivedEvent event, PartStyle.StyleType styleType) {
+        BitSet found = candidates.get(styleType);
+        if (found != null) return found;
+
+        found = new BitSet(registrations.size());
+        getAutomaton(styleType).findAll(event.getOriginalStyledText().getString(styleType), found);
+        candidates.put(styleType, found);
+        return found;
+    }
+
+    private LiteralAutomaton getAutomaton(PartStyle.StyleType styleType) {
+        LiteralAutomaton automaton = automatons.get(styleType);
+        if (automaton != null) return automaton;
+
+        // Literal ids are the indices of the registrations, so the found bits can be checked directly
+        List<String> literals = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            literals.add(registration.styleType == styleType ? registration.literal : "");
+        }
+
+        automaton = new LiteralAutomaton(literals);
+        automatons.put(styleType, automaton);
+        return automaton;
+    }
+
+    private static final class Registration {
+        private final Object owner;
+        private final String name;
+        private final Pattern pattern;
+        private final String literal;
+        private final PatternMatchType matchType;
+        private final PartStyle.StyleType styleType;
+        private final EventPriority priority;
+        private final boolean receiveCanceled;
+        private final ChatPatternListener listener;
+
+        private int runs = 0;
+        private int hits = 0;
+        private long nanos = 0;
+
+        private Registration(
+                Object owner,
+                String name,
+                Pattern pattern,
+                String literal,
+                PatternMatchType matchType,
+                PartStyle.StyleType styleType,
+                EventPriority priority,
+                boolean receiveCanceled,
+                ChatPatternListener listener) {
+            this.owner = owner;
+            this.name = name;
+            this.pattern = pattern;
+            this.literal = literal;
+            this.matchType = matchType;
+            this.styleType = styleType;
+            this.priority = priority;
+            this.receiveCanceled = receiveCanceled;
+            this.listener = listener;
+        }
+    }
+}
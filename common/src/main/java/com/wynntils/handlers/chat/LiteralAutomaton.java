@@ -0,0 +1,112 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat;
+
+import it.unimi.dsi.fastutil.chars.Char2IntMap;
+import it.unimi.dsi.fastutil.chars.Char2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An Aho-Corasick automaton, which finds all of a set of literals in a text with a single pass over the text.
+ */
+final class LiteralAutomaton {
+    private static final int ROOT = 0;
+
+    private final List<Char2IntMap> transitions = new ArrayList<>();
+    private final IntList failures = new IntArrayList();
+    // The ids of the literals that end at each state, including the ones reached by following failure links
+    private final List<IntList> outputs = new ArrayList<>();
+
+    /**
+     * @param literals the literals to find, their index in the list is their id; empty literals are never found
+     */
+    LiteralAutomaton(List<String> literals) {
+        addState();
+
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            if (literal.isEmpty()) continue;
+
+            int state = ROOT;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                int next = transitions.get(state).get(c);
+                if (next == -1) {
+                    next = addState();
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.get(state).add(id);
+        }
+
+        buildFailures();
+    }
+
+    /**
+     * Sets the bit of the id of every literal that is in the text.
+     */
+    void findAll(String text, BitSet found) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            int next = transitions.get(state).get(c);
+            while (next == -1 && state != ROOT) {
+                state = failures.getInt(state);
+                next = transitions.get(state).get(c);
+            }
+            state = next == -1 ? ROOT : next;
+
+            IntList stateOutputs = outputs.get(state);
+            for (int j = 0; j < stateOutputs.size(); j++) {
+                found.set(stateOutputs.getInt(j));
+            }
+        }
+    }
+
+    private int addState() {
+        Char2IntMap stateTransitions = new Char2IntOpenHashMap(2);
+        stateTransitions.defaultReturnValue(-1);
+
+        transitions.add(stateTransitions);
+        failures.add(ROOT);
+        outputs.add(new IntArrayList(0));
+        return transitions.size() - 1;
+    }
+
+    // Breadth first, so the failure state of the parent is always known
+    private void buildFailures() {
+        IntList queue = new IntArrayList();
+        for (Char2IntMap.Entry entry : transitions.get(ROOT).char2IntEntrySet()) {
+            queue.add(entry.getIntValue());
+        }
+
+        for (int head = 0; head < queue.size(); head++) {
+            int state = queue.getInt(head);
+
+            for (Char2IntMap.Entry entry : transitions.get(state).char2IntEntrySet()) {
+                char c = entry.getCharKey();
+                int child = entry.getIntValue();
+                queue.add(child);
+
+                int failure = failures.getInt(state);
+                int failureNext = transitions.get(failure).get(c);
+                while (failureNext == -1 && failure != ROOT) {
+                    failure = failures.getInt(failure);
+                    failureNext = transitions.get(failure).get(c);
+                }
+                int childFailure = failureNext == -1 ? ROOT : failureNext;
+
+                failures.set(child, childFailure);
+                outputs.get(child).addAll(outputs.get(childFailure));
+            }
+        }
+    }
+}
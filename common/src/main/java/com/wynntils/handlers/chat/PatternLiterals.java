@@ -0,0 +1,202 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat;
+
+import java.util.regex.Pattern;
+
+/**
+ * Finds a literal that every match of a regex contains, so texts without it can be ruled out before running the
+ * regex.
+ *
+ * <p>Only the parts of the regex outside of groups and character classes are looked at. Alternations at the top
+ * level and case insensitive patterns have no required literal. Neither do regexes with anything the parsing does
+ * not understand, as an alternation after it would make the literals found before it optional.
+ */
+final class PatternLiterals {
+    // Escapes of a single character that don't match a literal, all other letter and digit escapes are not understood
+    private static final String CHARACTER_CLASS_ESCAPES = "dDsSwWbBAGZzRhHvVX";
+
+    private PatternLiterals() {}
+
+    /**
+     * Returns the longest literal that every match of the pattern contains, or an empty string if there is none.
+     */
+    static String getRequiredLiteral(Pattern pattern) {
+        if ((pattern.flags() & Pattern.LITERAL) != 0) return pattern.pattern();
+        if ((pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) return "";
+
+        String regex = pattern.pattern();
+        StringBuilder run = new StringBuilder();
+        String longest = "";
+        // Whether the last atom is the last character of the current run, so a quantifier applies to it
+        boolean lastAtomInRun = false;
+
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 >= regex.length()) return "";
+
+                    char escaped = regex.charAt(i + 1);
+                    if (!Character.isLetterOrDigit(escaped)) {
+                        run.append(escaped);
+                        lastAtomInRun = true;
+                        i += 2;
+                        continue;
+                    }
+                    if (CHARACTER_CLASS_ESCAPES.indexOf(escaped) == -1) return "";
+
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i += 2;
+                }
+                case '[' -> {
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i = skipCharacterClass(regex, i);
+                    if (i == -1) return "";
+                }
+                case '(' -> {
+                    // Inline flags like (?i) change how the rest of the regex matches
+                    if (regex.startsWith("(?", i) && i + 2 < regex.length() && isInlineFlag(regex.charAt(i + 2))) {
+                        return "";
+                    }
+
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i = skipGroup(regex, i);
+                    if (i == -1) return "";
+                }
+                case '|' -> {
+                    // Any of the alternatives can match, so none of the literals are required
+                    return "";
+                }
+                case '?', '*', '{' -> {
+                    if (lastAtomInRun) {
+                        removeLastCharacter(run);
+                    }
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i = skipQuantifier(regex, i);
+                    if (i == -1) return "";
+                }
+                case '+' -> {
+                    // The atom is still required once
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i = skipQuantifier(regex, i);
+                    if (i == -1) return "";
+                }
+                case '.', '^', '$' -> {
+                    longest = getLonger(longest, run);
+                    lastAtomInRun = false;
+                    i++;
+                }
+                case ')' -> {
+                    // Unbalanced, this is not a valid regex
+                    return "";
+                }
+                default -> {
+                    run.append(c);
+                    lastAtomInRun = true;
+                    i++;
+                }
+            }
+        }
+
+        return getLonger(longest, run);
+    }
+
+    private static String getLonger(String longest, StringBuilder run) {
+        String candidate = run.toString();
+        run.setLength(0);
+        return candidate.length() > longest.length() ? candidate : longest;
+    }
+
+    private static void removeLastCharacter(StringBuilder run) {
+        if (run.isEmpty()) return;
+
+        run.setLength(run.length() - 1);
+        // Quantifiers apply to whole code points
+        if (!run.isEmpty() && Character.isHighSurrogate(run.charAt(run.length() - 1))) {
+            run.setLength(run.length() - 1);
+        }
+    }
+
+    private static boolean isInlineFlag(char c) {
+        return c == '-' || "idmsuxU".indexOf(c) != -1;
+    }
+
+    // Returns the index after the quantifier, including a lazy or possessive suffix, or -1 if it is malformed
+    private static int skipQuantifier(String regex, int start) {
+        int i = start;
+        if (regex.charAt(i) == '{') {
+            i = regex.indexOf('}', i);
+            if (i == -1) return -1;
+        }
+        i++;
+
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    // Returns the index after the closing bracket, or -1 if there is none
+    private static int skipCharacterClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+
+            if (c == '[') {
+                depth++;
+                // A closing bracket right at the start is part of the class
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') i++;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') i++;
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) return i + 1;
+            }
+            i++;
+        }
+
+        return -1;
+    }
+
+    // Returns the index after the closing parenthesis, or -1 if there is none
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+
+            if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                if (i == -1) return -1;
+                continue;
+            }
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) return i + 1;
+            }
+            i++;
+        }
+
+        return -1;
+    }
+}
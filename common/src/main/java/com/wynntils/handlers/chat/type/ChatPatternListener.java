@@ -0,0 +1,16 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat.type;
+
+import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
+import java.util.regex.Matcher;
+
+@FunctionalInterface
+public interface ChatPatternListener {
+    /**
+     * Called with the matcher of a registered pattern that matched the original text of a chat message.
+     */
+    void onMatch(ChatMessageReceivedEvent event, Matcher matcher);
+}
@@ -0,0 +1,12 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat.type;
+
+/**
+ * @param runs how often the regex was run, messages ruled out by the literal prefilter are not counted
+ * @param hits how often the regex matched
+ * @param nanos the time spent running the regex, without the time spent in the listener
+ */
+public record ChatPatternStatistics(String name, int runs, int hits, long nanos) {}
@@ -0,0 +1,12 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.chat.type;
+
+public enum PatternMatchType {
+    // The pattern has to match the whole message
+    MATCHES,
+    // The pattern has to match a part of the message
+    FIND
+}
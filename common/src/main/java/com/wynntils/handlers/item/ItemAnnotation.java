@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.handlers.item;
@@ -8,4 +8,12 @@ import net.minecraft.world.item.ItemStack;
 
 public interface ItemAnnotation {
     void onUpdate(ItemStack itemStack);
+
+    /**
+     * Returns a new annotation with the same content, for another stack of the same item. Annotations that depend on
+     * the stack they were created for return null, and are never shared.
+     */
+    default ItemAnnotation copy() {
+        return null;
+    }
 }
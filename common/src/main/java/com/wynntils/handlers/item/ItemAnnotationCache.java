@@ -0,0 +1,80 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.item;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wynntils.core.text.StyledText;
+import com.wynntils.mc.extension.ItemStackExtension;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Remembers the annotations of recently annotated items, as screens like the trade market, the bank or merchants send
+ * the same items over and over again, each time as new item stacks.
+ *
+ * <p>Items are looked up by their type, damage value, name and the fingerprint of their lore, which is everything the
+ * annotators look at. The cache keeps a copy of each annotation as a template, and every hit gets a copy of its own
+ * (see {@link ItemAnnotation#copy()}). Annotations that can't be copied are not cached. The cache is bounded, and
+ * evicts the least recently used items first.
+ */
+public final class ItemAnnotationCache {
+    private static final int MAX_ENTRIES = 1024;
+
+    private final Cache<Key, ItemAnnotation> templates = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ItemAnnotation get(ItemStack itemStack, StyledText name) {
+        ItemAnnotation template = templates.getIfPresent(Key.of(itemStack, name));
+        if (template == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return template.copy();
+    }
+
+    void put(ItemStack itemStack, StyledText name, ItemAnnotation annotation) {
+        // The annotation itself is given to the stack, and its data changes with it
+        ItemAnnotation template = annotation.copy();
+        if (template == null) return;
+
+        templates.put(Key.of(itemStack, name), template);
+    }
+
+    public void invalidate() {
+        templates.invalidateAll();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), templates.size());
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    public record Statistics(long hits, long misses, long size) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private record Key(Item item, int damage, StyledText name, long loreHash) {
+        private static Key of(ItemStack itemStack, StyledText name) {
+            return new Key(
+                    itemStack.getItem(),
+                    itemStack.getDamageValue(),
+                    name,
+                    ((ItemStackExtension) itemStack).getFingerprint().getLoreHash());
+        }
+    }
+}
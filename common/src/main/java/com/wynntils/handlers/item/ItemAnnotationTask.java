@@ -0,0 +1,80 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.item;
+
+import com.wynntils.core.text.StyledText;
+import com.wynntils.utils.type.Pair;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Tries the annotators of an item until one of them annotates it. This can be done off the main thread, but the
+ * results, including the annotators that crashed, are only handled on the main thread by {@link ItemHandler}.
+ */
+final class ItemAnnotationTask {
+    private final ItemStack itemStack;
+    private final StyledText name;
+    private final StyledText simplifiedName;
+    private final List<ItemAnnotator> annotators;
+
+    private final List<Pair<ItemAnnotator, Throwable>> crashes = new ArrayList<>();
+    private ItemAnnotation annotation = null;
+    private int nextAnnotator = 0;
+    private long timeSpent = 0;
+
+    ItemAnnotationTask(ItemStack itemStack, StyledText name, StyledText simplifiedName, List<ItemAnnotator> annotators) {
+        this.itemStack = itemStack;
+        this.name = name;
+        this.simplifiedName = simplifiedName;
+        this.annotators = annotators;
+    }
+
+    /**
+     * Tries the remaining annotators. Off the main thread, this stops before the first annotator that
+     * {@link ItemAnnotator#requiresMainThread() requires the main thread}, and has to be continued on it.
+     */
+    void run(boolean onMainThread) {
+        long startTime = System.currentTimeMillis();
+
+        while (annotation == null && nextAnnotator < annotators.size()) {
+            ItemAnnotator annotator = annotators.get(nextAnnotator);
+            if (!onMainThread && annotator.requiresMainThread()) break;
+
+            nextAnnotator++;
+            try {
+                annotation = annotator.getAnnotation(itemStack, simplifiedName);
+            } catch (Throwable t) {
+                crashes.add(Pair.of(annotator, t));
+            }
+        }
+
+        timeSpent += System.currentTimeMillis() - startTime;
+    }
+
+    boolean isDone() {
+        return annotation != null || nextAnnotator == annotators.size();
+    }
+
+    ItemStack getItemStack() {
+        return itemStack;
+    }
+
+    StyledText getName() {
+        return name;
+    }
+
+    ItemAnnotation getAnnotation() {
+        return annotation;
+    }
+
+    List<Pair<ItemAnnotator, Throwable>> getCrashes() {
+        return crashes;
+    }
+
+    long getTimeSpent() {
+        return timeSpent;
+    }
+}
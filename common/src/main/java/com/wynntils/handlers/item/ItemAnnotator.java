@@ -10,4 +10,19 @@ import net.minecraft.world.item.ItemStack;
 @FunctionalInterface
 public interface ItemAnnotator {
     ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) throws InterruptedException;
+
+    /**
+     * Returns the items this annotator can annotate. Annotators are only tried for items their route accepts.
+     */
+    default ItemAnnotatorRoute getRoute() {
+        return ItemAnnotatorRoute.ANY;
+    }
+
+    /**
+     * Returns true if this annotator must be run on the main thread, e.g. because it fires events or reads the
+     * state of the client. Other annotators may be run on worker threads when many items are annotated at once.
+     */
+    default boolean requiresMainThread() {
+        return false;
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.item;
+
+import java.util.List;
+import java.util.Set;
+import net.minecraft.world.item.Item;
+
+/**
+ * Describes which items an {@link ItemAnnotator} can annotate, by cheap properties of the item, so the annotator
+ * does not have to be tried for other items.
+ *
+ * <p>Routes must never exclude an item the annotator would annotate. The formatting codes of a route are the ones
+ * the name pattern of the annotator requires at the very start of the name, like {@code 5abcdef} for
+ * {@code ^§[5abcdef]}. Names that don't start with a formatting code have {@link #NO_FORMATTING_CODE} instead.
+ */
+public final class ItemAnnotatorRoute {
+    public static final ItemAnnotatorRoute ANY = new ItemAnnotatorRoute(null, null);
+
+    static final char NO_FORMATTING_CODE = '\0';
+
+    // null if any item or code is accepted
+    private final Set<Item> items;
+    private final String formattingCodes;
+
+    private ItemAnnotatorRoute(Set<Item> items, String formattingCodes) {
+        this.items = items;
+        this.formattingCodes = formattingCodes;
+    }
+
+    public static ItemAnnotatorRoute items(Item... items) {
+        return new ItemAnnotatorRoute(Set.copyOf(List.of(items)), null);
+    }
+
+    public static ItemAnnotatorRoute formattingCodes(String formattingCodes) {
+        return new ItemAnnotatorRoute(null, formattingCodes);
+    }
+
+    public ItemAnnotatorRoute withFormattingCodes(String formattingCodes) {
+        return new ItemAnnotatorRoute(items, formattingCodes);
+    }
+
+    boolean accepts(Item item, char formattingCode) {
+        if (items != null && !items.contains(item)) return false;
+
+        return formattingCodes == null || formattingCodes.indexOf(formattingCode) != -1;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.handlers.item;
+
+import com.wynntils.utils.mc.LoreUtils;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Hashes of the name and lore of an item stack, so stacks can be compared without parsing their name or lore.
+ *
+ * <p>The hashes are calculated from the raw json of the name and the lore lines, as they are stored in the tag of the
+ * stack. Equal hashes mean the name or lore is identical, but different hashes don't guarantee that the parsed text is
+ * different, as the same text can be written as different json.
+ */
+public final class ItemFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long nameHash;
+    private final long loreHash;
+    private final long[] loreLineHashes;
+
+    private ItemFingerprint(long nameHash, long loreHash, long[] loreLineHashes) {
+        this.nameHash = nameHash;
+        this.loreHash = loreHash;
+        this.loreLineHashes = loreLineHashes;
+    }
+
+    public static ItemFingerprint of(ItemStack itemStack) {
+        // This mirrors ItemStack#getHoverName, which uses the description of the item if there is no custom name
+        CompoundTag display = itemStack.getTagElement("display");
+        String name = display != null && display.contains("Name", Tag.TAG_STRING)
+                ? display.getString("Name")
+                : itemStack.getItem().getDescriptionId();
+        long nameHash = hashString(name);
+
+        ListTag loreTag = LoreUtils.getLoreTag(itemStack);
+        int loreLines = loreTag == null ? 0 : loreTag.size();
+
+        long[] loreLineHashes = new long[loreLines];
+        long loreHash = combine(FNV_OFFSET_BASIS, loreLines);
+        for (int i = 0; i < loreLines; i++) {
+            loreLineHashes[i] = hashString(loreTag.getString(i));
+            loreHash = combine(loreHash, loreLineHashes[i]);
+        }
+
+        return new ItemFingerprint(nameHash, loreHash, loreLineHashes);
+    }
+
+    public long getHash() {
+        return combine(nameHash, loreHash);
+    }
+
+    public long getLoreHash() {
+        return loreHash;
+    }
+
+    public boolean isNameMatching(ItemFingerprint other) {
+        return nameHash == other.nameHash;
+    }
+
+    public boolean isLoreMatching(ItemFingerprint other) {
+        return loreHash == other.loreHash;
+    }
+
+    public int getLoreLineCount() {
+        return loreLineHashes.length;
+    }
+
+    public long getLoreLineHash(int line) {
+        return loreLineHashes[line];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ItemFingerprint other)) return false;
+
+        return nameHash == other.nameHash && loreHash == other.loreHash;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getHash());
+    }
+
+    // FNV-1a, which is fast for the short strings of names and lore lines
+    private static long hashString(String string) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long combine(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
@@ -4,9 +4,11 @@
  */
 package com.wynntils.handlers.item;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Handler;
 import com.wynntils.core.mod.type.CrashType;
+import com.wynntils.core.net.event.NetResultProcessedEvent;
 import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.event.ItemRenamedEvent;
@@ -17,19 +19,24 @@ import com.wynntils.mc.event.SetSlotEvent;
 import com.wynntils.mc.extension.ItemStackExtension;
 import com.wynntils.models.items.WynnItem;
 import com.wynntils.models.items.WynnItemData;
-import com.wynntils.utils.mc.LoreUtils;
 import com.wynntils.utils.mc.McUtils;
+import com.wynntils.utils.type.Pair;
+import it.unimi.dsi.fastutil.chars.Char2ObjectMap;
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.ChatFormatting;
 import net.minecraft.core.NonNullList;
-import net.minecraft.nbt.ListTag;
 import net.minecraft.network.syncher.SynchedEntityData;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
@@ -42,13 +49,28 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 public class ItemHandler extends Handler {
     private static final List<Item> WILDCARD_ITEMS = List.of(Items.DIAMOND_SHOVEL, Items.DIAMOND_PICKAXE);
 
+    // Below this, running the annotators on the worker threads costs more than it saves
+    private static final int MIN_PARALLEL_ANNOTATIONS = 8;
+    private static final ExecutorService ANNOTATION_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            new ThreadFactoryBuilder()
+                    .setNameFormat("wynntils-item-annotation-%d")
+                    .setDaemon(true)
+                    .build());
+
     private final List<ItemAnnotator> annotators = new ArrayList<>();
+    // The annotators to try for each item and first formatting code of the name, in registration order.
+    // Filled when needed, and cleared when the annotators change.
+    private final Map<Item, Char2ObjectMap<List<ItemAnnotator>>> routedAnnotators = new IdentityHashMap<>();
+    private final ItemAnnotationCache annotationCache = new ItemAnnotationCache();
     private final Map<Class<?>, Integer> profilingTimes = new HashMap<>();
     private final Map<Class<?>, Integer> profilingCounts = new HashMap<>();
     // Keep this as a field just of performance reasons to skip a new allocation in annotate()
     private final List<ItemAnnotator> crashedAnnotators = new ArrayList<>();
     private final List<Pattern> knownMarkerNames = new ArrayList<>();
     private final List<Pattern> simplifiablePatterns = new ArrayList<>();
+    // The items to annotate at the end of a bulk update, or null if items are annotated right away
+    private List<ItemStack> deferredAnnotations = null;
 
     public void registerKnownMarkerNames(List<Pattern> markerPatterns) {
         knownMarkerNames.addAll(markerPatterns);
@@ -67,6 +89,8 @@ public class ItemHandler extends Handler {
 
     public void registerAnnotator(ItemAnnotator annotator) {
         annotators.add(annotator);
+        routedAnnotators.clear();
+        annotationCache.invalidate();
     }
 
     public void updateItem(ItemStack itemStack, ItemAnnotation annotation, StyledText name) {
@@ -76,6 +100,13 @@ public class ItemHandler extends Handler {
         annotation.onUpdate(itemStack);
     }
 
+    @SubscribeEvent
+    public void onDataLoaded(NetResultProcessedEvent.ForUrlId event) {
+        // The annotations of the cached items could change with the new data, e.g. when the gear or ingredient
+        // registries are reloaded
+        annotationCache.invalidate();
+    }
+
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public void onSetSlot(SetSlotEvent.Pre event) {
         onItemStackUpdate(event.getContainer().getItem(event.getSlot()), event.getItemStack());
@@ -114,19 +145,22 @@ public class ItemHandler extends Handler {
         } else {
             // No matching container found. This can be due to a ContainerQuery, so
             // annotate all items
-            List<ItemStack> newItems = event.getItems();
-
-            for (ItemStack newItem : newItems) {
-                annotate(newItem);
-            }
-
+            annotateAll(event.getItems());
             return;
         }
 
         List<ItemStack> newItems = event.getItems();
 
-        for (int i = 0; i < newItems.size(); i++) {
-            onItemStackUpdate(existingItems.get(i), newItems.get(i));
+        // Collect the items that need to be annotated, so they can be annotated all at once
+        deferredAnnotations = new ArrayList<>();
+        try {
+            for (int i = 0; i < newItems.size(); i++) {
+                onItemStackUpdate(existingItems.get(i), newItems.get(i));
+            }
+        } finally {
+            List<ItemStack> itemStacks = deferredAnnotations;
+            deferredAnnotations = null;
+            annotateAll(itemStacks);
         }
     }
 
@@ -163,15 +197,30 @@ public class ItemHandler extends Handler {
             return;
         }
 
-        // We need to check if the name has changed, and/or the lore has changed
+        ItemFingerprint existingFingerprint = ((ItemStackExtension) existingItem).getFingerprint();
+        ItemFingerprint newFingerprint = ((ItemStackExtension) newItem).getFingerprint();
         StyledText originalName = ((ItemStackExtension) existingItem).getOriginalName();
-        StyledText existingName =
-                StyledText.fromComponent(existingItem.getHoverName()).getNormalized();
-        StyledText newName = StyledText.fromComponent(newItem.getHoverName()).getNormalized();
 
-        if (newName.equals(existingName)) {
+        // Most updates re-send the exact same item, which we can tell without parsing the name or lore
+        if (newFingerprint.equals(existingFingerprint)) {
+            updateItem(newItem, annotation, originalName);
+            return;
+        }
+
+        // We need to check if the name has changed, and/or the lore has changed
+        // The names only need to be parsed if their json differs
+        StyledText existingName = null;
+        StyledText newName = null;
+        boolean nameMatching = newFingerprint.isNameMatching(existingFingerprint);
+        if (!nameMatching) {
+            existingName = StyledText.fromComponent(existingItem.getHoverName()).getNormalized();
+            newName = StyledText.fromComponent(newItem.getHoverName()).getNormalized();
+            nameMatching = newName.equals(existingName);
+        }
+
+        if (nameMatching) {
             // The name is identical to the existing stack; now check the lore
-            if (isLoreSoftMatching(existingItem, newItem)) {
+            if (isLoreSoftMatching(existingFingerprint, newFingerprint)) {
                 // This is exactly the same item, so copy existing annotation
                 updateItem(newItem, annotation, originalName);
             } else {
@@ -183,7 +232,7 @@ public class ItemHandler extends Handler {
         } else if (isKnownMarkerName(newName)) {
             // This object has gotten a known marker name, but it could also be
             // that the lore has changed (e.g. durability/shiny stats)
-            boolean loreMatch = isLoreSoftMatching(existingItem, newItem);
+            boolean loreMatch = isLoreSoftMatching(existingFingerprint, newFingerprint);
             if (!loreMatch) {
                 // We need to reparse the lore since it has changed
                 // Make sure to use the original name instead of the marker name
@@ -239,17 +288,13 @@ public class ItemHandler extends Handler {
      * This checks if the lore of the second item contains the entirety of the first item's lore, or vice versa.
      * It might have additional lines added, but these are not checked.
      */
-    private boolean isLoreSoftMatching(ItemStack firstItem, ItemStack secondItem) {
-        ListTag firstLoreTags = LoreUtils.getLoreTag(firstItem);
-        ListTag secondLoreTags = LoreUtils.getLoreTag(secondItem);
-
-        // Tags implement equals, so we can use this to check if the lore is identical
+    private boolean isLoreSoftMatching(ItemFingerprint first, ItemFingerprint second) {
         // This is the most common short-circuit case
-        if (Objects.equals(firstLoreTags, secondLoreTags)) return true;
+        if (first.isLoreMatching(second)) return true;
 
         // Continue, as we allow 3 lines to differ
-        int firstLinesLen = firstLoreTags.size();
-        int secondLinesLen = secondLoreTags.size();
+        int firstLinesLen = first.getLoreLineCount();
+        int secondLinesLen = second.getLoreLineCount();
 
         // Only allow a maximum number of additional lines in the longer tooltip
         if (Math.abs(firstLinesLen - secondLinesLen) > 3) return false;
@@ -259,10 +304,7 @@ public class ItemHandler extends Handler {
         if (linesToCheck < 3 && firstLinesLen != secondLinesLen) return false;
 
         for (int i = 0; i < linesToCheck; i++) {
-            StyledText firstLine = StyledText.fromJson(firstLoreTags.get(i).getAsString());
-            StyledText secondLine = StyledText.fromJson(secondLoreTags.get(i).getAsString());
-
-            if (!firstLine.equals(secondLine)) return false;
+            if (first.getLoreLineHash(i) != second.getLoreLineHash(i)) return false;
         }
 
         // Every lore line matches from the first to the second (or second to the first), so we have a match
@@ -270,51 +312,136 @@ public class ItemHandler extends Handler {
     }
 
     private ItemAnnotation calculateAnnotation(ItemStack itemStack, StyledText name) {
-        long startTime = System.currentTimeMillis();
+        ItemAnnotation annotation = annotationCache.get(itemStack, name);
+        if (annotation == null) {
+            ItemAnnotationTask task = createTask(itemStack, name);
+            task.run(true);
+            annotation = completeTask(task);
+            if (annotation == null) return null;
+        }
+
+        storeItemStack(itemStack, annotation);
+        return annotation;
+    }
 
+    /**
+     * Annotates many items at once. The annotators of the items that are not cached are run in parallel, but all
+     * items are annotated when this returns.
+     */
+    private void annotateAll(List<ItemStack> itemStacks) {
+        if (itemStacks.size() < MIN_PARALLEL_ANNOTATIONS) {
+            itemStacks.forEach(this::annotate);
+            return;
+        }
+
+        // Everything but running the annotators is done on this thread, as the handler state is not thread-safe
+        List<ItemAnnotationTask> tasks = new ArrayList<>();
+        for (ItemStack itemStack : itemStacks) {
+            StyledText name = StyledText.fromComponent(itemStack.getHoverName()).getNormalized();
+
+            ItemAnnotation annotation = annotationCache.get(itemStack, name);
+            if (annotation != null) {
+                storeItemStack(itemStack, annotation);
+                updateItem(itemStack, annotation, name);
+                continue;
+            }
+
+            tasks.add(createTask(itemStack, name));
+        }
+
+        CompletableFuture<?>[] futures = tasks.stream()
+                .map(task -> CompletableFuture.runAsync(() -> task.run(false), ANNOTATION_EXECUTOR))
+                .toArray(CompletableFuture[]::new);
+        // Blocking the client thread is intended. The rest of the content update expects every item to be annotated
+        // when the event returns, and waiting for all of them at once is still faster than annotating them in turn.
+        CompletableFuture.allOf(futures).join();
+
+        for (ItemAnnotationTask task : tasks) {
+            ItemAnnotation annotation = completeTask(task);
+            if (annotation == null) continue;
+
+            storeItemStack(task.getItemStack(), annotation);
+            updateItem(task.getItemStack(), annotation, task.getName());
+        }
+    }
+
+    private ItemAnnotationTask createTask(ItemStack itemStack, StyledText name) {
         StyledText simplified = simplifyName(name);
+        return new ItemAnnotationTask(
+                itemStack, name, simplified, getRoutedAnnotators(itemStack.getItem(), simplified));
+    }
 
-        ItemAnnotation annotation = null;
+    /**
+     * Finishes the task on the main thread, and handles its results. Returns the annotation of the item, if any.
+     */
+    private ItemAnnotation completeTask(ItemAnnotationTask task) {
+        if (!task.isDone()) {
+            task.run(true);
+        }
 
-        for (ItemAnnotator annotator : annotators) {
-            try {
-                annotation = annotator.getAnnotation(itemStack, simplified);
-                if (annotation != null) {
-                    break;
-                }
-            } catch (Throwable t) {
-                // We can't disable it right away since that will cause ConcurrentModificationException
-                crashedAnnotators.add(annotator);
+        ItemStack itemStack = task.getItemStack();
+        for (Pair<ItemAnnotator, Throwable> crash : task.getCrashes()) {
+            ItemAnnotator annotator = crash.a();
+            // Other items of a bulk update could have crashed the annotator already
+            if (!annotators.contains(annotator)) continue;
 
-                String annotatorName = annotator.getClass().getSimpleName();
-                WynntilsMod.reportCrash(
-                        CrashType.ANNOTATOR, annotatorName, annotator.getClass().getName(), "handling", t);
+            // We can't disable it right away since that will cause ConcurrentModificationException
+            crashedAnnotators.add(annotator);
 
-                WynntilsMod.warn("Problematic item:" + itemStack);
-                WynntilsMod.warn("Problematic item name:" + StyledText.fromComponent(itemStack.getHoverName()));
-                WynntilsMod.warn("Problematic item tags:" + itemStack.getTag());
+            String annotatorName = annotator.getClass().getSimpleName();
+            WynntilsMod.reportCrash(
+                    CrashType.ANNOTATOR, annotatorName, annotator.getClass().getName(), "handling", crash.b());
 
-                McUtils.sendErrorToClient("Not all items will be properly parsed.");
-            }
+            WynntilsMod.warn("Problematic item:" + itemStack);
+            WynntilsMod.warn("Problematic item name:" + StyledText.fromComponent(itemStack.getHoverName()));
+            WynntilsMod.warn("Problematic item tags:" + itemStack.getTag());
+
+            McUtils.sendErrorToClient("Not all items will be properly parsed.");
         }
 
         // Hopefully we have none :)
-        for (ItemAnnotator annotator : crashedAnnotators) {
-            annotators.remove(annotator);
+        if (!crashedAnnotators.isEmpty()) {
+            for (ItemAnnotator annotator : crashedAnnotators) {
+                annotators.remove(annotator);
+            }
+            crashedAnnotators.clear();
+            routedAnnotators.clear();
         }
-        crashedAnnotators.clear();
 
+        ItemAnnotation annotation = task.getAnnotation();
         if (annotation == null) return null;
 
+        // Measure performance
+        logProfilingData(task.getTimeSpent(), annotation);
+
+        annotationCache.put(itemStack, task.getName(), annotation);
+        return annotation;
+    }
+
+    private void storeItemStack(ItemStack itemStack, ItemAnnotation annotation) {
         // Store the itemstack in the data for later use
         if (annotation instanceof WynnItem wynnItem) {
             wynnItem.getData().store(WynnItemData.ITEMSTACK_KEY, itemStack);
         }
+    }
 
-        // Measure performance
-        logProfilingData(startTime, annotation);
-
-        return annotation;
+    private List<ItemAnnotator> getRoutedAnnotators(Item item, StyledText name) {
+        String nameString = name.getString();
+        char formattingCode = nameString.length() >= 2 && nameString.charAt(0) == ChatFormatting.PREFIX_CODE
+                ? nameString.charAt(1)
+                : ItemAnnotatorRoute.NO_FORMATTING_CODE;
+
+        Char2ObjectMap<List<ItemAnnotator>> annotatorsByCode =
+                routedAnnotators.computeIfAbsent(item, key -> new Char2ObjectOpenHashMap<>());
+        List<ItemAnnotator> routed = annotatorsByCode.get(formattingCode);
+        if (routed != null) return routed;
+
+        // Filtering keeps the registration order, so the first annotator to match is still the same
+        routed = annotators.stream()
+                .filter(annotator -> annotator.getRoute().accepts(item, formattingCode))
+                .toList();
+        annotatorsByCode.put(formattingCode, routed);
+        return routed;
     }
 
     private StyledText simplifyName(StyledText name) {
@@ -335,6 +462,11 @@ public class ItemHandler extends Handler {
     }
 
     private void annotate(ItemStack itemStack) {
+        if (deferredAnnotations != null) {
+            deferredAnnotations.add(itemStack);
+            return;
+        }
+
         StyledText name = StyledText.fromComponent(itemStack.getHoverName()).getNormalized();
         ItemAnnotation annotation = calculateAnnotation(itemStack, name);
         if (annotation == null) return;
@@ -342,11 +474,9 @@ public class ItemHandler extends Handler {
         updateItem(itemStack, annotation, name);
     }
 
-    private void logProfilingData(long startTime, ItemAnnotation annotation) {
-        long endTime = System.currentTimeMillis();
-        int timeSpent = (int) (endTime - startTime);
+    private void logProfilingData(long timeSpent, ItemAnnotation annotation) {
         int allTime = profilingTimes.getOrDefault(annotation.getClass(), 0);
-        profilingTimes.put(annotation.getClass(), allTime + timeSpent);
+        profilingTimes.put(annotation.getClass(), allTime + (int) timeSpent);
 
         int allCount = profilingCounts.getOrDefault(annotation.getClass(), 0);
         profilingCounts.put(annotation.getClass(), allCount + 1);
@@ -365,6 +495,10 @@ public class ItemHandler extends Handler {
         profilingCounts.clear();
     }
 
+    public ItemAnnotationCache getAnnotationCache() {
+        return annotationCache;
+    }
+
     public List<ItemAnnotator> getAnnotators() {
         return Collections.unmodifiableList(annotators);
     }
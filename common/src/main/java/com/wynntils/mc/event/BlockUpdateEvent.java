@@ -0,0 +1,34 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.mc.event;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.eventbus.api.Event;
+
+/** Fired when a block in the client level changes its state */
+public class BlockUpdateEvent extends Event {
+    private final BlockPos pos;
+    private final BlockState oldState;
+    private final BlockState newState;
+
+    public BlockUpdateEvent(BlockPos pos, BlockState oldState, BlockState newState) {
+        this.pos = pos;
+        this.oldState = oldState;
+        this.newState = newState;
+    }
+
+    public BlockPos getPos() {
+        return pos;
+    }
+
+    public BlockState getOldState() {
+        return oldState;
+    }
+
+    public BlockState getNewState() {
+        return newState;
+    }
+}
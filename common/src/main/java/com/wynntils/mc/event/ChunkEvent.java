@@ -0,0 +1,33 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.mc.event;
+
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.eventbus.api.Event;
+
+/** Fired when the client receives or forgets the data of a chunk */
+public abstract class ChunkEvent extends Event {
+    private final ChunkPos chunkPos;
+
+    protected ChunkEvent(ChunkPos chunkPos) {
+        this.chunkPos = chunkPos;
+    }
+
+    public ChunkPos getChunkPos() {
+        return chunkPos;
+    }
+
+    public static final class Load extends ChunkEvent {
+        public Load(ChunkPos chunkPos) {
+            super(chunkPos);
+        }
+    }
+
+    public static final class Unload extends ChunkEvent {
+        public Unload(ChunkPos chunkPos) {
+            super(chunkPos);
+        }
+    }
+}
@@ -1,11 +1,12 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.mc.extension;
 
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemFingerprint;
 
 public interface ItemStackExtension {
     ItemAnnotation getAnnotation();
@@ -15,4 +16,10 @@ public interface ItemStackExtension {
     StyledText getOriginalName();
 
     void setOriginalName(StyledText name);
+
+    /**
+     * Returns the fingerprint of the name and lore of the stack. It is calculated when first needed, and calculated
+     * again after the tag or name of the stack is set.
+     */
+    ItemFingerprint getFingerprint();
 }
@@ -5,11 +5,14 @@
 package com.wynntils.mc.mixin;
 
 import com.wynntils.core.events.MixinHelper;
+import com.wynntils.mc.event.BlockUpdateEvent;
 import com.wynntils.mc.event.ConnectionEvent;
 import com.wynntils.mc.event.PlayerJoinedWorldEvent;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.player.AbstractClientPlayer;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.block.state.BlockState;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -29,4 +32,12 @@ public abstract class ClientLevelMixin {
         // User-triggered logoff
         MixinHelper.postAlways(new ConnectionEvent.DisconnectedEvent());
     }
+
+    @Inject(
+            method =
+                    "sendBlockUpdated(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;Lnet/minecraft/world/level/block/state/BlockState;I)V",
+            at = @At("HEAD"))
+    private void sendBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        MixinHelper.post(new BlockUpdateEvent(pos.immutable(), oldState, newState));
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.mc.mixin;
@@ -8,14 +8,20 @@ import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
 import com.wynntils.core.events.MixinHelper;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemFingerprint;
 import com.wynntils.mc.event.ItemTooltipFlagsEvent;
 import com.wynntils.mc.extension.ItemStackExtension;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(ItemStack.class)
 public abstract class ItemStackMixin implements ItemStackExtension {
@@ -25,6 +31,9 @@ public abstract class ItemStackMixin implements ItemStackExtension {
     @Unique
     private StyledText wynntilsOriginalName;
 
+    @Unique
+    private ItemFingerprint wynntilsFingerprint;
+
     @ModifyExpressionValue(
             method =
                     "getTooltipLines(Lnet/minecraft/world/entity/player/Player;Lnet/minecraft/world/item/TooltipFlag;)Ljava/util/List;",
@@ -51,6 +60,23 @@ public abstract class ItemStackMixin implements ItemStackExtension {
         return event.getFlags();
     }
 
+    @Inject(method = "setTag(Lnet/minecraft/nbt/CompoundTag;)V", at = @At("RETURN"))
+    private void onSetTag(CompoundTag tag, CallbackInfo ci) {
+        wynntilsFingerprint = null;
+    }
+
+    @Inject(
+            method = "setHoverName(Lnet/minecraft/network/chat/Component;)Lnet/minecraft/world/item/ItemStack;",
+            at = @At("RETURN"))
+    private void onSetHoverName(Component name, CallbackInfoReturnable<ItemStack> cir) {
+        wynntilsFingerprint = null;
+    }
+
+    @Inject(method = "resetHoverName()V", at = @At("RETURN"))
+    private void onResetHoverName(CallbackInfo ci) {
+        wynntilsFingerprint = null;
+    }
+
     @Override
     @Unique
     public ItemAnnotation getAnnotation() {
@@ -74,4 +100,13 @@ public abstract class ItemStackMixin implements ItemStackExtension {
     public void setOriginalName(StyledText name) {
         this.wynntilsOriginalName = name;
     }
+
+    @Override
+    @Unique
+    public ItemFingerprint getFingerprint() {
+        if (wynntilsFingerprint == null) {
+            wynntilsFingerprint = ItemFingerprint.of((ItemStack) (Object) this);
+        }
+        return wynntilsFingerprint;
+    }
 }
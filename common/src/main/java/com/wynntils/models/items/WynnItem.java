@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.models.items;
@@ -7,8 +7,8 @@ package com.wynntils.models.items;
 import com.wynntils.handlers.item.ItemAnnotation;
 import net.minecraft.world.item.ItemStack;
 
-public class WynnItem implements ItemAnnotation {
-    private final WynnItemData data = new WynnItemData();
+public class WynnItem implements ItemAnnotation, Cloneable {
+    private WynnItemData data = new WynnItemData();
 
     public WynnItemData getData() {
         return data;
@@ -24,4 +24,17 @@ public class WynnItem implements ItemAnnotation {
         data.clearAll();
         data.store(WynnItemData.ITEMSTACK_KEY, itemStack);
     }
+
+    @Override
+    public WynnItem copy() {
+        try {
+            // The parsed content of items is never changed, so it can be shared between the copies
+            WynnItem copy = (WynnItem) super.clone();
+            copy.data = new WynnItemData();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            // Can't happen, as we implement Cloneable
+            throw new IllegalStateException(e);
+        }
+    }
 }
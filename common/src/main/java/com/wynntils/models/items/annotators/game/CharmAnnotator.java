@@ -8,12 +8,19 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
 
 public final class CharmAnnotator implements GameItemAnnotator {
     private static final Pattern CHARM_PATTERN = Pattern.compile("^§[5abcdef](Charm of the (?<Type>\\w+))$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("5abcdef");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
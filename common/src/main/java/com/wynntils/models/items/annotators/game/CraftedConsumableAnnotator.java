@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.game;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.gear.type.ConsumableType;
 import com.wynntils.models.items.items.game.CraftedConsumableItem;
 import com.wynntils.models.wynnitem.parsing.CraftedItemParseResults;
@@ -19,6 +20,12 @@ import net.minecraft.world.item.ItemStack;
 
 public final class CraftedConsumableAnnotator implements GameItemAnnotator {
     private static final Pattern CRAFTED_CONSUMABLE_PATTERN = Pattern.compile("^§3(.*)§b \\[(\\d+)/(\\d+)\\]$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("3");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
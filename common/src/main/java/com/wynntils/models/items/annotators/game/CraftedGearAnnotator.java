@@ -8,12 +8,19 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
 
 public final class CraftedGearAnnotator implements GameItemAnnotator {
     private static final Pattern CRAFTED_GEAR_PATTERN = Pattern.compile("^§3(.*)§b \\[\\d{1,3}%\\]$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("3");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
@@ -7,14 +7,25 @@ package com.wynntils.models.items.annotators.game;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.emeralds.type.EmeraldUnits;
 import com.wynntils.models.items.items.game.EmeraldItem;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
 public final class EmeraldAnnotator implements GameItemAnnotator {
     private static final Pattern EMERALD_PATTERN = Pattern.compile("^§a(Liquid )?Emerald( Block)?$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.items(
+                    Arrays.stream(EmeraldUnits.values()).map(EmeraldUnits::getItemType).toArray(Item[]::new))
+            .withFormattingCodes("a");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.game;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.items.items.game.GatheringToolItem;
 import com.wynntils.models.profession.type.ToolProfile;
 import com.wynntils.utils.type.CappedValue;
@@ -21,6 +22,18 @@ public final class GatheringToolAnnotator implements GameItemAnnotator {
     private static final Pattern GATHERING_TOOL_PATTERN =
             Pattern.compile("^§f[ⒸⒷⓀⒿ] Gathering (Axe|Rod|Scythe|Pickaxe) T(\\d+)$");
     private static final Pattern DURABILITY_PATTERN = Pattern.compile("\\[(\\d+)/(\\d+) Durability\\]");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("f");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
+
+    @Override
+    public boolean requiresMainThread() {
+        // Getting the tooltip lines fires tooltip events
+        return true;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.game;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GameItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.items.items.game.MultiHealthPotionItem;
 import com.wynntils.utils.type.CappedValue;
 import java.util.regex.Matcher;
@@ -16,6 +17,12 @@ import net.minecraft.world.item.ItemStack;
 public final class MultiHealthPotionAnnotator implements GameItemAnnotator {
     private static final Pattern MULTI_HEALTH_POTION_PATTERN =
             Pattern.compile("^§c\\[\\+(\\d+) ❤\\] §dPotions of Healing §4\\[(\\d+)/(\\d+)\\]$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("c");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
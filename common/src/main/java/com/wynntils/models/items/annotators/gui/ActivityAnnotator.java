@@ -8,6 +8,7 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GuiItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.activities.type.ActivityInfo;
 import com.wynntils.models.activities.type.ActivityType;
 import com.wynntils.models.items.items.gui.ActivityItem;
@@ -18,6 +19,13 @@ import net.minecraft.world.item.Items;
 
 public final class ActivityAnnotator implements GuiItemAnnotator {
     private static final Pattern ACTIVITY_PATTERN = Pattern.compile("^§(?<color>.)(?<name>.+)§7 \\[(?<type>.+)\\]$");
+    private static final ItemAnnotatorRoute ROUTE =
+            ItemAnnotatorRoute.items(Items.GOLDEN_AXE, Items.GOLDEN_PICKAXE, Items.GOLDEN_HOE);
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
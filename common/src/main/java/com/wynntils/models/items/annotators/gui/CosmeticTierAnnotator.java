@@ -19,6 +19,12 @@ public final class CosmeticTierAnnotator implements GuiItemAnnotator {
     private static final Pattern COSMETIC_PATTERN =
             Pattern.compile("(Common|Rare|Epic|Godly|\\|\\|\\| Black Market \\|\\|\\|) Reward");
 
+    @Override
+    public boolean requiresMainThread() {
+        // Getting the tooltip lines fires tooltip events, and reads the player and the options
+        return true;
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         if (!isCosmetic(itemStack)) return null;
@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.gui;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GuiItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.items.items.gui.LootRunBoonItem;
 import com.wynntils.utils.mc.LoreUtils;
 import java.io.BufferedWriter;
@@ -21,6 +22,12 @@ import net.minecraft.world.item.Items;
 public final class LootRunBoonAnnotator implements GuiItemAnnotator {
     private static final Pattern LOOTRUN_BOON_PATTERN = Pattern.compile(
             "(?<=gain\\s\\+)(?<statAmount>(?:\\d+/)?\\d+(?:\\.\\d+)?)(?:s)?(?:%?)\\s(?<statType>Strength|Dexterity|Intelligence|Defense|Damage|Agility|Loot Bonus|Loot Quality|Spell Damage|Health Bonus|Health Regen|Life Steal|Mana Regen|Mana Steal|Walk Speed|Enemy Weakness|Health|Elemental Damage|Weaken Enemy|Critical Damage Bonus)(?:.*?Max x\\s*(?<maxValue>\\d+))?");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.items(Items.DIAMOND);
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) throws InterruptedException {
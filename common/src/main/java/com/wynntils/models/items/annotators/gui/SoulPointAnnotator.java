@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.gui;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GuiItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.items.items.gui.SoulPointItem;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,6 +16,13 @@ import net.minecraft.world.item.Items;
 
 public final class SoulPointAnnotator implements GuiItemAnnotator {
     private static final Pattern SOUL_POINTS_PATTERN = Pattern.compile("^§l(\\d+)§b Soul Points$");
+    private static final ItemAnnotatorRoute ROUTE =
+            ItemAnnotatorRoute.items(Items.NETHER_STAR).withFormattingCodes("l");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
@@ -7,6 +7,7 @@ package com.wynntils.models.items.annotators.gui;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.GuiItemAnnotator;
 import com.wynntils.handlers.item.ItemAnnotation;
+import com.wynntils.handlers.item.ItemAnnotatorRoute;
 import com.wynntils.models.items.items.gui.TerritoryUpgradeItem;
 import com.wynntils.models.territories.type.TerritoryUpgrade;
 import java.util.regex.Matcher;
@@ -17,6 +18,12 @@ public class TerritoryUpgradeAnnotator implements GuiItemAnnotator {
     // Test in TerritoryUpgradeAnnotator_TERRITORY_UPGRADE_PATTERN
     private static final Pattern TERRITORY_UPGRADE_PATTERN =
             Pattern.compile("^§[6abcd]§l(?<upgrade>.+) §7\\[Lv\\. (?<level>[0-9]+)\\](§8 \\(Max\\))?$");
+    private static final ItemAnnotatorRoute ROUTE = ItemAnnotatorRoute.formattingCodes("6abcd");
+
+    @Override
+    public ItemAnnotatorRoute getRoute() {
+        return ROUTE;
+    }
 
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
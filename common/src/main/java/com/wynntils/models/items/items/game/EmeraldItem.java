@@ -1,10 +1,11 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.models.items.items.game;
 
 import com.wynntils.models.emeralds.type.EmeraldUnits;
+import com.wynntils.models.items.WynnItem;
 import com.wynntils.models.items.properties.EmeraldValuedItemProperty;
 import java.util.function.Supplier;
 
@@ -30,6 +31,12 @@ public class EmeraldItem extends GameItem implements EmeraldValuedItemProperty {
         return getAmount() * unit.getMultiplier();
     }
 
+    @Override
+    public WynnItem copy() {
+        // The amount is read from the stack this was created for
+        return null;
+    }
+
     @Override
     public String toString() {
         return "EmeraldItem{" + "amount=" + getAmount() + ", unit=" + unit + '}';
@@ -0,0 +1,98 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.lootrun;
+
+import java.util.Arrays;
+
+/**
+ * Assigns every beacon to a different task location, so the sum of the prediction scores is the lowest possible,
+ * using the Hungarian algorithm.
+ */
+final class BeaconAssignmentSolver {
+    // Finite, so sums of infeasible costs still compare
+    static final double INFEASIBLE = 1e9;
+
+    private BeaconAssignmentSolver() {}
+
+    /**
+     * Solves the assignment problem for the given cost matrix, with one row per beacon and one column per
+     * task location. There must be at least as many columns as rows.
+     *
+     * @return the assigned column for every row
+     */
+    static int[] solve(double[][] costs) {
+        int rows = costs.length;
+        if (rows == 0) return new int[0];
+
+        int columns = costs[0].length;
+        if (columns < rows) {
+            throw new IllegalArgumentException("Cannot assign " + rows + " beacons to " + columns + " task locations");
+        }
+
+        // Potentials and matching are 1-indexed, column 0 is the row that is currently being added
+        double[] rowPotentials = new double[rows + 1];
+        double[] columnPotentials = new double[columns + 1];
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previousColumn = new int[columns + 1];
+        double[] minSlack = new double[columns + 1];
+        boolean[] visited = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Double.MAX_VALUE);
+            Arrays.fill(visited, false);
+
+            // Grow an alternating path from the new row until it reaches an unassigned column
+            do {
+                visited[column] = true;
+                int currentRow = rowOfColumn[column];
+                double delta = Double.MAX_VALUE;
+                int nextColumn = 0;
+
+                for (int j = 1; j <= columns; j++) {
+                    if (visited[j]) continue;
+
+                    double slack = costs[currentRow - 1][j - 1] - rowPotentials[currentRow] - columnPotentials[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        previousColumn[j] = column;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextColumn = j;
+                    }
+                }
+
+                for (int j = 0; j <= columns; j++) {
+                    if (visited[j]) {
+                        rowPotentials[rowOfColumn[j]] += delta;
+                        columnPotentials[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            // Flip the assignments along the path
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int[] assignment = new int[rows];
+        for (int j = 1; j <= columns; j++) {
+            if (rowOfColumn[j] != 0) {
+                assignment[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+
+        return assignment;
+    }
+}
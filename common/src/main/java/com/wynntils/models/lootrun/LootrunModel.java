@@ -14,9 +14,11 @@ import com.wynntils.core.net.Download;
 import com.wynntils.core.net.UrlId;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.storage.Storage;
-import com.wynntils.core.text.StyledText;
+import com.wynntils.core.text.PartStyle;
 import com.wynntils.features.combat.CustomLootrunBeaconsFeature;
 import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
+import com.wynntils.handlers.chat.type.ChatPatternListener;
+import com.wynntils.handlers.chat.type.PatternMatchType;
 import com.wynntils.handlers.chat.type.RecipientType;
 import com.wynntils.handlers.labels.event.LabelIdentifiedEvent;
 import com.wynntils.handlers.particle.event.ParticleVerifiedEvent;
@@ -35,6 +37,7 @@ import com.wynntils.models.items.items.game.SimulatorItem;
 import com.wynntils.models.lootrun.event.LootrunBeaconSelectedEvent;
 import com.wynntils.models.lootrun.event.LootrunFinishedEvent;
 import com.wynntils.models.lootrun.event.LootrunFinishedEventBuilder;
+import com.wynntils.models.lootrun.history.LootrunRunHistory;
 import com.wynntils.models.lootrun.markers.LootrunBeaconMarkerProvider;
 import com.wynntils.models.lootrun.particle.LootrunTaskParticleVerifier;
 import com.wynntils.models.lootrun.scoreboard.LootrunScoreboardPart;
@@ -50,18 +53,16 @@ import com.wynntils.models.worlds.event.WorldStateEvent;
 import com.wynntils.models.worlds.type.WorldState;
 import com.wynntils.utils.VectorUtils;
 import com.wynntils.utils.mc.McUtils;
-import com.wynntils.utils.mc.PosUtils;
 import com.wynntils.utils.mc.type.Location;
 import com.wynntils.utils.type.CappedValue;
 import com.wynntils.utils.type.Pair;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -73,6 +74,7 @@ import net.minecraft.network.syncher.SynchedEntityData;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.joml.Vector2d;
 
@@ -124,6 +126,9 @@ public class LootrunModel extends Model {
 
     private static final float BEACON_REMOVAL_RADIUS = 25f;
 
+    // Beacons drift a little while they settle, only predict again once they moved this far
+    private static final double BEACON_MOVE_THRESHOLD = 1;
+
     // Beacon positions are sometimes off by a few blocks
     private static final int TASK_POSITION_ERROR = 3;
 
@@ -141,7 +146,10 @@ public class LootrunModel extends Model {
     private Location closestLootrunMasterLocation = null;
     private Set<UUID> checkedItemEntities = new HashSet<>();
 
-    private Map<LootrunLocation, Set<TaskLocation>> taskLocations = new HashMap<>();
+    private TaskLocationIndex taskLocations = TaskLocationIndex.EMPTY;
+
+    // The history of the current character, null until it has been read
+    private LootrunRunHistory runHistory = null;
 
     private LootrunFinishedEventBuilder.Completed lootrunCompletedBuilder;
     private LootrunFinishedEventBuilder.Failed lootrunFailedBuilder;
@@ -153,8 +161,16 @@ public class LootrunModel extends Model {
     // rely on color, beacon positions change
     private Map<BeaconColor, TaskPrediction> beacons = new HashMap<>();
 
+    // the beacons we predict tasks for, and where they were when we last predicted
+    private Map<BeaconColor, Beacon> visibleBeacons = new HashMap<>();
+    private Map<BeaconColor, Beacon> predictedBeacons = new HashMap<>();
+
     // particles can accurately show task locations
     private Set<TaskLocation> possibleTaskLocations = new HashSet<>();
+    private LootrunLocation lootrunLocation = LootrunLocation.UNKNOWN;
+
+    // the scoreboard can show the lootrun has ended before its results are in chat
+    private List<MissionType> finishedLootrunMissions = List.of();
 
     private Map<BeaconColor, Integer> selectedBeacons = new TreeMap<>();
     private int timeLeft = 0;
@@ -186,9 +202,28 @@ public class LootrunModel extends Model {
         Handlers.Particle.registerParticleVerifier(ParticleType.LOOTRUN_TASK, new LootrunTaskParticleVerifier());
         Models.Marker.registerMarkerProvider(LOOTRUN_BEACON_COMPASS_PROVIDER);
 
+        // Listeners are called in the order they are registered in, which is the order the lines are sent in
+        Handlers.Chat.registerPattern(this, LOOTRUN_COMPLETED_PATTERN, this::onLootrunCompleted);
+        Handlers.Chat.registerPattern(this, LOOTRUN_FAILED_PATTERN, this::onLootrunFailed);
+        registerFindPattern(REWARD_PULLS_PATTERN, this::onRewardPulls);
+        registerFindPattern(REWARD_REROLLS_PATTERN, this::onRewardRerolls);
+        registerFindPattern(REWARD_SACRIFICES_PATTERN, this::onRewardSacrifices);
+        registerFindPattern(LOOTRUN_EXPERIENCE_PATTERN, this::onLootrunExperience);
+        registerFindPattern(TIME_ELAPSED_PATTERN, this::onFailedTimeElapsed);
+        registerFindPattern(CHALLENGES_COMPLETED_PATTERN, this::onFailedChallengesCompleted);
+        Handlers.Chat.registerPattern(this, MISSION_COMPLETED_PATTERN, this::onMissionCompleted);
+        Handlers.Chat.registerPattern(this, COMPLETED_MISSION_PATTERN, this::onCompletedMission);
+        registerFindPattern(ACTIVE_MISSION_PATTERN, this::onActiveMission);
+        Handlers.Chat.registerPattern(this, CHALLENGE_FAILED_PATTERN, this::onChallengeFailed);
+
         reloadData();
     }
 
+    private void registerFindPattern(Pattern pattern, ChatPatternListener listener) {
+        Handlers.Chat.registerPattern(
+                this, pattern, PatternMatchType.FIND, PartStyle.StyleType.DEFAULT, EventPriority.NORMAL, listener);
+    }
+
     @Override
     public void reloadData() {
         loadLootrunTaskLocations();
@@ -198,7 +233,8 @@ public class LootrunModel extends Model {
         Download dl = Managers.Net.download(UrlId.DATA_STATIC_LOOTRUN_TASKS_NAMED);
         dl.handleReader(reader -> {
             Type type = new TypeToken<Map<LootrunLocation, Set<TaskLocation>>>() {}.getType();
-            taskLocations = Managers.Json.GSON.fromJson(reader, type);
+            Map<LootrunLocation, Set<TaskLocation>> locations = Managers.Json.GSON.fromJson(reader, type);
+            taskLocations = new TaskLocationIndex(locations, TASK_POSITION_ERROR);
         });
     }
 
@@ -206,27 +242,18 @@ public class LootrunModel extends Model {
     public void onLootrunParticle(ParticleVerifiedEvent event) {
         if (event.getParticle().particleType() != ParticleType.LOOTRUN_TASK) return;
 
-        boolean foundTaskLocation = false;
-        for (Set<TaskLocation> taskLocationsForLocation : taskLocations.values()) {
-            for (TaskLocation taskLocation : taskLocationsForLocation) {
-                if (PosUtils.closerThanIgnoringY(
-                        taskLocation.location().toVec3(), event.getParticle().position(), TASK_POSITION_ERROR)) {
-                    // Note: We do this re-allocation so we always display the correct location,
-                    //       even if it slightly changed, or our data is imprecise.
-                    possibleTaskLocations.add(new TaskLocation(
-                            taskLocation.name(),
-                            Location.containing(event.getParticle().position()),
-                            taskLocation.taskType()));
-
-                    foundTaskLocation = true;
-                    break;
-                }
-            }
-
-            if (foundTaskLocation) break;
-        }
-
-        if (!foundTaskLocation) {
+        Optional<TaskLocation> taskLocationOpt = taskLocations.getClosestTaskLocation(event.getParticle().position());
+        if (taskLocationOpt.isPresent()) {
+            TaskLocation taskLocation = taskLocationOpt.get();
+            lootrunLocation = taskLocations.getLootrunLocation(taskLocation);
+
+            // Note: We do this re-allocation so we always display the correct location,
+            //       even if it slightly changed, or our data is imprecise.
+            possibleTaskLocations.add(new TaskLocation(
+                    taskLocation.name(),
+                    Location.containing(event.getParticle().position()),
+                    taskLocation.taskType()));
+        } else {
             // Our possible task location set did not contain the particle location,
             // so add a new "unknown" task location to the set.
             Location location = Location.containing(event.getParticle().position());
@@ -239,8 +266,7 @@ public class LootrunModel extends Model {
         // Check if we have tasks from multiple locations, log in case we do.
         for (LootrunLocation location : LootrunLocation.values()) {
             List<TaskLocation> tasksInLocation = possibleTaskLocations.stream()
-                    .filter(taskLocation ->
-                            taskLocations.getOrDefault(location, Set.of()).contains(taskLocation))
+                    .filter(taskLocation -> taskLocations.getTaskLocations(location).contains(taskLocation))
                     .toList();
 
             if (!tasksInLocation.isEmpty() && tasksInLocation.size() < possibleTaskLocations.size()) {
@@ -268,58 +294,143 @@ public class LootrunModel extends Model {
 
         missionStorage.get().putIfAbsent(id, new ArrayList<>());
         missionStorage.touched();
+
+        runHistory = null;
+        if (!Models.Character.hasCharacter()) return;
+
+        LootrunRunHistory.load(id).thenAccept(history -> Managers.TickScheduler.scheduleNextTick(() -> {
+            // The character might have changed again while the history was read
+            if (id.equals(Models.Character.getId())) {
+                runHistory = history;
+            }
+        }));
     }
 
-    @SubscribeEvent
-    public void onChatMessage(ChatMessageReceivedEvent event) {
+    private void onLootrunCompleted(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+
+        lootrunCompletedBuilder = new LootrunFinishedEventBuilder.Completed();
+        lootrunFailedBuilder = null;
+    }
+
+    private void onLootrunFailed(ChatMessageReceivedEvent event, Matcher matcher) {
         if (event.getRecipientType() != RecipientType.INFO) return;
-        StyledText styledText = event.getOriginalStyledText();
 
-        if (styledText.matches(LOOTRUN_COMPLETED_PATTERN)) {
-            lootrunCompletedBuilder = new LootrunFinishedEventBuilder.Completed();
-            lootrunFailedBuilder = null;
+        lootrunFailedBuilder = new LootrunFinishedEventBuilder.Failed();
+        lootrunCompletedBuilder = null;
+    }
+
+    // The lines after the completed message have a reward on the left, and a statistic on the right
+    private void onRewardPulls(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunCompletedBuilder == null) return;
+
+        lootrunCompletedBuilder.setRewardPulls(Integer.parseInt(matcher.group(1)));
+
+        Matcher timeMatcher = event.getOriginalStyledText().getMatcher(TIME_ELAPSED_PATTERN);
+        if (timeMatcher.find()) {
+            lootrunCompletedBuilder.setTimeElapsed(
+                    Integer.parseInt(timeMatcher.group(1)) * 60 + Integer.parseInt(timeMatcher.group(2)));
             return;
         }
-        if (styledText.matches(LOOTRUN_FAILED_PATTERN)) {
-            lootrunFailedBuilder = new LootrunFinishedEventBuilder.Failed();
-            lootrunCompletedBuilder = null;
+
+        WynntilsMod.warn("Found lootrun pulls but no time elapsed: " + event.getOriginalStyledText());
+    }
+
+    private void onRewardRerolls(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunCompletedBuilder == null) return;
+
+        lootrunCompletedBuilder.setRewardRerolls(Integer.parseInt(matcher.group(1)));
+
+        Matcher mobsMatcher = event.getOriginalStyledText().getMatcher(MOBS_KILLED_PATTERN);
+        if (mobsMatcher.find()) {
+            lootrunCompletedBuilder.setMobsKilled(Integer.parseInt(mobsMatcher.group(1)));
             return;
         }
 
-        if (lootrunCompletedBuilder != null) {
-            parseCompletedMessages(styledText);
-        } else if (lootrunFailedBuilder != null) {
-            parseFailedMessages(styledText);
-        }
+        WynntilsMod.warn("Found lootrun rerolls but no mobs killed: " + event.getOriginalStyledText());
+    }
+
+    private void onRewardSacrifices(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunCompletedBuilder == null) return;
 
-        Matcher matcher = MISSION_COMPLETED_PATTERN.matcher(styledText.getString());
-        if (matcher.matches()) {
-            expectMissionComplete = true;
+        lootrunCompletedBuilder.setRewardSacrifices(Integer.parseInt(matcher.group(1)));
+
+        Matcher chestsMatcher = event.getOriginalStyledText().getMatcher(CHESTS_OPENED_PATTERN);
+        if (chestsMatcher.find()) {
+            lootrunCompletedBuilder.setChestsOpened(Integer.parseInt(chestsMatcher.group(1)));
             return;
         }
 
-        if (expectMissionComplete) {
-            matcher = COMPLETED_MISSION_PATTERN.matcher(styledText.getString());
-            if (matcher.matches()) {
-                MissionType mission = MissionType.fromName(matcher.group("mission"));
-                addMission(mission);
-                return;
-            }
-        }
+        WynntilsMod.warn("Found lootrun sacrifices but no chests opened: " + event.getOriginalStyledText());
+    }
+
+    private void onLootrunExperience(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunCompletedBuilder == null) return;
+
+        lootrunCompletedBuilder.setExperienceGained(Integer.parseInt(matcher.group(1)));
 
-        matcher = ACTIVE_MISSION_PATTERN.matcher(styledText.getString());
-        if (matcher.find()) {
-            MissionType mission = MissionType.fromName(matcher.group("mission"));
-            addMission(mission);
+        Matcher challengesMatcher = event.getOriginalStyledText().getMatcher(CHALLENGES_COMPLETED_PATTERN);
+        if (challengesMatcher.find()) {
+            lootrunCompletedBuilder.setChallengesCompleted(Integer.parseInt(challengesMatcher.group(1)));
+            LootrunFinishedEvent.Completed completedEvent = lootrunCompletedBuilder.build();
+            WynntilsMod.postEvent(completedEvent);
+            addToRunHistory(completedEvent);
+            lootrunCompletedBuilder = null;
             return;
         }
 
-        matcher = CHALLENGE_FAILED_PATTERN.matcher(styledText.getString());
-        if (matcher.matches()) {
-            BeaconColor color = getLastTaskBeaconColor();
-            if (color == BeaconColor.GRAY) {
-                addMission(MissionType.FAILED);
-            }
+        WynntilsMod.warn("Found lootrun experience but no challenges completed: " + event.getOriginalStyledText());
+    }
+
+    // The lines after the failed message only have statistics
+    private void onFailedTimeElapsed(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunFailedBuilder == null) return;
+
+        lootrunFailedBuilder.setTimeElapsed(
+                Integer.parseInt(matcher.group(1)) * 60 + Integer.parseInt(matcher.group(2)));
+    }
+
+    private void onFailedChallengesCompleted(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (lootrunFailedBuilder == null) return;
+
+        lootrunFailedBuilder.setChallengesCompleted(Integer.parseInt(matcher.group(1)));
+        LootrunFinishedEvent.Failed failedEvent = lootrunFailedBuilder.build();
+        WynntilsMod.postEvent(failedEvent);
+        addToRunHistory(failedEvent);
+        lootrunFailedBuilder = null;
+    }
+
+    private void onMissionCompleted(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+
+        expectMissionComplete = true;
+    }
+
+    private void onCompletedMission(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+        if (!expectMissionComplete) return;
+
+        addMission(MissionType.fromName(matcher.group("mission")));
+    }
+
+    private void onActiveMission(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+
+        addMission(MissionType.fromName(matcher.group("mission")));
+    }
+
+    private void onChallengeFailed(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.INFO) return;
+
+        BeaconColor color = getLastTaskBeaconColor();
+        if (color == BeaconColor.GRAY) {
+            addMission(MissionType.FAILED);
         }
     }
 
@@ -409,6 +520,8 @@ public class LootrunModel extends Model {
         lootrunningState = LootrunningState.NOT_RUNNING;
         taskType = null;
         beacons = new HashMap<>();
+        visibleBeacons = new HashMap<>();
+        predictedBeacons = new HashMap<>();
         LOOTRUN_BEACON_COMPASS_PROVIDER.reloadTaskMarkers();
 
         selectedBeacons = new TreeMap<>();
@@ -423,7 +536,12 @@ public class LootrunModel extends Model {
         BeaconColor beaconColor = beacon.color();
         if (!beaconColor.isUsedInLootruns()) return;
 
-        updateTaskLocationPrediction(beacon);
+        visibleBeacons.put(beaconColor, beacon);
+
+        Beacon predictedBeacon = predictedBeacons.get(beaconColor);
+        if (predictedBeacon != null && !hasMovedNoticeably(predictedBeacon, beacon)) return;
+
+        updateTaskLocationPredictions();
     }
 
     // When we get close to a beacon, it get's removed.
@@ -448,8 +566,8 @@ public class LootrunModel extends Model {
             setClosestBeacon(event.getBeacon());
         } else {
             // Note: If we get more accurate predictions, we don't need to remove if we are close.
-            beacons.remove(beaconColor);
-            LOOTRUN_BEACON_COMPASS_PROVIDER.reloadTaskMarkers();
+            visibleBeacons.remove(beaconColor);
+            updateTaskLocationPredictions();
         }
     }
 
@@ -469,7 +587,8 @@ public class LootrunModel extends Model {
             }
         }
 
-        updateTaskLocationPrediction(beacon);
+        visibleBeacons.put(beacon.color(), beacon);
+        updateTaskLocationPredictions();
     }
 
     public int getBeaconCount(BeaconColor color) {
@@ -494,6 +613,10 @@ public class LootrunModel extends Model {
         return Optional.ofNullable(taskType);
     }
 
+    public Optional<LootrunRunHistory> getRunHistory() {
+        return Optional.ofNullable(runHistory);
+    }
+
     public Map<BeaconColor, TaskPrediction> getBeacons() {
         return beacons;
     }
@@ -576,6 +699,10 @@ public class LootrunModel extends Model {
         redBeaconTaskCountStorage.touched();
     }
 
+    private List<MissionType> getMissions() {
+        return missionStorage.get().getOrDefault(Models.Character.getId(), List.of());
+    }
+
     private void resetMissions() {
         missionStorage.get().putIfAbsent(Models.Character.getId(), new ArrayList<>());
         missionStorage.get().get(Models.Character.getId()).clear();
@@ -616,7 +743,13 @@ public class LootrunModel extends Model {
     }
 
     private void handleStateChange(LootrunningState oldState, LootrunningState newState) {
+        if (oldState == LootrunningState.NOT_RUNNING) {
+            lootrunLocation = LootrunLocation.UNKNOWN;
+        }
+
         if (newState == LootrunningState.NOT_RUNNING) {
+            finishedLootrunMissions = List.copyOf(getMissions());
+
             resetBeaconStorage();
             resetMissions();
 
@@ -628,6 +761,8 @@ public class LootrunModel extends Model {
             possibleTaskLocations = new HashSet<>();
 
             beacons = new HashMap<>();
+            visibleBeacons = new HashMap<>();
+            predictedBeacons = new HashMap<>();
 
             timeLeft = 0;
             challenges = CappedValue.EMPTY;
@@ -649,87 +784,75 @@ public class LootrunModel extends Model {
 
             // We selected a beacon, so other beacons are no longer relevant.
             beacons.clear();
+            visibleBeacons.clear();
+            predictedBeacons.clear();
             setClosestBeacon(null);
             LOOTRUN_BEACON_COMPASS_PROVIDER.reloadTaskMarkers();
             return;
         }
     }
 
-    private void updateTaskLocationPrediction(Beacon beacon) {
+    /**
+     * Predicts the task location of all visible beacons at once, so that no two beacons share a task location and
+     * the sum of their prediction scores is the lowest possible.
+     */
+    private void updateTaskLocationPredictions() {
         Set<TaskLocation> currentTaskLocations = possibleTaskLocations;
         if (currentTaskLocations == null || currentTaskLocations.isEmpty()) {
             WynntilsMod.warn("No task locations found. Using fallback, all locations.");
-            currentTaskLocations =
-                    taskLocations.values().stream().flatMap(Collection::stream).collect(Collectors.toUnmodifiableSet());
+            currentTaskLocations = taskLocations.getAllTaskLocations();
         }
         if (currentTaskLocations == null || currentTaskLocations.isEmpty()) {
             WynntilsMod.warn("Fallback failed, no task locations found!");
             return;
         }
 
-        List<TaskPrediction> usedTaskLocations = beacons.entrySet().stream()
-                .filter(entry -> entry.getKey() != beacon.color())
-                .map(Map.Entry::getValue)
-                .toList();
+        List<Beacon> visibleBeaconList = List.copyOf(visibleBeacons.values());
+        List<TaskLocation> taskLocationList = List.copyOf(currentTaskLocations);
 
-        Map<Double, TaskLocation> predictionScores = new TreeMap<>();
-        for (TaskLocation currentTaskLocation : currentTaskLocations) {
-            Pair<Double, TaskLocation> prediction = calculatePredictionScore(beacon, currentTaskLocation);
-            if (prediction == null) continue;
-
-            predictionScores.put(prediction.a(), prediction.b());
-        }
+        // Every beacon needs a column, the extra ones can not be assigned
+        int columns = Math.max(visibleBeaconList.size(), taskLocationList.size());
+        double[][] costs = new double[visibleBeaconList.size()][columns];
+        for (int i = 0; i < visibleBeaconList.size(); i++) {
+            Arrays.fill(costs[i], BeaconAssignmentSolver.INFEASIBLE);
 
-        // According to TreeMap's sort order, the first entry is the lowest prediction score.
-        for (Map.Entry<Double, TaskLocation> entry : predictionScores.entrySet()) {
-            TaskLocation closestTaskLocation = entry.getValue();
-            Double predictionValue = entry.getKey();
+            for (int j = 0; j < taskLocationList.size(); j++) {
+                Pair<Double, TaskLocation> prediction =
+                        calculatePredictionScore(visibleBeaconList.get(i), taskLocationList.get(j));
+                if (prediction == null) continue;
 
-            TaskPrediction oldPrediction = beacons.get(beacon.color());
-            TaskPrediction newTaskPrediction = new TaskPrediction(beacon, closestTaskLocation, predictionValue);
-
-            // If the prediction is the same, don't update.
-            if (oldPrediction != null
-                    && Objects.equals(oldPrediction.taskLocation(), newTaskPrediction.taskLocation())) {
-                if (newTaskPrediction.predictionScore() < oldPrediction.predictionScore()) {
-                    // The prediction is the same, but the score is better, so update.
-                    beacons.put(beacon.color(), newTaskPrediction);
-                }
-                return;
+                costs[i][j] = prediction.a();
             }
+        }
 
-            // The prediction is a location where another colored beacon is already at
-            Optional<TaskPrediction> usedTaskPredictionOpt = usedTaskLocations.stream()
-                    .filter(pair -> Objects.equals(pair.taskLocation(), closestTaskLocation))
-                    .findFirst();
-            if (usedTaskPredictionOpt.isPresent()) {
-                TaskPrediction usedTaskPrediction = usedTaskPredictionOpt.get();
-
-                // We predict that we are closer to the task location than the other beacon.
-                // Overwrite the other beacon's prediction.
-                if (newTaskPrediction.predictionScore() < usedTaskPrediction.predictionScore()) {
-                    beacons.put(beacon.color(), newTaskPrediction);
-                    beacons.remove(usedTaskPrediction.beacon().color());
-
-                    // Update the other beacon's prediction.
-                    updateTaskLocationPrediction(usedTaskPrediction.beacon());
-                    break;
-                } else {
-                    // We predict that the other beacon is closer to the task location than us.
-                    // Use the second best prediction.
-                    continue;
-                }
-            }
+        int[] assignment = BeaconAssignmentSolver.solve(costs);
+
+        beacons.clear();
+        for (int i = 0; i < visibleBeaconList.size(); i++) {
+            Beacon beacon = visibleBeaconList.get(i);
+            int j = assignment[i];
+            // There is no task location that this beacon can be leading to
+            if (j >= taskLocationList.size() || costs[i][j] == BeaconAssignmentSolver.INFEASIBLE) continue;
 
-            // The prediction is not used by another beacon.
-            beacons.put(beacon.color(), newTaskPrediction);
-            break;
+            beacons.put(beacon.color(), new TaskPrediction(beacon, taskLocationList.get(j), costs[i][j]));
         }
 
+        predictedBeacons = new HashMap<>(visibleBeacons);
+
         // Finally, update the markers.
         LOOTRUN_BEACON_COMPASS_PROVIDER.reloadTaskMarkers();
     }
 
+    private boolean hasMovedNoticeably(Beacon oldBeacon, Beacon newBeacon) {
+        // Reaching the center of a block changes the prediction, even if the beacon barely moved
+        return VectorUtils.distanceIgnoringY(oldBeacon.position(), newBeacon.position()) >= BEACON_MOVE_THRESHOLD
+                || isAtBlockCenter(oldBeacon) != isAtBlockCenter(newBeacon);
+    }
+
+    private boolean isAtBlockCenter(Beacon beacon) {
+        return Math.abs(beacon.position().x() % 1) == 0.5d && Math.abs(beacon.position().z() % 1) == 0.5d;
+    }
+
     private Pair<Double, TaskLocation> calculatePredictionScore(Beacon beacon, TaskLocation currentTaskLocation) {
         // Player Location
         Vector2d playerPosition = new Vector2d(
@@ -744,9 +867,7 @@ public class LootrunModel extends Model {
 
         // Short circuit if the beacon matches a task location.
         // Wynn beacons are always at the center of a block, if they are in their "final" position.
-        if (Math.abs(beaconPosition.x() % 1) == 0.5d
-                && Math.abs(beaconPosition.y() % 1) == 0.5d
-                && taskLocationPosition.distance(beaconPosition) < TASK_POSITION_ERROR) {
+        if (isAtBlockCenter(beacon) && taskLocationPosition.distance(beaconPosition) < TASK_POSITION_ERROR) {
             return Pair.of(0d, currentTaskLocation);
         }
 
@@ -773,77 +894,11 @@ public class LootrunModel extends Model {
         return Pair.of(predictionScore, currentTaskLocation);
     }
 
-    private void parseCompletedMessages(StyledText styledText) {
-        Matcher matcher = styledText.getMatcher(REWARD_PULLS_PATTERN);
-        if (matcher.find()) {
-            lootrunCompletedBuilder.setRewardPulls(Integer.parseInt(matcher.group(1)));
-
-            matcher = styledText.getMatcher(TIME_ELAPSED_PATTERN);
-            if (matcher.find()) {
-                lootrunCompletedBuilder.setTimeElapsed(
-                        Integer.parseInt(matcher.group(1)) * 60 + Integer.parseInt(matcher.group(2)));
-                return;
-            }
-
-            WynntilsMod.warn("Found lootrun pulls but no time elapsed: " + styledText);
-        }
-
-        matcher = styledText.getMatcher(REWARD_REROLLS_PATTERN);
-        if (matcher.find()) {
-            lootrunCompletedBuilder.setRewardRerolls(Integer.parseInt(matcher.group(1)));
-
-            matcher = styledText.getMatcher(MOBS_KILLED_PATTERN);
-            if (matcher.find()) {
-                lootrunCompletedBuilder.setMobsKilled(Integer.parseInt(matcher.group(1)));
-                return;
-            }
-
-            WynntilsMod.warn("Found lootrun rerolls but no mobs killed: " + styledText);
-        }
-
-        matcher = styledText.getMatcher(REWARD_SACRIFICES_PATTERN);
-        if (matcher.find()) {
-            lootrunCompletedBuilder.setRewardSacrifices(Integer.parseInt(matcher.group(1)));
-
-            matcher = styledText.getMatcher(CHESTS_OPENED_PATTERN);
-            if (matcher.find()) {
-                lootrunCompletedBuilder.setChestsOpened(Integer.parseInt(matcher.group(1)));
-                return;
-            }
-
-            WynntilsMod.warn("Found lootrun sacrifices but no chests opened: " + styledText);
-        }
-
-        matcher = styledText.getMatcher(LOOTRUN_EXPERIENCE_PATTERN);
-        if (matcher.find()) {
-            lootrunCompletedBuilder.setExperienceGained(Integer.parseInt(matcher.group(1)));
-
-            matcher = styledText.getMatcher(CHALLENGES_COMPLETED_PATTERN);
-            if (matcher.find()) {
-                lootrunCompletedBuilder.setChallengesCompleted(Integer.parseInt(matcher.group(1)));
-                WynntilsMod.postEvent(lootrunCompletedBuilder.build());
-                lootrunCompletedBuilder = null;
-                return;
-            }
-
-            WynntilsMod.warn("Found lootrun experience but no challenges completed: " + styledText);
-        }
-    }
-
-    private void parseFailedMessages(StyledText styledText) {
-        Matcher matcher = styledText.getMatcher(TIME_ELAPSED_PATTERN);
-        if (matcher.find()) {
-            lootrunFailedBuilder.setTimeElapsed(
-                    Integer.parseInt(matcher.group(1)) * 60 + Integer.parseInt(matcher.group(2)));
-            return;
-        }
+    private void addToRunHistory(LootrunFinishedEvent event) {
+        if (runHistory == null) return;
 
-        matcher = styledText.getMatcher(CHALLENGES_COMPLETED_PATTERN);
-        if (matcher.find()) {
-            lootrunFailedBuilder.setChallengesCompleted(Integer.parseInt(matcher.group(1)));
-            WynntilsMod.postEvent(lootrunFailedBuilder.build());
-            lootrunFailedBuilder = null;
-            return;
-        }
+        List<MissionType> missions =
+                lootrunningState == LootrunningState.NOT_RUNNING ? finishedLootrunMissions : getMissions();
+        runHistory.addRun(event, lootrunLocation, missions);
     }
 }
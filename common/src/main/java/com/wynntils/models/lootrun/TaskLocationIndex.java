@@ -0,0 +1,96 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.lootrun;
+
+import com.wynntils.models.lootrun.type.LootrunLocation;
+import com.wynntils.models.lootrun.type.TaskLocation;
+import com.wynntils.utils.mc.PosUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import net.minecraft.core.Position;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * The known lootrun task locations, additionally put in a 2D grid ignoring Y.
+ *
+ * <p>The cells are as wide as the largest distance a lookup accepts, so every match of a lookup
+ * is in the cell of the looked up position or one of its 8 neighbours.
+ */
+final class TaskLocationIndex {
+    static final TaskLocationIndex EMPTY = new TaskLocationIndex(Map.of(), 1);
+
+    private final Map<LootrunLocation, Set<TaskLocation>> taskLocations;
+    private final Set<TaskLocation> allTaskLocations;
+    private final Map<TaskLocation, LootrunLocation> lootrunLocations = new HashMap<>();
+    private final int cellSize;
+    private final Long2ObjectMap<List<TaskLocation>> taskLocationsByCell = new Long2ObjectOpenHashMap<>();
+
+    TaskLocationIndex(Map<LootrunLocation, Set<TaskLocation>> taskLocations, int cellSize) {
+        this.taskLocations = taskLocations;
+        this.allTaskLocations =
+                taskLocations.values().stream().flatMap(Collection::stream).collect(Collectors.toUnmodifiableSet());
+        this.cellSize = cellSize;
+
+        taskLocations.forEach((lootrunLocation, locations) ->
+                locations.forEach(taskLocation -> lootrunLocations.put(taskLocation, lootrunLocation)));
+
+        for (TaskLocation taskLocation : allTaskLocations) {
+            long cell = ChunkPos.asLong(
+                    Math.floorDiv(taskLocation.location().x(), cellSize),
+                    Math.floorDiv(taskLocation.location().z(), cellSize));
+            taskLocationsByCell.computeIfAbsent(cell, (cellLong) -> new ArrayList<>()).add(taskLocation);
+        }
+    }
+
+    Set<TaskLocation> getTaskLocations(LootrunLocation location) {
+        return taskLocations.getOrDefault(location, Set.of());
+    }
+
+    LootrunLocation getLootrunLocation(TaskLocation taskLocation) {
+        return lootrunLocations.getOrDefault(taskLocation, LootrunLocation.UNKNOWN);
+    }
+
+    Set<TaskLocation> getAllTaskLocations() {
+        return allTaskLocations;
+    }
+
+    /**
+     * Returns the task location closest to the given position, ignoring Y, if any is closer than the
+     * cell size of this index.
+     */
+    Optional<TaskLocation> getClosestTaskLocation(Position position) {
+        int cellX = Math.floorDiv((int) Math.floor(position.x()), cellSize);
+        int cellZ = Math.floorDiv((int) Math.floor(position.z()), cellSize);
+
+        TaskLocation closest = null;
+        double closestDistance = Double.MAX_VALUE;
+
+        for (int x = cellX - 1; x <= cellX + 1; x++) {
+            for (int z = cellZ - 1; z <= cellZ + 1; z++) {
+                for (TaskLocation taskLocation : taskLocationsByCell.getOrDefault(ChunkPos.asLong(x, z), List.of())) {
+                    if (!PosUtils.closerThanIgnoringY(taskLocation.location().toVec3(), position, cellSize)) continue;
+
+                    double xD = taskLocation.location().x() - position.x();
+                    double zD = taskLocation.location().z() - position.z();
+                    double distance = xD * xD + zD * zD;
+                    if (distance < closestDistance) {
+                        closest = taskLocation;
+                        closestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(closest);
+    }
+}
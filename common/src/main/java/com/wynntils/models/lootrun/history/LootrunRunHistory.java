@@ -0,0 +1,475 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.lootrun.history;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.models.lootrun.event.LootrunFinishedEvent;
+import com.wynntils.models.lootrun.type.LootrunLocation;
+import com.wynntils.models.lootrun.type.LootrunRunValue;
+import com.wynntils.models.lootrun.type.MissionType;
+import com.wynntils.utils.FileUtils;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The finished lootruns of one character, stored column by column.
+ *
+ * <p>On disk, every full block of {@link #BLOCK_SIZE} runs is compressed and appended to the runs file, which is
+ * never rewritten. The runs that do not fill a block yet are kept uncompressed in a small tail file, which is
+ * replaced after every run. All file operations happen on a single thread, in the order they were requested.
+ *
+ * <p>Every block and the tail start with the names of the locations, missions and run values they were written
+ * with, and store indices into these lists. Adding, removing or reordering any of these constants therefore does
+ * not change how stored runs are read. A file with an unknown header is moved aside instead of being appended to.
+ */
+public final class LootrunRunHistory {
+    private static final File HISTORY_DIR = WynntilsMod.getModStorageDir("lootrun-history");
+
+    private static final int RUNS_MAGIC = 0x574c5248; // "WLRH"
+    private static final int TAIL_MAGIC = 0x574c5254; // "WLRT"
+    private static final int HISTORY_VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int BLOCK_SIZE = 32;
+    // Far more runs than a block or the tail ever hold, but few enough that a corrupt count can't exhaust memory
+    private static final int MAX_STORED_RUNS = 1 << 16;
+
+    private static final LootrunLocation[] LOCATIONS = LootrunLocation.values();
+    private static final MissionType[] MISSION_TYPES = MissionType.values();
+    private static final LootrunRunValue[] RUN_VALUES = LootrunRunValue.values();
+
+    private static final ExecutorService FILE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("wynntils-lootrun-history-%d")
+            .setDaemon(true)
+            .build());
+
+    private final File runsFile;
+    private final File tailFile;
+
+    private final LongArrayList finishTimes = new LongArrayList();
+    private final BooleanArrayList completed = new BooleanArrayList();
+    private final ByteArrayList locations = new ByteArrayList();
+    private final IntArrayList missions = new IntArrayList();
+    private final IntArrayList[] values = new IntArrayList[RUN_VALUES.length];
+
+    // The number of loaded runs that are in the runs file, the others are in the tail file
+    private int sealedRuns = 0;
+
+    private LootrunRunHistory(String characterId) {
+        runsFile = new File(HISTORY_DIR, characterId + ".runs");
+        tailFile = new File(HISTORY_DIR, characterId + ".tail");
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new IntArrayList();
+        }
+    }
+
+    /**
+     * Reads the history of the given character off the render thread.
+     */
+    public static CompletableFuture<LootrunRunHistory> load(String characterId) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    LootrunRunHistory history = new LootrunRunHistory(characterId);
+
+                    try {
+                        int fileRuns = history.readRuns();
+                        history.readTail(fileRuns);
+                    } catch (IOException e) {
+                        WynntilsMod.warn("Could not read lootrun history of " + characterId, e);
+                    }
+
+                    return history;
+                },
+                FILE_EXECUTOR);
+    }
+
+    public void addRun(LootrunFinishedEvent event, LootrunLocation location, Collection<MissionType> runMissions) {
+        LootrunFinishedEvent.Completed completedEvent =
+                event instanceof LootrunFinishedEvent.Completed completedRun ? completedRun : null;
+
+        finishTimes.add(System.currentTimeMillis());
+        completed.add(completedEvent != null);
+        locations.add((byte) location.ordinal());
+        missions.add(createMissionMask(runMissions));
+        for (LootrunRunValue runValue : RUN_VALUES) {
+            values[runValue.ordinal()].add(getRunValue(event, completedEvent, runValue));
+        }
+
+        try {
+            if (size() - sealedRuns >= BLOCK_SIZE) {
+                byte[] block = createBlock(sealedRuns, size());
+                sealedRuns = size();
+                byte[] tail = createTail();
+
+                FILE_EXECUTOR.execute(() -> {
+                    appendBlock(block);
+                    writeTail(tail);
+                });
+            } else {
+                byte[] tail = createTail();
+                FILE_EXECUTOR.execute(() -> writeTail(tail));
+            }
+        } catch (IOException e) {
+            // The blocks are created in memory, writing them does not fail
+        }
+    }
+
+    public LootrunRunQuery query() {
+        return new LootrunRunQuery(this);
+    }
+
+    public int size() {
+        return finishTimes.size();
+    }
+
+    long getFinishTime(int run) {
+        return finishTimes.getLong(run);
+    }
+
+    boolean isCompleted(int run) {
+        return completed.getBoolean(run);
+    }
+
+    byte getLocationOrdinal(int run) {
+        return locations.getByte(run);
+    }
+
+    int getMissionMask(int run) {
+        return missions.getInt(run);
+    }
+
+    int getValue(int run, LootrunRunValue runValue) {
+        return values[runValue.ordinal()].getInt(run);
+    }
+
+    static int createMissionMask(Collection<MissionType> runMissions) {
+        int mask = 0;
+        for (MissionType mission : runMissions) {
+            mask |= 1 << mission.ordinal();
+        }
+        return mask;
+    }
+
+    private static int getRunValue(
+            LootrunFinishedEvent event, LootrunFinishedEvent.Completed completedEvent, LootrunRunValue runValue) {
+        return switch (runValue) {
+            case CHALLENGES_COMPLETED -> event.getChallengesCompleted();
+            case TIME_ELAPSED -> event.getTimeElapsed();
+            case REWARD_PULLS -> completedEvent == null ? 0 : completedEvent.getRewardPulls();
+            case REWARD_REROLLS -> completedEvent == null ? 0 : completedEvent.getRewardRerolls();
+            case REWARD_SACRIFICES -> completedEvent == null ? 0 : completedEvent.getRewardSacrifices();
+            case EXPERIENCE_GAINED -> completedEvent == null ? 0 : completedEvent.getExperienceGained();
+            case MOBS_KILLED -> completedEvent == null ? 0 : completedEvent.getMobsKilled();
+            case CHESTS_OPENED -> completedEvent == null ? 0 : completedEvent.getChestsOpened();
+        };
+    }
+
+    private byte[] createBlock(int from, int to) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(compressed))) {
+            writeColumns(output, from, to);
+        }
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(block);
+        output.writeInt(to - from);
+        output.writeInt(compressed.size());
+        compressed.writeTo(output);
+        return block.toByteArray();
+    }
+
+    private byte[] createTail() throws IOException {
+        ByteArrayOutputStream tail = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(tail);
+        output.writeInt(TAIL_MAGIC);
+        output.writeInt(HISTORY_VERSION);
+        output.writeInt(sealedRuns);
+        output.writeInt(size() - sealedRuns);
+        writeColumns(output, sealedRuns, size());
+        return tail.toByteArray();
+    }
+
+    private void writeColumns(DataOutputStream output, int from, int to) throws IOException {
+        writeConstants(output, LOCATIONS);
+        writeConstants(output, MISSION_TYPES);
+        writeConstants(output, RUN_VALUES);
+
+        for (int run = from; run < to; run++) {
+            output.writeLong(finishTimes.getLong(run));
+        }
+        for (int run = from; run < to; run++) {
+            output.writeBoolean(completed.getBoolean(run));
+        }
+        for (int run = from; run < to; run++) {
+            output.writeByte(locations.getByte(run));
+        }
+        for (int run = from; run < to; run++) {
+            output.writeInt(missions.getInt(run));
+        }
+        for (IntArrayList column : values) {
+            for (int run = from; run < to; run++) {
+                output.writeInt(column.getInt(run));
+            }
+        }
+    }
+
+    private static void writeConstants(DataOutputStream output, Enum<?>[] constants) throws IOException {
+        output.writeByte(constants.length);
+        for (Enum<?> constant : constants) {
+            output.writeUTF(constant.name());
+        }
+    }
+
+    /**
+     * Reads the given number of runs, and adds them to the history, except the first {@code skip} runs.
+     * Nothing is added if the runs are cut off.
+     */
+    private void readColumns(DataInputStream input, int count, int skip) throws IOException {
+        if (count < 0 || count > MAX_STORED_RUNS) {
+            throw new IOException("Invalid number of lootrun runs: " + count);
+        }
+
+        // The stored indices of constants that no longer exist are read as unknown, or are dropped
+        List<LootrunLocation> storedLocations = readConstants(input, LootrunLocation.class, LootrunLocation.UNKNOWN);
+        List<MissionType> storedMissions = readConstants(input, MissionType.class, null);
+        List<LootrunRunValue> storedValues = readConstants(input, LootrunRunValue.class, null);
+
+        long[] runFinishTimes = new long[count];
+        boolean[] runCompleted = new boolean[count];
+        byte[] runLocations = new byte[count];
+        int[] runMissions = new int[count];
+        int[][] runValues = new int[values.length][count];
+
+        for (int run = 0; run < count; run++) {
+            runFinishTimes[run] = input.readLong();
+        }
+        for (int run = 0; run < count; run++) {
+            runCompleted[run] = input.readBoolean();
+        }
+        for (int run = 0; run < count; run++) {
+            int location = input.readUnsignedByte();
+            if (location >= storedLocations.size()) {
+                throw new IOException("Invalid lootrun location index: " + location);
+            }
+            runLocations[run] = (byte) storedLocations.get(location).ordinal();
+        }
+        for (int run = 0; run < count; run++) {
+            runMissions[run] = getMissionMask(input.readInt(), storedMissions);
+        }
+        for (LootrunRunValue storedValue : storedValues) {
+            for (int run = 0; run < count; run++) {
+                int value = input.readInt();
+                if (storedValue != null) {
+                    runValues[storedValue.ordinal()][run] = value;
+                }
+            }
+        }
+
+        for (int run = skip; run < count; run++) {
+            finishTimes.add(runFinishTimes[run]);
+            completed.add(runCompleted[run]);
+            locations.add(runLocations[run]);
+            missions.add(runMissions[run]);
+            for (int i = 0; i < values.length; i++) {
+                values[i].add(runValues[i][run]);
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> List<E> readConstants(DataInputStream input, Class<E> enumClass, E unknown)
+            throws IOException {
+        int count = input.readUnsignedByte();
+        List<E> constants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = input.readUTF();
+            constants.add(Arrays.stream(enumClass.getEnumConstants())
+                    .filter(constant -> constant.name().equals(name))
+                    .findFirst()
+                    .orElse(unknown));
+        }
+        return constants;
+    }
+
+    private static int getMissionMask(int storedMask, List<MissionType> storedMissions) {
+        int mask = 0;
+        for (int bit = 0; bit < Math.min(storedMissions.size(), Integer.SIZE); bit++) {
+            MissionType mission = storedMissions.get(bit);
+            if ((storedMask & (1 << bit)) != 0 && mission != null) {
+                mask |= 1 << mission.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Reads the blocks of the runs file, and returns the number of runs in it, including those of corrupt blocks,
+     * which are skipped.
+     */
+    private int readRuns() throws IOException {
+        if (!runsFile.exists()) return 0;
+        if (runsFile.length() < HEADER_SIZE) {
+            // The client was closed before the header was written
+            FileUtils.deleteFile(runsFile);
+            return 0;
+        }
+
+        int fileRuns = 0;
+        long fileLength = runsFile.length();
+        long validLength = HEADER_SIZE;
+        boolean corrupt = false;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(runsFile)))) {
+            if (input.readInt() != RUNS_MAGIC || input.readInt() != HISTORY_VERSION) {
+                corrupt = true;
+                validLength = 0;
+            }
+
+            while (!corrupt) {
+                try {
+                    int count = input.readInt();
+                    int blockLength = input.readInt();
+                    if (count < 0 || count > MAX_STORED_RUNS || blockLength < 0) {
+                        corrupt = true;
+                        break;
+                    }
+                    if (blockLength > fileLength - validLength - 8) {
+                        // The client was closed while the block was written
+                        break;
+                    }
+
+                    byte[] block = new byte[blockLength];
+                    input.readFully(block);
+
+                    // A block that was written completely but can't be read is skipped, instead of treating it like
+                    // the end of the file, which would cut off all blocks after it
+                    try (DataInputStream blockInput =
+                            new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block)))) {
+                        readColumns(blockInput, count, 0);
+                        sealedRuns += count;
+                    } catch (IOException e) {
+                        WynntilsMod.warn("Skipped " + count + " runs of a corrupt block of " + runsFile.getName(), e);
+                    }
+
+                    fileRuns += count;
+                    validLength += 8 + block.length;
+                } catch (EOFException e) {
+                    // Either the end of the file, or the client was closed while the last block was written
+                    break;
+                }
+            }
+        }
+
+        if (corrupt) {
+            // Later blocks would be appended to a file that can't be read, so the valid blocks are copied into a new
+            // file, and the old one is kept aside
+            WynntilsMod.warn("Lootrun history " + runsFile.getName() + " is corrupt after " + validLength + " bytes");
+            File validFile = new File(HISTORY_DIR, runsFile.getName() + ".tmp");
+            if (validLength > 0) {
+                try (RandomAccessFile file = new RandomAccessFile(runsFile, "r");
+                        FileOutputStream output = new FileOutputStream(validFile)) {
+                    file.getChannel().transferTo(0, validLength, output.getChannel());
+                }
+            }
+
+            FileUtils.moveInvalidFile(runsFile);
+            if (validLength > 0) {
+                Files.move(validFile.toPath(), runsFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } else if (validLength < runsFile.length()) {
+            try (RandomAccessFile file = new RandomAccessFile(runsFile, "rw")) {
+                file.setLength(validLength);
+            }
+        }
+
+        return fileRuns;
+    }
+
+    private void readTail(int fileRuns) throws IOException {
+        if (!tailFile.exists()) return;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(tailFile)))) {
+            if (input.readInt() != TAIL_MAGIC || input.readInt() != HISTORY_VERSION) {
+                throw new IOException("Not a lootrun history tail: " + tailFile.getName());
+            }
+
+            int tailSealedRuns = input.readInt();
+            int count = input.readInt();
+
+            // The client was closed after a block was appended, but before the tail was replaced
+            int alreadySealed = Math.max(0, fileRuns - tailSealedRuns);
+            readColumns(input, count, Math.min(alreadySealed, count));
+        } catch (IOException e) {
+            // The tail is replaced after the next run, so it is kept aside before that
+            WynntilsMod.warn("Could not read lootrun history tail " + tailFile.getName(), e);
+            FileUtils.moveInvalidFile(tailFile);
+        }
+    }
+
+    private void appendBlock(byte[] block) {
+        FileUtils.mkdir(HISTORY_DIR);
+
+        boolean newFile = !runsFile.exists();
+        try (FileOutputStream output = new FileOutputStream(runsFile, true)) {
+            if (newFile) {
+                DataOutputStream header = new DataOutputStream(output);
+                header.writeInt(RUNS_MAGIC);
+                header.writeInt(HISTORY_VERSION);
+                header.flush();
+            }
+
+            output.write(block);
+            output.getFD().sync();
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write lootrun history.", e);
+        }
+    }
+
+    private void writeTail(byte[] tail) {
+        FileUtils.mkdir(HISTORY_DIR);
+
+        File tempFile = new File(HISTORY_DIR, tailFile.getName() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            output.write(tail);
+            output.getFD().sync();
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write lootrun history.", e);
+            return;
+        }
+
+        try {
+            Files.move(
+                    tempFile.toPath(),
+                    tailFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write lootrun history.", e);
+        }
+    }
+}
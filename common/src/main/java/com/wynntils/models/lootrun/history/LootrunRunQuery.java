@@ -0,0 +1,146 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.lootrun.history;
+
+import com.wynntils.models.lootrun.type.LootrunLocation;
+import com.wynntils.models.lootrun.type.LootrunRunValue;
+import com.wynntils.models.lootrun.type.MissionType;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Aggregates over the runs of a {@link LootrunRunHistory} that match all added filters.
+ * The filters only read the columns they need, and the aggregates only the column they sum up.
+ */
+public final class LootrunRunQuery {
+    private static final double SECONDS_PER_MINUTE = 60d;
+
+    private final LootrunRunHistory history;
+
+    private LootrunLocation location = null;
+    private int missionMask = 0;
+    private boolean completedOnly = false;
+    private long finishedAfter = Long.MIN_VALUE;
+
+    LootrunRunQuery(LootrunRunHistory history) {
+        this.history = history;
+    }
+
+    public LootrunRunQuery inLocation(LootrunLocation location) {
+        this.location = location;
+        return this;
+    }
+
+    /**
+     * Only matches runs that had the given mission, in addition to any missions added before.
+     */
+    public LootrunRunQuery withMission(MissionType mission) {
+        missionMask |= LootrunRunHistory.createMissionMask(List.of(mission));
+        return this;
+    }
+
+    public LootrunRunQuery completedOnly() {
+        completedOnly = true;
+        return this;
+    }
+
+    public LootrunRunQuery finishedAfter(long timeMillis) {
+        finishedAfter = timeMillis;
+        return this;
+    }
+
+    public int count() {
+        return select().cardinality();
+    }
+
+    /**
+     * Returns the share of the matching runs that were completed, between 0 and 1.
+     */
+    public double getSuccessRate() {
+        BitSet runs = select();
+        if (runs.isEmpty()) return 0;
+
+        int completedRuns = 0;
+        for (int run = runs.nextSetBit(0); run >= 0; run = runs.nextSetBit(run + 1)) {
+            if (history.isCompleted(run)) {
+                completedRuns++;
+            }
+        }
+
+        return (double) completedRuns / runs.cardinality();
+    }
+
+    public long sum(LootrunRunValue runValue) {
+        return sum(select(), runValue);
+    }
+
+    public double average(LootrunRunValue runValue) {
+        BitSet runs = select();
+        if (runs.isEmpty()) return 0;
+
+        return (double) sum(runs, runValue) / runs.cardinality();
+    }
+
+    /**
+     * Returns the given value per minute spent in the matching runs.
+     */
+    public double perMinute(LootrunRunValue runValue) {
+        BitSet runs = select();
+
+        long seconds = sum(runs, LootrunRunValue.TIME_ELAPSED);
+        if (seconds == 0) return 0;
+
+        return sum(runs, runValue) / (seconds / SECONDS_PER_MINUTE);
+    }
+
+    private long sum(BitSet runs, LootrunRunValue runValue) {
+        long sum = 0;
+        for (int run = runs.nextSetBit(0); run >= 0; run = runs.nextSetBit(run + 1)) {
+            sum += history.getValue(run, runValue);
+        }
+        return sum;
+    }
+
+    private BitSet select() {
+        int size = history.size();
+        BitSet runs = new BitSet(size);
+        runs.set(0, size);
+
+        if (location != null) {
+            byte locationOrdinal = (byte) location.ordinal();
+            for (int run = 0; run < size; run++) {
+                if (history.getLocationOrdinal(run) != locationOrdinal) {
+                    runs.clear(run);
+                }
+            }
+        }
+
+        if (missionMask != 0) {
+            for (int run = runs.nextSetBit(0); run >= 0; run = runs.nextSetBit(run + 1)) {
+                if ((history.getMissionMask(run) & missionMask) != missionMask) {
+                    runs.clear(run);
+                }
+            }
+        }
+
+        if (completedOnly) {
+            for (int run = runs.nextSetBit(0); run >= 0; run = runs.nextSetBit(run + 1)) {
+                if (!history.isCompleted(run)) {
+                    runs.clear(run);
+                }
+            }
+        }
+
+        if (finishedAfter != Long.MIN_VALUE) {
+            for (int run = runs.nextSetBit(0); run >= 0; run = runs.nextSetBit(run + 1)) {
+                if (history.getFinishTime(run) <= finishedAfter) {
+                    runs.clear(run);
+                }
+            }
+        }
+
+        return runs;
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.lootrun.type;
+
+/**
+ * The numeric values recorded for every finished lootrun. Failed lootruns only record
+ * {@link #CHALLENGES_COMPLETED} and {@link #TIME_ELAPSED}, the others are 0.
+ */
+public enum LootrunRunValue {
+    CHALLENGES_COMPLETED,
+    TIME_ELAPSED,
+    REWARD_PULLS,
+    REWARD_REROLLS,
+    REWARD_SACRIFICES,
+    EXPERIENCE_GAINED,
+    MOBS_KILLED,
+    CHESTS_OPENED
+}
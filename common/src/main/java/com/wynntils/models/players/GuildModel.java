@@ -47,7 +47,6 @@ import java.util.stream.Collectors;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraftforge.eventbus.api.EventPriority;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class GuildModel extends Model {
     private static final Gson GUILD_PROFILE_GSON = new GsonBuilder()
@@ -142,113 +141,101 @@ public class GuildModel extends Model {
         Handlers.Label.registerParser(new GuildSeasonLeaderboardHeaderLabelParser());
         Handlers.Label.registerParser(new GuildSeasonLeaderboardLabelParser());
 
+        // This needs to run before any chat modifications (eg. chat mentions, filter, etc)
+        // Side note; it is currently impossible to detect when we get kicked as there are no messages sent at all
+        Handlers.Chat.registerPattern(this, MSG_LEFT_GUILD, EventPriority.HIGHEST, this::onLeftGuild);
+        Handlers.Chat.registerPattern(this, MSG_JOINED_GUILD, EventPriority.HIGHEST, this::onJoinedGuild);
+        Handlers.Chat.registerPattern(this, MSG_RANK_CHANGED, EventPriority.HIGHEST, this::onRankChanged);
+        Handlers.Chat.registerPattern(this, MSG_OBJECTIVE_COMPLETED, EventPriority.HIGHEST, this::onObjectiveCompleted);
+        Handlers.Chat.registerPattern(this, MSG_NEW_OBJECTIVES, EventPriority.HIGHEST, this::onNewObjectives);
+        Handlers.Chat.registerPattern(this, MSG_TRIBUTE_SCEDULED, EventPriority.HIGHEST, this::onTributeScheduled);
+        Handlers.Chat.registerPattern(this, MSG_TRIBUTE_STOPPED, EventPriority.HIGHEST, this::onTributeStopped);
+        Handlers.Chat.registerPattern(this, MSG_ALLIANCE_FORMED, EventPriority.HIGHEST, this::onAllianceFormed);
+        Handlers.Chat.registerPattern(this, MSG_ALLIANCE_REVOKED, EventPriority.HIGHEST, this::onAllianceRevoked);
+
         loadGuildList();
     }
 
-    // This needs to run before any chat modifications (eg. chat mentions, filter, etc)
-    // Side note; it is currently impossible to detect when we get kicked as there are no messages sent at all
-    @SubscribeEvent(priority = EventPriority.HIGHEST)
-    public void onChatMessage(ChatMessageReceivedEvent e) {
-        StyledText message = e.getOriginalStyledText();
-
-        if (message.matches(MSG_LEFT_GUILD)) {
-            guildName = "";
-            guildRank = null;
-            guildLevel = -1;
-            guildLevelProgress = CappedValue.EMPTY;
-            objectivesCompletedProgress = CappedValue.EMPTY;
-            objectiveStreak = 0;
-            WynntilsMod.info("User left guild");
-            return;
-        }
-
-        Matcher joinedGuildMatcher = message.getMatcher(MSG_JOINED_GUILD);
-        if (joinedGuildMatcher.matches()) {
-            guildName = joinedGuildMatcher.group(1);
-            guildRank = GuildRank.RECRUIT;
-            WynntilsMod.info("User joined guild " + guildName + " as a " + guildRank);
-            return;
-        }
+    private void onLeftGuild(ChatMessageReceivedEvent event, Matcher matcher) {
+        guildName = "";
+        guildRank = null;
+        guildLevel = -1;
+        guildLevelProgress = CappedValue.EMPTY;
+        objectivesCompletedProgress = CappedValue.EMPTY;
+        objectiveStreak = 0;
+        WynntilsMod.info("User left guild");
+    }
 
-        Matcher rankChangedMatcher = message.getMatcher(MSG_RANK_CHANGED);
-        if (rankChangedMatcher.matches()) {
-            if (!rankChangedMatcher.group(1).equals(McUtils.playerName())) return;
-            guildRank = GuildRank.valueOf(rankChangedMatcher.group(2).toUpperCase(Locale.ROOT));
-            WynntilsMod.info("User's guild rank changed to " + guildRank);
-            return;
-        }
+    private void onJoinedGuild(ChatMessageReceivedEvent event, Matcher matcher) {
+        guildName = matcher.group(1);
+        guildRank = GuildRank.RECRUIT;
+        WynntilsMod.info("User joined guild " + guildName + " as a " + guildRank);
+    }
 
-        // Handle completed objective
-        Matcher objectiveCompletedMatcher = message.getMatcher(MSG_OBJECTIVE_COMPLETED);
-        if (objectiveCompletedMatcher.matches()) {
-            int currentGoal = objectivesCompletedProgress.max();
-            int completed = objectivesCompletedProgress.current() + 1;
-            // Get next goal
-            for (int goal : OBJECTIVE_GOALS) {
-                if (completed >= currentGoal) {
-                    currentGoal = goal;
-                } else {
-                    break;
-                }
-            }
-            objectivesCompletedProgress = new CappedValue(completed, currentGoal);
+    private void onRankChanged(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (!matcher.group(1).equals(McUtils.playerName())) return;
+        guildRank = GuildRank.valueOf(matcher.group(2).toUpperCase(Locale.ROOT));
+        WynntilsMod.info("User's guild rank changed to " + guildRank);
+    }
 
-            // Update streak
-            if (objectiveCompletedMatcher.group("player").equals(McUtils.playerName())) {
-                objectiveStreak++;
+    private void onObjectiveCompleted(ChatMessageReceivedEvent event, Matcher matcher) {
+        int currentGoal = objectivesCompletedProgress.max();
+        int completed = objectivesCompletedProgress.current() + 1;
+        // Get next goal
+        for (int goal : OBJECTIVE_GOALS) {
+            if (completed >= currentGoal) {
+                currentGoal = goal;
+            } else {
+                break;
             }
-            return;
         }
+        objectivesCompletedProgress = new CappedValue(completed, currentGoal);
 
-        if (message.matches(MSG_NEW_OBJECTIVES)) {
-            objectivesCompletedProgress = new CappedValue(0, OBJECTIVE_GOALS.get(0));
-            return;
+        // Update streak
+        if (matcher.group("player").equals(McUtils.playerName())) {
+            objectiveStreak++;
         }
+    }
 
-        Matcher tributeScheduledMatcher = message.getMatcher(MSG_TRIBUTE_SCEDULED);
-        if (tributeScheduledMatcher.matches()) {
-            String recipient = tributeScheduledMatcher.group("recipient");
-            GuildResource resource = GuildResource.fromSymbol(tributeScheduledMatcher.group("resource"));
-            int amount = Integer.parseInt(tributeScheduledMatcher.group("amount"));
-            if (recipient.equals(guildName)) {
-                guildDiplomacyMap.get(tributeScheduledMatcher.group("sender")).storeReceivedTribute(resource, amount);
-            } else {
-                guildDiplomacyMap.get(recipient).storeSentTribute(resource, amount);
-            }
-            return;
+    private void onNewObjectives(ChatMessageReceivedEvent event, Matcher matcher) {
+        objectivesCompletedProgress = new CappedValue(0, OBJECTIVE_GOALS.get(0));
+    }
+
+    private void onTributeScheduled(ChatMessageReceivedEvent event, Matcher matcher) {
+        String recipient = matcher.group("recipient");
+        GuildResource resource = GuildResource.fromSymbol(matcher.group("resource"));
+        int amount = Integer.parseInt(matcher.group("amount"));
+        if (recipient.equals(guildName)) {
+            guildDiplomacyMap.get(matcher.group("sender")).storeReceivedTribute(resource, amount);
+        } else {
+            guildDiplomacyMap.get(recipient).storeSentTribute(resource, amount);
         }
+    }
 
-        Matcher tributeStoppedMatcher = message.getMatcher(MSG_TRIBUTE_STOPPED);
-        if (tributeStoppedMatcher.matches()) {
-            String recipient = tributeStoppedMatcher.group("recipient");
-            GuildResource resource = GuildResource.fromName(tributeStoppedMatcher.group("resource"));
-            if (recipient.equals(guildName)) {
-                guildDiplomacyMap.get(tributeStoppedMatcher.group("sender")).removeReceivedTribute(resource);
-            } else {
-                guildDiplomacyMap.get(recipient).removeSentTribute(resource);
-            }
-            return;
+    private void onTributeStopped(ChatMessageReceivedEvent event, Matcher matcher) {
+        String recipient = matcher.group("recipient");
+        GuildResource resource = GuildResource.fromName(matcher.group("resource"));
+        if (recipient.equals(guildName)) {
+            guildDiplomacyMap.get(matcher.group("sender")).removeReceivedTribute(resource);
+        } else {
+            guildDiplomacyMap.get(recipient).removeSentTribute(resource);
         }
+    }
 
-        Matcher allienceFormedMatcher = message.getMatcher(MSG_ALLIANCE_FORMED);
-        if (allienceFormedMatcher.matches()) {
-            String guild = allienceFormedMatcher.group("guild");
-            if (guild.equals(guildName)) {
-                guild = allienceFormedMatcher.group("actor");
-            }
-            guildDiplomacyMap.put(guild, new DiplomacyInfo(guild));
-            return;
+    private void onAllianceFormed(ChatMessageReceivedEvent event, Matcher matcher) {
+        String guild = matcher.group("guild");
+        if (guild.equals(guildName)) {
+            guild = matcher.group("actor");
         }
+        guildDiplomacyMap.put(guild, new DiplomacyInfo(guild));
+    }
 
-        Matcher allianceRevokedMatcher = message.getMatcher(MSG_ALLIANCE_REVOKED);
-        if (allianceRevokedMatcher.matches()) {
-            String guild = allianceRevokedMatcher.group("guild");
-            if (guild.equals(guildName)) {
-                guild = allianceRevokedMatcher.group("actor");
-            }
-            guildDiplomacyMap.remove(guild);
-            return;
+    private void onAllianceRevoked(ChatMessageReceivedEvent event, Matcher matcher) {
+        String guild = matcher.group("guild");
+        if (guild.equals(guildName)) {
+            guild = matcher.group("actor");
         }
+        guildDiplomacyMap.remove(guild);
     }
 
     public void parseGuildInfoFromGuildMenu(ItemStack guildInfoItem) {
@@ -89,6 +89,9 @@ public class ProfessionModel extends Model {
         for (ProfessionType pt : ProfessionType.values()) {
             rawXpGainInLastMinute.put(pt, new TimedSet<>(1, TimeUnit.MINUTES, true));
         }
+
+        Handlers.Chat.registerPattern(this, PROFESSION_CRAFT_PATTERN, this::onProfessionCraft);
+        Handlers.Chat.registerPattern(this, PROFESSION_LEVELUP_PATTERN, this::onProfessionLevelUp);
     }
 
     @SubscribeEvent
@@ -153,29 +156,19 @@ public class ProfessionModel extends Model {
         }
     }
 
-    @SubscribeEvent
-    public void onChatMessage(ChatMessageReceivedEvent event) {
-        StyledText message = event.getOriginalStyledText();
-
-        Matcher craftMatcher = message.getMatcher(PROFESSION_CRAFT_PATTERN);
-        if (craftMatcher.matches()) {
-            Event xpGainEvent = new ProfessionXpGainEvent(
-                    ProfessionType.fromString(craftMatcher.group("name")),
-                    Float.parseFloat(craftMatcher.group("gain")),
-                    Float.parseFloat(craftMatcher.group("current")));
-            WynntilsMod.postEvent(xpGainEvent);
-            if (xpGainEvent.isCanceled()) {
-                event.setCanceled(true);
-            }
-            return;
+    private void onProfessionCraft(ChatMessageReceivedEvent event, Matcher matcher) {
+        Event xpGainEvent = new ProfessionXpGainEvent(
+                ProfessionType.fromString(matcher.group("name")),
+                Float.parseFloat(matcher.group("gain")),
+                Float.parseFloat(matcher.group("current")));
+        WynntilsMod.postEvent(xpGainEvent);
+        if (xpGainEvent.isCanceled()) {
+            event.setCanceled(true);
         }
+    }
 
-        Matcher levelUpMatcher = message.getMatcher(PROFESSION_LEVELUP_PATTERN);
-        if (levelUpMatcher.matches()) {
-            updateLevel(
-                    ProfessionType.fromString(levelUpMatcher.group("name")),
-                    Integer.parseInt(levelUpMatcher.group("level")));
-        }
+    private void onProfessionLevelUp(ChatMessageReceivedEvent event, Matcher matcher) {
+        updateLevel(ProfessionType.fromString(matcher.group("name")), Integer.parseInt(matcher.group("level")));
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
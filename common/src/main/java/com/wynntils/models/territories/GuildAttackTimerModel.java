@@ -68,49 +68,48 @@ public final class GuildAttackTimerModel extends Model {
 
         Handlers.Scoreboard.addPart(GUILD_ATTACK_SCOREBOARD_PART);
         Models.Marker.registerMarkerProvider(GUILD_ATTACK_MARKER_PROVIDER);
+
+        Handlers.Chat.registerPattern(this, WAR_MESSAGE_PATTERN, this::onWarMessage);
+        Handlers.Chat.registerPattern(this, CAPTURED_PATTERN, this::onCaptured);
+        Handlers.Chat.registerPattern(this, GUILD_DEFENSE_CHAT_PATTERN, this::onGuildDefense);
     }
 
-    @SubscribeEvent
-    public void onMessage(ChatMessageReceivedEvent event) {
+    private void onWarMessage(ChatMessageReceivedEvent event, Matcher matcher) {
         if (event.getRecipientType() != RecipientType.GUILD) return;
 
-        Matcher matcher = event.getOriginalStyledText().getMatcher(WAR_MESSAGE_PATTERN);
-        if (matcher.matches()) {
-            long remaining = Long.parseLong(matcher.group("remaining"));
-            long timerEnd = (matcher.group("type").equals("minutes") ? remaining * 60 : remaining) * 1000
-                    + System.currentTimeMillis();
+        long remaining = Long.parseLong(matcher.group("remaining"));
+        long timerEnd = (matcher.group("type").equals("minutes") ? remaining * 60 : remaining) * 1000
+                + System.currentTimeMillis();
 
-            String territory = matcher.group("territory");
-            TerritoryAttackTimer scoreboardTimer = scoreboardAttackTimers.remove(territory);
+        String territory = matcher.group("territory");
+        TerritoryAttackTimer scoreboardTimer = scoreboardAttackTimers.remove(territory);
 
-            TerritoryAttackTimer attackTimer = new TerritoryAttackTimer(territory, timerEnd);
-            TerritoryAttackTimer oldTimer = chatAttackTimers.put(territory, attackTimer);
+        TerritoryAttackTimer attackTimer = new TerritoryAttackTimer(territory, timerEnd);
+        TerritoryAttackTimer oldTimer = chatAttackTimers.put(territory, attackTimer);
 
-            // If we didn't have a timer before, post an event
-            if (oldTimer == null && scoreboardTimer == null) {
-                WynntilsMod.postEvent(new GuildWarQueuedEvent(attackTimer));
-            }
-            return;
+        // If we didn't have a timer before, post an event
+        if (oldTimer == null && scoreboardTimer == null) {
+            WynntilsMod.postEvent(new GuildWarQueuedEvent(attackTimer));
         }
+    }
 
-        matcher = event.getOriginalStyledText().getMatcher(CAPTURED_PATTERN);
-        if (matcher.matches()) {
-            // Remove the attack timer for the territory, if it exists
-            // (the captured message appears for both owned and attacked territories)
-            String territory = matcher.group("territory");
+    private void onCaptured(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.GUILD) return;
 
-            chatAttackTimers.remove(territory);
-            scoreboardAttackTimers.remove(territory);
-            capturedTerritories.put(territory);
-            return;
-        }
+        // Remove the attack timer for the territory, if it exists
+        // (the captured message appears for both owned and attacked territories)
+        String territory = matcher.group("territory");
 
-        matcher = event.getOriginalStyledText().getMatcher(GUILD_DEFENSE_CHAT_PATTERN);
-        if (matcher.matches()) {
-            String territory = matcher.group(1);
-            territoryDefenses.put(territory, GuildResourceValues.fromString(matcher.group(2)));
-            return;
-        }
+        chatAttackTimers.remove(territory);
+        scoreboardAttackTimers.remove(territory);
+        capturedTerritories.put(territory);
+    }
+
+    private void onGuildDefense(ChatMessageReceivedEvent event, Matcher matcher) {
+        if (event.getRecipientType() != RecipientType.GUILD) return;
+
+        String territory = matcher.group(1);
+        territoryDefenses.put(territory, GuildResourceValues.fromString(matcher.group(2)));
     }
 
     @SubscribeEvent
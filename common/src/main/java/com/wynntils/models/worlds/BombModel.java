@@ -8,9 +8,9 @@ import com.wynntils.core.components.Handlers;
 import com.wynntils.core.components.Model;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.text.PartStyle;
-import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.bossbar.TrackedBar;
 import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
+import com.wynntils.handlers.chat.type.PatternMatchType;
 import com.wynntils.models.worlds.bossbars.InfoBar;
 import com.wynntils.models.worlds.event.WorldStateEvent;
 import com.wynntils.models.worlds.type.BombInfo;
@@ -49,41 +49,39 @@ public final class BombModel extends Model {
         super(List.of());
 
         Handlers.BossBar.registerBar(InfoBar);
-    }
 
-    @SubscribeEvent(priority = EventPriority.HIGHEST)
-    public void onChat(ChatMessageReceivedEvent event) {
-        StyledText message = event.getOriginalStyledText();
+        Handlers.Chat.registerPattern(
+                this,
+                BOMB_BELL_PATTERN,
+                PatternMatchType.MATCHES,
+                PartStyle.StyleType.NONE,
+                EventPriority.HIGHEST,
+                this::onBombBell);
+        Handlers.Chat.registerPattern(this, BOMB_THROWN_PATTERN, EventPriority.HIGHEST, this::onBombThrown);
+        Handlers.Chat.registerPattern(this, BOMB_EXPIRED_PATTERN, EventPriority.HIGHEST, this::onBombExpired);
+    }
 
-        Matcher bellMatcher = message.getMatcher(BOMB_BELL_PATTERN, PartStyle.StyleType.NONE);
-        if (bellMatcher.matches()) {
-            addBombFromChat(bellMatcher.group("user"), bellMatcher.group("bomb"), bellMatcher.group("server"));
-            return;
-        }
+    private void onBombBell(ChatMessageReceivedEvent event, Matcher matcher) {
+        addBombFromChat(matcher.group("user"), matcher.group("bomb"), matcher.group("server"));
+    }
 
-        Matcher localMatcher = message.getMatcher(BOMB_THROWN_PATTERN);
-        if (localMatcher.matches()) {
-            addBombFromChat(
-                    localMatcher.group("user"), localMatcher.group("bomb"), Models.WorldState.getCurrentWorldName());
-            return;
-        }
+    private void onBombThrown(ChatMessageReceivedEvent event, Matcher matcher) {
+        addBombFromChat(matcher.group("user"), matcher.group("bomb"), Models.WorldState.getCurrentWorldName());
+    }
 
-        Matcher expiredMatcher = message.getMatcher(BOMB_EXPIRED_PATTERN);
-        if (expiredMatcher.matches()) {
-            String user = expiredMatcher.group("user");
-            String bomb = expiredMatcher.group("bomb");
+    private void onBombExpired(ChatMessageReceivedEvent event, Matcher matcher) {
+        String bomb = matcher.group("bomb");
 
-            // Better to do a bit of processing and clean up the set than leaking memory
-            removeOldTimers();
+        // Better to do a bit of processing and clean up the set than leaking memory
+        removeOldTimers();
 
-            BombType bombType = BombType.fromString(bomb);
-            if (bombType == null) return;
+        BombType bombType = BombType.fromString(bomb);
+        if (bombType == null) return;
 
-            BombInfo removed = CURRENT_SERVER_BOMBS.remove(bombType);
-            if (removed == null) return;
+        BombInfo removed = CURRENT_SERVER_BOMBS.remove(bombType);
+        if (removed == null) return;
 
-            BOMBS.remove(removed);
-        }
+        BOMBS.remove(removed);
     }
 
     private void addBombFromChat(String user, String bomb, String server) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.wynnitem.parsing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tells what kind of line a lore line of an item is from its first characters, so only the patterns for that kind
+ * of line have to be matched against it, instead of trying all of them.
+ *
+ * <p>The matchers of the patterns are reused for every line, so a classifier must only be used for one item at a
+ * time, as items can be parsed on several threads at once.
+ */
+final class LoreLineClassifier {
+    private static final String COMBAT_LEVEL_PREFIX = "§7 Combat Lv. Min: ";
+    private static final String SET_BONUS_LINE = "§aSet Bonus:";
+    private static final String SET_COUNT_MARKER = " Set §7(";
+
+    private final Map<Pattern, Matcher> matchers = new HashMap<>();
+    private String line = "";
+    private LineType lineType = LineType.OTHER;
+
+    void setLine(String line) {
+        this.line = line;
+        this.lineType = classify(line);
+    }
+
+    /**
+     * Returns the matcher of the pattern if the current line is of the given type and matches the pattern, or else
+     * null. The matcher is only valid until the pattern is matched again.
+     */
+    Matcher match(LineType type, Pattern pattern) {
+        if (lineType != type) return null;
+
+        Matcher matcher = matchers.computeIfAbsent(pattern, key -> key.matcher(""));
+        matcher.reset(line);
+        return matcher.matches() ? matcher : null;
+    }
+
+    static LineType classify(String line) {
+        if (line.length() < 3 || line.charAt(0) != '§') return LineType.OTHER;
+
+        // Set names can start with anything, but only set lines end with the count of the set
+        if (line.charAt(1) == 'a' && line.endsWith(")") && line.contains(SET_COUNT_MARKER)) return LineType.SET;
+
+        // All lines we parse start with a color code, and can be told apart by the character after it
+        char first = line.charAt(2);
+        return switch (first) {
+            case '[' -> LineType.POWDER;
+            case '❤' -> LineType.HEALTH;
+            case '✖', '✔' -> isCombatLevel(line) ? LineType.COMBAT_LEVEL_REQUIREMENT : LineType.REQUIREMENT;
+            case '⬡' -> LineType.SHINY_STAT;
+            case '+' -> LineType.IDENTIFICATION;
+            case '-' -> line.startsWith(" ", 3) ? classifyListItem(line) : LineType.IDENTIFICATION;
+            case 'E' -> LineType.EFFECT_HEADER;
+            default -> {
+                if (line.equals(SET_BONUS_LINE)) yield LineType.SET_BONUS;
+                yield Character.isUpperCase(first) ? LineType.TIER : LineType.OTHER;
+            }
+        };
+    }
+
+    // Effects are written as "§6- §7Effect: ...", the items of a set as "§a- §2Item"
+    private static LineType classifyListItem(String line) {
+        if (line.length() < 6 || line.charAt(4) != '§') return LineType.OTHER;
+
+        return switch (line.charAt(5)) {
+            case '7' -> LineType.EFFECT;
+            case '2', '8' -> LineType.SET_ITEM;
+            default -> LineType.OTHER;
+        };
+    }
+
+    // Combat level requirements that don't end with a number are parsed like any other requirement
+    private static boolean isCombatLevel(String line) {
+        int start = 3 + COMBAT_LEVEL_PREFIX.length();
+        if (!line.startsWith(COMBAT_LEVEL_PREFIX, 3) || line.length() == start) return false;
+
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    enum LineType {
+        POWDER,
+        TIER,
+        HEALTH,
+        COMBAT_LEVEL_REQUIREMENT,
+        REQUIREMENT,
+        SET,
+        SET_ITEM,
+        SET_BONUS,
+        EFFECT_HEADER,
+        EFFECT,
+        IDENTIFICATION,
+        SHINY_STAT,
+        OTHER
+    }
+}
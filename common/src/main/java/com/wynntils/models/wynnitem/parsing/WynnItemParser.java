@@ -27,6 +27,7 @@ import com.wynntils.models.stats.type.SkillStatType;
 import com.wynntils.models.stats.type.StatActualValue;
 import com.wynntils.models.stats.type.StatPossibleValues;
 import com.wynntils.models.stats.type.StatType;
+import com.wynntils.models.wynnitem.parsing.LoreLineClassifier.LineType;
 import com.wynntils.models.wynnitem.type.ConsumableEffect;
 import com.wynntils.models.wynnitem.type.ItemEffect;
 import com.wynntils.models.wynnitem.type.NamedItemEffect;
@@ -133,12 +134,16 @@ public final class WynnItemParser {
         Map<StatType, Integer> wynnBonuses = new HashMap<>();
 
         // Parse lore for identifications, powders and rerolls
-        List<Component> lore = ComponentUtils.stripDuplicateBlank(LoreUtils.getTooltipLines(itemStack));
+        List<Component> lore = ComponentUtils.stripDuplicateBlank(LoreUtils.getNameAndLoreLines(itemStack));
         lore.remove(0); // remove item name
 
+        // Each line is only matched against the patterns of its kind of line
+        LoreLineClassifier lineClassifier = new LoreLineClassifier();
+
         for (Component loreLine : lore) {
             StyledText coded = StyledText.fromComponent(loreLine);
             StyledText normalizedCoded = coded.getNormalized();
+            lineClassifier.setLine(normalizedCoded.getString());
 
             if (setBonusStats) {
                 // We should revert back to normal parsing when we encounter an empty line
@@ -167,8 +172,8 @@ public final class WynnItemParser {
             }
 
             // Look for powder
-            Matcher powderMatcher = normalizedCoded.getMatcher(POWDER_PATTERN);
-            if (powderMatcher.matches()) {
+            Matcher powderMatcher = lineClassifier.match(LineType.POWDER, POWDER_PATTERN);
+            if (powderMatcher != null) {
                 int usedSlots = Integer.parseInt(powderMatcher.group(1));
                 powderSlots = Integer.parseInt(powderMatcher.group(2));
                 String codedPowders = powderMatcher.group(3);
@@ -192,8 +197,8 @@ public final class WynnItemParser {
             }
 
             // Look for tier and rerolls
-            Matcher tierMatcher = normalizedCoded.getMatcher(TIER_AND_REROLL_PATTERN);
-            if (tierMatcher.matches()) {
+            Matcher tierMatcher = lineClassifier.match(LineType.TIER, TIER_AND_REROLL_PATTERN);
+            if (tierMatcher != null) {
                 String tierString = tierMatcher.group(1);
                 tier = GearTier.fromStyledText(StyledText.fromString(tierString));
                 itemType = tierMatcher.group(2);
@@ -209,78 +214,61 @@ public final class WynnItemParser {
                 continue;
             }
 
-            Matcher healthMatcher = normalizedCoded.getMatcher(HEALTH_PATTERN);
-            if (healthMatcher.matches()) {
+            Matcher healthMatcher = lineClassifier.match(LineType.HEALTH, HEALTH_PATTERN);
+            if (healthMatcher != null) {
                 health = Integer.parseInt(healthMatcher.group(1));
                 continue;
             }
 
             // Requirements
             // Combat level
-            Matcher levelMatcher = normalizedCoded.getMatcher(MIN_LEVEL_PATTERN);
-            if (levelMatcher.matches()) {
+            Matcher levelMatcher = lineClassifier.match(LineType.COMBAT_LEVEL_REQUIREMENT, MIN_LEVEL_PATTERN);
+            if (levelMatcher != null) {
                 level = Integer.parseInt(levelMatcher.group("level"));
                 continue;
             }
 
-            // Class
-            Matcher classMatcher = normalizedCoded.getMatcher(CLASS_REQ_PATTERN);
-            if (classMatcher.matches()) {
-                String mark = classMatcher.group(1);
-                if (mark.contains("✖")) {
-                    allRequirementsMet = false;
-                }
-            }
-
-            // Skills
-            Matcher skillMatcher = normalizedCoded.getMatcher(SKILL_REQ_PATTERN);
-            if (skillMatcher.matches()) {
-                String mark = skillMatcher.group(1);
-                if (mark.contains("✖")) {
-                    allRequirementsMet = false;
-                }
-            }
-
-            // Misc requirements
-            Matcher miscMatcher = normalizedCoded.getMatcher(MISC_REQ_PATTERN);
-            if (miscMatcher.matches()) {
+            // Class, skill and misc requirements
+            // The misc pattern matches all of them, and they are only checked for whether they are met
+            Matcher miscMatcher = lineClassifier.match(LineType.REQUIREMENT, MISC_REQ_PATTERN);
+            if (miscMatcher != null) {
                 String mark = miscMatcher.group(1);
                 if (mark.contains("✖")) {
                     allRequirementsMet = false;
                 }
             }
 
-            Matcher setMatcher = normalizedCoded.getMatcher(SET_PATTERN);
-            if (setMatcher.matches()) {
+            Matcher setMatcher = lineClassifier.match(LineType.SET, SET_PATTERN);
+            if (setMatcher != null) {
                 String setName = setMatcher.group(1);
                 setInfo = Models.Set.getSetInfo(setName);
                 setWynnCount = Integer.parseInt(setMatcher.group(2));
             }
 
-            Matcher setItemMatcher = normalizedCoded.getMatcher(SET_ITEM_PATTERN);
-            if (setItemMatcher.matches()) {
+            Matcher setItemMatcher = lineClassifier.match(LineType.SET_ITEM, SET_ITEM_PATTERN);
+            if (setItemMatcher != null) {
                 boolean active = setItemMatcher.group(1).equals("2");
                 String itemName = setItemMatcher.group(2);
                 activeItems.put(itemName, active);
             }
 
-            Matcher setBonusMatcher = normalizedCoded.getMatcher(SET_BONUS_PATTERN);
-            if (setBonusMatcher.matches()) {
+            Matcher setBonusMatcher = lineClassifier.match(LineType.SET_BONUS, SET_BONUS_PATTERN);
+            if (setBonusMatcher != null) {
                 // Any stat lines that follow from now on belongs to the Set Bonus
                 // These are collected at the top of this loop for efficiency
                 setBonusStats = true;
             }
 
             // Look for effects (only on consumables)
-            Matcher effectHeaderMatcher = normalizedCoded.getMatcher(EFFECT_HEADER_PATTERN);
-            if (effectHeaderMatcher.matches()) {
+            Matcher effectHeaderMatcher = lineClassifier.match(LineType.EFFECT_HEADER, EFFECT_HEADER_PATTERN);
+            if (effectHeaderMatcher != null) {
                 effectsColorCode = effectHeaderMatcher.group(1);
                 parsingEffects = true;
                 continue;
             }
             if (parsingEffects) {
-                Matcher effectMatcher = normalizedCoded.getMatcher(EFFECT_LINE_PATTERN);
-                if (effectMatcher.matches()) {
+                Matcher effectMatcher = lineClassifier.match(LineType.EFFECT, EFFECT_LINE_PATTERN);
+                if (effectMatcher != null) {
                     String colorCode = effectMatcher.group(1);
                     String type = effectMatcher.group(2);
                     int value = Integer.parseInt(effectMatcher.group(3));
@@ -308,8 +296,8 @@ public final class WynnItemParser {
             }
 
             // Look for identifications
-            Matcher statMatcher = normalizedCoded.getMatcher(IDENTIFICATION_STAT_PATTERN);
-            if (statMatcher.matches() && !setBonusStats) {
+            Matcher statMatcher = lineClassifier.match(LineType.IDENTIFICATION, IDENTIFICATION_STAT_PATTERN);
+            if (statMatcher != null && !setBonusStats) {
                 int value = Integer.parseInt(statMatcher.group(1));
                 // group 2 is only present for unidentified gears, as the to-part of the range
                 String unit = statMatcher.group(3);
@@ -352,8 +340,8 @@ public final class WynnItemParser {
             }
 
             // Look for shiny stat
-            Matcher shinyStatMatcher = normalizedCoded.getMatcher(SHINY_STAT_PATTERN);
-            if (shinyStatMatcher.matches() && shinyStat.isEmpty()) {
+            Matcher shinyStatMatcher = lineClassifier.match(LineType.SHINY_STAT, SHINY_STAT_PATTERN);
+            if (shinyStatMatcher != null && shinyStat.isEmpty()) {
                 String shinyName = shinyStatMatcher.group(1);
                 int shinyValue = Integer.parseInt(shinyStatMatcher.group(2));
                 shinyStat = Optional.of(new ShinyStat(Models.Shiny.getShinyStat(shinyName), shinyValue));
@@ -442,7 +430,7 @@ public final class WynnItemParser {
     }
 
     public static CraftedItemParseResults parseCraftedItem(ItemStack itemStack) {
-        List<Component> lore = ComponentUtils.stripDuplicateBlank(LoreUtils.getTooltipLines(itemStack));
+        List<Component> lore = ComponentUtils.stripDuplicateBlank(LoreUtils.getNameAndLoreLines(itemStack));
 
         String name = "";
         ConsumableType consumableType = null;
@@ -17,6 +17,7 @@ import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.config.Config;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.features.map.MainMapFeature;
+import com.wynntils.services.lootrunpaths.LootrunPathInstance;
 import com.wynntils.services.map.MapTexture;
 import com.wynntils.services.map.pois.Poi;
 import com.wynntils.services.map.pois.WaypointPoi;
@@ -86,6 +87,9 @@ public class MinimapOverlay extends Overlay {
     @Persisted
     public final Config<Float> remotePlayersHeadScale = new Config<>(0.4f);
 
+    @Persisted
+    public final Config<Boolean> renderLootrun = new Config<>(true);
+
     public MinimapOverlay() {
         super(
                 new OverlayPosition(
@@ -189,6 +193,24 @@ public class MinimapOverlay extends Overlay {
                     zoomRenderScale);
         }
 
+        LootrunPathInstance currentLootrun = Services.LootrunPaths.getCurrentLootrun();
+        if (renderLootrun.get() && currentLootrun != null) {
+            MapRenderer.renderLootrunLine(
+                    currentLootrun,
+                    1.5f,
+                    2.5f,
+                    poseStack,
+                    centerX,
+                    centerZ,
+                    (float) playerX,
+                    (float) playerZ,
+                    width * extraFactor,
+                    height * extraFactor,
+                    1f / zoomRenderScale,
+                    CommonColors.LIGHT_BLUE.asInt(),
+                    CommonColors.BLACK.asInt());
+        }
+
         // disable rotation if necessary
         if (followPlayerRotation.get()) {
             poseStack.popPose();
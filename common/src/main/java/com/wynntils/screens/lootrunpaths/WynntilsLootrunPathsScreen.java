@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.screens.lootrunpaths;
@@ -16,6 +16,7 @@ import com.wynntils.screens.lootrunpaths.widgets.LootrunPathButton;
 import com.wynntils.screens.wynntilsmenu.WynntilsMenuScreen;
 import com.wynntils.services.lootrunpaths.LootrunPathInstance;
 import com.wynntils.services.lootrunpaths.event.LootrunPathCacheRefreshEvent;
+import com.wynntils.services.lootrunpaths.type.LootrunLibraryEntry;
 import com.wynntils.utils.StringUtils;
 import com.wynntils.utils.TaskUtils;
 import com.wynntils.utils.colors.CommonColors;
@@ -34,7 +35,7 @@ import net.minecraft.core.Position;
 import net.minecraft.network.chat.Component;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
-public final class WynntilsLootrunPathsScreen extends WynntilsListScreen<LootrunPathInstance, LootrunPathButton> {
+public final class WynntilsLootrunPathsScreen extends WynntilsListScreen<LootrunLibraryEntry, LootrunPathButton> {
     private WynntilsLootrunPathsScreen() {
         super(Component.translatable("screens.wynntils.lootruns.name"));
 
@@ -11,7 +11,7 @@ import com.wynntils.screens.base.widgets.WynntilsButton;
 import com.wynntils.screens.lootrunpaths.WynntilsLootrunPathsScreen;
 import com.wynntils.screens.maps.MainMapScreen;
 import com.wynntils.services.lootrunpaths.LootrunPathInstance;
-import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunLibraryEntry;
 import com.wynntils.utils.colors.CommonColors;
 import com.wynntils.utils.colors.CustomColor;
 import com.wynntils.utils.mc.KeyboardUtils;
@@ -35,11 +35,11 @@ public class LootrunPathButton extends WynntilsButton {
     private static final CustomColor TRACKED_BUTTON_COLOR = new CustomColor(176, 197, 148);
     private static final CustomColor TRACKED_BUTTON_COLOR_HOVERED = new CustomColor(126, 211, 106);
 
-    private final LootrunPathInstance lootrun;
+    private final LootrunLibraryEntry lootrun;
     private final WynntilsLootrunPathsScreen screen;
 
     public LootrunPathButton(
-            int x, int y, int width, int height, LootrunPathInstance lootrun, WynntilsLootrunPathsScreen screen) {
+            int x, int y, int width, int height, LootrunLibraryEntry lootrun, WynntilsLootrunPathsScreen screen) {
         super(x, y, width, height, Component.literal("Lootrun Button"));
         this.lootrun = lootrun;
         this.screen = screen;
@@ -100,8 +100,7 @@ public class LootrunPathButton extends WynntilsButton {
                 return true;
             }
 
-            LootrunPath path = lootrun.path();
-            Position start = path.points().get(0);
+            Position start = lootrun.start();
 
             McUtils.mc().setScreen(MainMapScreen.create((float) start.x(), (float) start.z()));
             return true;
@@ -115,7 +114,7 @@ public class LootrunPathButton extends WynntilsButton {
     public void onPress() {}
 
     private void tryDeleteLootrun() {
-        File file = new File(Services.LootrunPaths.LOOTRUNS, lootrun.name() + ".json");
+        File file = Services.LootrunPaths.getLootrunFile(lootrun.name());
         file.delete();
         screen.reloadElements();
     }
@@ -125,7 +124,7 @@ public class LootrunPathButton extends WynntilsButton {
         return currentLootrun != null && Objects.equals(currentLootrun.name(), lootrun.name());
     }
 
-    public LootrunPathInstance getLootrun() {
+    public LootrunLibraryEntry getLootrun() {
         return lootrun;
     }
 }
@@ -278,6 +278,8 @@ public final class MainMapScreen extends AbstractMapScreen {
                     centerZ,
                     mapCenterX,
                     mapCenterZ,
+                    mapWidth,
+                    mapHeight,
                     zoomRenderScale,
                     CommonColors.LIGHT_BLUE.asInt(),
                     CommonColors.BLACK.asInt());
@@ -0,0 +1,123 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.BlockValidness;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Position;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Caches what {@link BlockValidness} needs to know about blocks, as two bitmaps per chunk section.
+ * A section is read from the level the first time a path point in it is checked, and is kept until
+ * its chunk is (re)loaded or unloaded. Block updates are applied to the cached bitmaps directly.
+ */
+public final class BlockValidnessCache {
+    private static final int SECTION_LONGS = 16 * 16 * 16 / 64;
+
+    private final Long2ObjectMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    private Level level = null;
+
+    public BlockValidness checkBlockValidness(Level level, Position point) {
+        if (this.level != level) {
+            sections.clear();
+            this.level = level;
+        }
+
+        BlockValidness state = BlockValidness.INVALID;
+
+        for (BlockPos blockInArea : BlockValidness.getBlocksForPoint(point)) {
+            Section section = getSection(blockInArea);
+            int index = getIndex(blockInArea);
+
+            if (section.isBarrier(index)) {
+                state = BlockValidness.HAS_BARRIER;
+            } else if (section.hasCollision(index)) {
+                return BlockValidness.VALID;
+            }
+        }
+
+        return state;
+    }
+
+    public void onBlockUpdate(Level level, BlockPos pos, BlockState newState) {
+        if (this.level != level) return;
+
+        Section section = sections.get(SectionPos.asLong(pos));
+        if (section == null) return;
+
+        section.set(getIndex(pos), level, pos, newState);
+    }
+
+    public void invalidateChunk(ChunkPos chunkPos) {
+        if (level == null) return;
+
+        for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++) {
+            sections.remove(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    public void clear() {
+        sections.clear();
+        level = null;
+    }
+
+    private Section getSection(BlockPos pos) {
+        return sections.computeIfAbsent(SectionPos.asLong(pos), (sectionLong) -> new Section(level, pos));
+    }
+
+    private static int getIndex(BlockPos pos) {
+        return (pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+    }
+
+    private static final class Section {
+        private final long[] barriers = new long[SECTION_LONGS];
+        private final long[] collisions = new long[SECTION_LONGS];
+
+        private Section(Level level, BlockPos posInSection) {
+            int minX = SectionPos.blockToSectionCoord(posInSection.getX()) << 4;
+            int minY = SectionPos.blockToSectionCoord(posInSection.getY()) << 4;
+            int minZ = SectionPos.blockToSectionCoord(posInSection.getZ()) << 4;
+
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        pos.set(minX + x, minY + y, minZ + z);
+                        set(getIndex(pos), level, pos, level.getBlockState(pos));
+                    }
+                }
+            }
+        }
+
+        private void set(int index, Level level, BlockPos pos, BlockState blockState) {
+            long bit = 1L << (index & 63);
+            int word = index >> 6;
+
+            barriers[word] &= ~bit;
+            collisions[word] &= ~bit;
+
+            if (blockState.is(Blocks.BARRIER)) {
+                barriers[word] |= bit;
+            } else if (blockState.getCollisionShape(level, pos) != null) {
+                collisions[word] |= bit;
+            }
+        }
+
+        private boolean isBarrier(int index) {
+            return (barriers[index >> 6] & (1L << (index & 63))) != 0;
+        }
+
+        private boolean hasCollision(int index) {
+            return (collisions[index >> 6] & (1L << (index & 63))) != 0;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import com.wynntils.utils.MathUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.util.CubicSpline;
+import net.minecraft.util.ToFloatFunction;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Compiles a recording point by point, producing the same samples and chunk buckets as
+ * {@link LootrunCompiler#compile(UncompiledLootrunPath, boolean)} would for the whole path.
+ *
+ * <p>A spline sample between two knots only depends on those two knots and their slopes. The slope of a knot
+ * is only known once the next knot has been recorded, so the interval leading up to the newest knot is
+ * "provisional": it is sampled with a flat end slope, and rolled back and resampled when the next point arrives.
+ */
+final class IncrementalLootrunCompilation {
+    private static final float[] NO_SLOPE = new float[] {0f, 0f, 0f};
+
+    private final int color;
+    private final Long2ObjectMap<List<ColoredPath>> points = new Long2ObjectOpenHashMap<>();
+    private int compiledPoints = 0;
+    private Vec3 lastCompiledPoint = null;
+
+    // Spline state of the segment currently being recorded
+    private Vec3 previousKnot = null;
+    private float previousKnotDistance = 0f;
+    private float[] previousKnotSlope = NO_SLOPE;
+    private Vec3 lastKnot = null;
+    private float lastKnotDistance = 0f;
+    private float sampleCursor = 0f;
+
+    // Chunk bucketing state
+    private float lastSampleX;
+    private float lastSampleY;
+    private float lastSampleZ;
+    private long lastChunk = 0L;
+    private ColoredPath lastLocationList = null;
+    // Segments are never connected, even where one ends in the chunk the next one starts in
+    private boolean startsSegment = true;
+
+    // Snapshot taken before the provisional interval was sampled
+    private boolean hasProvisionalTail = false;
+    private float tailSampleCursor;
+    private float tailLastSampleX;
+    private float tailLastSampleY;
+    private float tailLastSampleZ;
+    private long tailLastChunk;
+    private ColoredPath tailLastLocationList;
+    private boolean tailStartsSegment;
+    private int tailLastLocationListSize;
+    private final LongList tailCreatedChunks = new LongArrayList();
+
+    IncrementalLootrunCompilation(int color) {
+        this.color = color;
+    }
+
+    /**
+     * Returns whether the given path is the compiled path with (possibly) more points appended,
+     * and was compiled with the same color.
+     */
+    boolean canAppend(List<Vec3> path, int color) {
+        if (this.color != color) return false;
+        if (path.size() < compiledPoints) return false;
+        if (compiledPoints == 0) return true;
+
+        return path.get(compiledPoints - 1) == lastCompiledPoint;
+    }
+
+    void appendNewPoints(List<Vec3> path) {
+        for (int i = compiledPoints; i < path.size(); i++) {
+            appendPoint(path.get(i));
+        }
+    }
+
+    Long2ObjectMap<List<ColoredPath>> getPoints() {
+        return points;
+    }
+
+    private void appendPoint(Vec3 point) {
+        compiledPoints++;
+        lastCompiledPoint = point;
+
+        if (lastKnot == null) {
+            lastKnot = point;
+            return;
+        }
+
+        if (lastKnot.distanceTo(point) >= LootrunCompiler.SEGMENT_BREAK_DISTANCE) {
+            // The last knot of a segment keeps a flat slope, so the provisional interval is already final
+            hasProvisionalTail = false;
+            tailCreatedChunks.clear();
+
+            previousKnot = null;
+            previousKnotSlope = NO_SLOPE;
+            lastKnot = point;
+            lastKnotDistance = 0f;
+            sampleCursor = 0f;
+            startsSegment = true;
+            return;
+        }
+
+        rollbackProvisionalTail();
+
+        float[] lastKnotSlope = getSlope(lastKnot, point);
+        float distance = (float) (lastKnotDistance + lastKnot.distanceTo(point));
+
+        if (previousKnot != null) {
+            sampleInterval(
+                    previousKnot, previousKnotDistance, previousKnotSlope, lastKnot, lastKnotDistance, lastKnotSlope);
+        }
+
+        previousKnot = lastKnot;
+        previousKnotDistance = lastKnotDistance;
+        previousKnotSlope = lastKnotSlope;
+        lastKnot = point;
+        lastKnotDistance = distance;
+
+        beginProvisionalTail();
+        sampleInterval(previousKnot, previousKnotDistance, previousKnotSlope, lastKnot, lastKnotDistance, NO_SLOPE);
+    }
+
+    private void sampleInterval(
+            Vec3 start, float startDistance, float[] startSlope, Vec3 end, float endDistance, float[] endSlope) {
+        CubicSpline<Float, ToFloatFunction<Float>> splineX = CubicSpline.builder(ToFloatFunction.IDENTITY)
+                .addPoint(startDistance, (float) start.x, startSlope[0])
+                .addPoint(endDistance, (float) end.x, endSlope[0])
+                .build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineY = CubicSpline.builder(ToFloatFunction.IDENTITY)
+                .addPoint(startDistance, (float) start.y, startSlope[1])
+                .addPoint(endDistance, (float) end.y, endSlope[1])
+                .build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineZ = CubicSpline.builder(ToFloatFunction.IDENTITY)
+                .addPoint(startDistance, (float) start.z, startSlope[2])
+                .addPoint(endDistance, (float) end.z, endSlope[2])
+                .build();
+
+        for (; sampleCursor < endDistance; sampleCursor += (1f / LootrunCompiler.SAMPLE_RATE)) {
+            addSample(splineX.apply(sampleCursor), splineY.apply(sampleCursor), splineZ.apply(sampleCursor));
+        }
+    }
+
+    private void addSample(float x, float y, float z) {
+        long chunk = ChunkPos.asLong(MathUtils.floor(x) >> 4, MathUtils.floor(z) >> 4);
+
+        if (startsSegment || chunk != lastChunk) {
+            if (!startsSegment && getDistanceToLastSample(x, y, z) < LootrunCompiler.SEGMENT_BREAK_DISTANCE) {
+                lastLocationList.add(x, y, z, color);
+            }
+
+            lastChunk = chunk;
+            lastLocationList = new ColoredPath();
+            points.computeIfAbsent(chunk, (chunkLong) -> new ArrayList<>()).add(lastLocationList);
+
+            if (hasProvisionalTail) {
+                tailCreatedChunks.add(chunk);
+            }
+        }
+
+        lastLocationList.add(x, y, z, color);
+        startsSegment = false;
+        lastSampleX = x;
+        lastSampleY = y;
+        lastSampleZ = z;
+    }
+
+    private double getDistanceToLastSample(double x, double y, double z) {
+        double dx = x - lastSampleX;
+        double dy = y - lastSampleY;
+        double dz = z - lastSampleZ;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private void beginProvisionalTail() {
+        hasProvisionalTail = true;
+        tailSampleCursor = sampleCursor;
+        tailLastSampleX = lastSampleX;
+        tailLastSampleY = lastSampleY;
+        tailLastSampleZ = lastSampleZ;
+        tailLastChunk = lastChunk;
+        tailLastLocationList = lastLocationList;
+        tailStartsSegment = startsSegment;
+        tailLastLocationListSize = lastLocationList == null ? 0 : lastLocationList.size();
+        tailCreatedChunks.clear();
+    }
+
+    private void rollbackProvisionalTail() {
+        if (!hasProvisionalTail) return;
+
+        // Paths created by the tail are always the last ones of their chunk
+        for (int i = tailCreatedChunks.size() - 1; i >= 0; i--) {
+            long chunk = tailCreatedChunks.getLong(i);
+            List<ColoredPath> chunkPaths = points.get(chunk);
+            chunkPaths.remove(chunkPaths.size() - 1);
+            if (chunkPaths.isEmpty()) {
+                points.remove(chunk);
+            }
+        }
+
+        if (tailLastLocationList != null) {
+            tailLastLocationList.truncate(tailLastLocationListSize);
+        }
+
+        sampleCursor = tailSampleCursor;
+        lastSampleX = tailLastSampleX;
+        lastSampleY = tailLastSampleY;
+        lastSampleZ = tailLastSampleZ;
+        lastChunk = tailLastChunk;
+        lastLocationList = tailLastLocationList;
+        startsSegment = tailStartsSegment;
+
+        hasProvisionalTail = false;
+        tailCreatedChunks.clear();
+    }
+
+    private static float[] getSlope(Vec3 position, Vec3 next) {
+        return new float[] {
+            (float) ((next.x - position.x) / position.distanceTo(next)),
+            (float) ((next.y - position.y) / position.distanceTo(next)),
+            (float) ((next.z - position.z) / position.distanceTo(next))
+        };
+    }
+}
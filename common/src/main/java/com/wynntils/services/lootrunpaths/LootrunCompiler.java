@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.services.lootrunpaths;
@@ -7,14 +7,16 @@ package com.wynntils.services.lootrunpaths;
 import com.wynntils.core.components.Managers;
 import com.wynntils.features.LootrunFeature;
 import com.wynntils.services.lootrunpaths.type.ColoredPath;
-import com.wynntils.services.lootrunpaths.type.ColoredPosition;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunPath;
 import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.mc.PosUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -23,12 +25,16 @@ import net.minecraft.ChatFormatting;
 import net.minecraft.core.BlockPos;
 import net.minecraft.util.CubicSpline;
 import net.minecraft.util.FastColor;
+import net.minecraft.util.Mth;
 import net.minecraft.util.ToFloatFunction;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.Vec3;
 import org.joml.Vector2d;
 
 public final class LootrunCompiler {
+    static final float SAMPLE_RATE = 10f;
+    static final int SEGMENT_BREAK_DISTANCE = 32;
+
     private static final List<Integer> COLORS = List.of(
             ChatFormatting.RED.getColor(),
             ChatFormatting.GOLD.getColor(),
@@ -39,7 +45,22 @@ public final class LootrunCompiler {
             ChatFormatting.DARK_PURPLE.getColor());
 
     public static LootrunPathInstance compile(UncompiledLootrunPath uncompiled, boolean recording) {
-        Long2ObjectMap<List<ColoredPath>> points = generatePointsByChunk(uncompiled.path(), recording);
+        LootrunFeature lootrunFeature = Managers.Feature.getFeatureInstance(LootrunFeature.class);
+        boolean rainbow = lootrunFeature.rainbowLootRun.get() && !recording;
+        int pathColor = recording
+                ? lootrunFeature.recordingPathColor.get().asInt()
+                : lootrunFeature.activePathColor.get().asInt();
+
+        return compile(uncompiled, recording, pathColor, rainbow, lootrunFeature.cycleDistance.get());
+    }
+
+    /**
+     * Compiles the lootrun with the given path colors, instead of those configured in {@link LootrunFeature}.
+     */
+    static LootrunPathInstance compile(
+            UncompiledLootrunPath uncompiled, boolean recording, int pathColor, boolean rainbow, int cycleDistance) {
+        Long2ObjectMap<List<ColoredPath>> points =
+                generatePointsByChunk(uncompiled.path(), pathColor, rainbow, cycleDistance);
         Long2ObjectMap<Set<BlockPos>> chests = getChests(uncompiled.chests());
         Long2ObjectMap<List<LootrunNote>> notes = getNotes(uncompiled.notes());
 
@@ -47,20 +68,76 @@ public final class LootrunCompiler {
         return new LootrunPathInstance(
                 lootrunName,
                 uncompiled.path(),
-                generateSimplifiedPoints(uncompiled.path(), 0.5),
+                generateMapPath(uncompiled.path()),
                 points,
                 chests,
                 notes);
     }
 
+    /**
+     * Compiles the chains of a route graph like the segments of a single lootrun, with the active path colors.
+     */
+    static LootrunPathInstance compile(LootrunRouteGraph graph) {
+        LootrunFeature lootrunFeature = Managers.Feature.getFeatureInstance(LootrunFeature.class);
+
+        // Chains are fitted independently of each other, just like the segments of a lootrun
+        List<ColoredPath> sampled = graph.getChains().stream()
+                .map(chain -> sampleSegment(chain, SAMPLE_RATE))
+                .toList();
+
+        return new LootrunPathInstance(
+                "route_graph",
+                new LootrunPath(List.of()),
+                LootrunMapPath.EMPTY,
+                generatePointsByChunk(
+                        sampled,
+                        lootrunFeature.activePathColor.get().asInt(),
+                        lootrunFeature.rainbowLootRun.get(),
+                        lootrunFeature.cycleDistance.get()),
+                getChests(graph.getChests()),
+                getNotes(graph.getNotes()));
+    }
+
+    /**
+     * Compiles a recording by only sampling the points added since the last call, continuing the compilation
+     * stored in the recording information. Falls back to compiling the whole recording when that compilation
+     * can't be continued, e.g. after an undo or a change of the recording color.
+     */
+    static LootrunPathInstance compileIncremental(
+            UncompiledLootrunPath recording, RecordingInformation recordingInformation) {
+        int color = Managers.Feature.getFeatureInstance(LootrunFeature.class)
+                .recordingPathColor
+                .get()
+                .asInt();
+        List<Vec3> path = recording.path().points();
+
+        IncrementalLootrunCompilation compilation = recordingInformation.getCompilation();
+        if (compilation == null || !compilation.canAppend(path, color)) {
+            compilation = new IncrementalLootrunCompilation(color);
+            recordingInformation.setCompilation(compilation);
+        }
+
+        compilation.appendNewPoints(path);
+
+        // The map path is only drawn for loaded lootruns, it is generated when recording stops
+        return new LootrunPathInstance(
+                getLootrunName(recording, true),
+                recording.path(),
+                LootrunMapPath.EMPTY,
+                compilation.getPoints(),
+                getChests(recording.chests()),
+                getNotes(recording.notes()));
+    }
+
     private static String getLootrunName(UncompiledLootrunPath uncompiled, boolean recording) {
         if (recording) return "recorded_lootrun";
         if (uncompiled.file() == null) return "lootrun";
 
-        return uncompiled.file().getName().replace(".json", "");
+        // Binary lootruns keep their extension, so they can be told apart from JSON lootruns of the same name
+        return uncompiled.file().getName().replace(LootrunPathFileParser.JSON_EXTENSION, "");
     }
 
-    private static List<LootrunPath> sample(LootrunPath raw, float sampleRate) {
+    private static List<ColoredPath> sample(LootrunPath raw, float sampleRate) {
         List<LootrunPath> positions = new ArrayList<>();
         LootrunPath currentPositions = new LootrunPath(new ArrayList<>());
         positions.add(currentPositions);
@@ -70,59 +147,71 @@ public final class LootrunCompiler {
                                     .points()
                                     .get(currentPositions.points().size() - 1)
                                     .distanceTo(element)
-                            >= 32) {
+                            >= SEGMENT_BREAK_DISTANCE) {
                 currentPositions = new LootrunPath(new ArrayList<>());
                 positions.add(currentPositions);
             }
             currentPositions.points().add(element);
         }
 
-        List<LootrunPath> result = new ArrayList<>();
-        for (LootrunPath current : positions) {
-            float distance = 0f;
-            CubicSpline.Builder<Float, ToFloatFunction<Float>> builderX = CubicSpline.builder(ToFloatFunction.IDENTITY);
-            CubicSpline.Builder<Float, ToFloatFunction<Float>> builderY = CubicSpline.builder(ToFloatFunction.IDENTITY);
-            CubicSpline.Builder<Float, ToFloatFunction<Float>> builderZ = CubicSpline.builder(ToFloatFunction.IDENTITY);
-            for (int i = 0; i < current.points().size(); i++) {
-                Vec3 position = current.points().get(i);
-                if (i > 0) {
-                    distance += current.points().get(i - 1).distanceTo(position);
-                }
+        // Segments are fitted on the thread compiling the lootrun, several lootruns are compiled in parallel instead
+        return positions.stream()
+                .map(segment -> sampleSegment(segment, sampleRate))
+                .toList();
+    }
 
-                float slopeX = 0f;
-                float slopeY = 0f;
-                float slopeZ = 0f;
-                if (i < current.points().size() - 1) {
-                    Vec3 next = current.points().get(i + 1);
-                    slopeX = (float) ((next.x - position.x) / position.distanceTo(next));
-                    slopeY = (float) ((next.y - position.y) / position.distanceTo(next));
-                    slopeZ = (float) ((next.z - position.z) / position.distanceTo(next));
-                }
-                builderX.addPoint(distance, (float) position.x, slopeX);
-                builderY.addPoint(distance, (float) position.y, slopeY);
-                builderZ.addPoint(distance, (float) position.z, slopeZ);
+    // The sampled points are not colored yet
+    private static ColoredPath sampleSegment(LootrunPath segment, float sampleRate) {
+        float distance = 0f;
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderX = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderY = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderZ = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        for (int i = 0; i < segment.points().size(); i++) {
+            Vec3 position = segment.points().get(i);
+            if (i > 0) {
+                distance += segment.points().get(i - 1).distanceTo(position);
             }
-            CubicSpline<Float, ToFloatFunction<Float>> splineX = builderX.build();
-            CubicSpline<Float, ToFloatFunction<Float>> splineY = builderY.build();
-            CubicSpline<Float, ToFloatFunction<Float>> splineZ = builderZ.build();
 
-            LootrunPath newResult = new LootrunPath(new ArrayList<>());
-            for (float i = 0f; i < distance; i += (1f / sampleRate)) {
-                newResult.points().add(new Vec3(splineX.apply(i), splineY.apply(i), splineZ.apply(i)));
+            float slopeX = 0f;
+            float slopeY = 0f;
+            float slopeZ = 0f;
+            if (i < segment.points().size() - 1) {
+                Vec3 next = segment.points().get(i + 1);
+                slopeX = (float) ((next.x - position.x) / position.distanceTo(next));
+                slopeY = (float) ((next.y - position.y) / position.distanceTo(next));
+                slopeZ = (float) ((next.z - position.z) / position.distanceTo(next));
             }
-            result.add(newResult);
+            builderX.addPoint(distance, (float) position.x, slopeX);
+            builderY.addPoint(distance, (float) position.y, slopeY);
+            builderZ.addPoint(distance, (float) position.z, slopeZ);
+        }
+        CubicSpline<Float, ToFloatFunction<Float>> splineX = builderX.build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineY = builderY.build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineZ = builderZ.build();
+
+        ColoredPath result = new ColoredPath((int) (distance * sampleRate) + 1);
+        for (float i = 0f; i < distance; i += (1f / sampleRate)) {
+            result.add(splineX.apply(i), splineY.apply(i), splineZ.apply(i), 0);
         }
         return result;
     }
 
-    private static Long2ObjectMap<List<ColoredPath>> generatePointsByChunk(LootrunPath raw, boolean recording) {
-        float sampleRate = 10f;
-
-        List<List<Vec3>> sampled =
-                sample(raw, sampleRate).stream().map(LootrunPath::points).toList();
-        List<Vec3> positions = sampled.stream().flatMap(List::stream).toList();
+    private static Long2ObjectMap<List<ColoredPath>> generatePointsByChunk(
+            LootrunPath raw, int pathColor, boolean rainbow, int cycleDistance) {
+        return generatePointsByChunk(sample(raw, SAMPLE_RATE), pathColor, rainbow, cycleDistance);
+    }
 
-        ColoredPath locationsList = new ColoredPath(new ArrayList<>());
+    private static Long2ObjectMap<List<ColoredPath>> generatePointsByChunk(
+            List<ColoredPath> sampled, int pathColor, boolean rainbow, int cycleDistance) {
+        ColoredPath locationsList = new ColoredPath(sampled.stream().mapToInt(ColoredPath::size).sum());
+        // Segments are never connected, even where one ends in the chunk the next one starts in
+        BitSet segmentStarts = new BitSet();
+        for (ColoredPath segment : sampled) {
+            segmentStarts.set(locationsList.size());
+            for (int i = 0; i < segment.size(); i++) {
+                locationsList.add(segment, i);
+            }
+        }
 
         Iterator<Integer> colorIterator = COLORS.iterator();
         Integer nextColor = colorIterator.next();
@@ -132,21 +221,17 @@ public final class LootrunCompiler {
         float differenceGreen = 0;
         float differenceBlue = 0;
 
-        for (int i = 0; i < positions.size(); i++) {
-            Vec3 position = positions.get(i);
+        ColoredPath lastLocationList = null;
+        Long2ObjectMap<List<ColoredPath>> sampleByChunk = new Long2ObjectOpenHashMap<>();
+        long lastChunk = 0L;
+        for (int i = 0; i < locationsList.size(); i++) {
+            int usedColor = pathColor;
 
-            if (Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                            .rainbowLootRun
-                            .get()
-                    && !recording) {
-                int cycleDistance = Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                        .cycleDistance
-                        .get();
+            if (rainbow) {
                 int cycle = 10 * cycleDistance;
                 int parts = i % cycle;
                 float done = (float) parts / (float) cycle;
 
-                int usedColor;
                 if (parts == 0) {
                     currentColor = nextColor;
                     if (!colorIterator.hasNext()) {
@@ -165,113 +250,200 @@ public final class LootrunCompiler {
                     usedColor += (int) (differenceBlue * done);
                 }
 
-                locationsList.points().add(new ColoredPosition(position, usedColor | 0xff000000));
-            } else {
-                locationsList
-                        .points()
-                        .add(new ColoredPosition(
-                                position,
-                                recording
-                                        ? Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                                                .recordingPathColor
-                                                .get()
-                                                .asInt()
-                                        : Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                                                .activePathColor
-                                                .get()
-                                                .asInt()));
+                usedColor |= 0xff000000;
             }
-        }
 
-        ColoredPath lastLocationList = null;
-        Long2ObjectMap<List<ColoredPath>> sampleByChunk = new Long2ObjectOpenHashMap<>();
-        ChunkPos lastChunkPos = null;
-        for (int i = 0; i < locationsList.points().size(); i++) {
-            Vec3 position = locationsList.points().get(i).position();
-            ChunkPos currentChunkPos =
-                    new ChunkPos(MathUtils.floor(position.x()) >> 4, MathUtils.floor(position.z()) >> 4);
-            if (!currentChunkPos.equals(lastChunkPos)) {
-                if (lastChunkPos != null
-                        && position.distanceTo(locationsList.points().get(i - 1).position()) < 32) {
-                    lastLocationList.points().add(locationsList.points().get(i));
+            float x = locationsList.x(i);
+            float y = locationsList.y(i);
+            float z = locationsList.z(i);
+            long currentChunk = ChunkPos.asLong(MathUtils.floor(x) >> 4, MathUtils.floor(z) >> 4);
+            if (lastLocationList == null || currentChunk != lastChunk || segmentStarts.get(i)) {
+                if (lastLocationList != null
+                        && !segmentStarts.get(i)
+                        && distance(x, y, z, locationsList.x(i - 1), locationsList.y(i - 1), locationsList.z(i - 1))
+                                < SEGMENT_BREAK_DISTANCE) {
+                    lastLocationList.add(x, y, z, usedColor);
                 }
 
-                lastChunkPos = currentChunkPos;
-                sampleByChunk.putIfAbsent(ChunkPos.asLong(currentChunkPos.x, currentChunkPos.z), new ArrayList<>());
-                lastLocationList = new ColoredPath(new ArrayList<>());
+                if (lastLocationList != null) {
+                    lastLocationList.trimToSize();
+                }
+
+                lastChunk = currentChunk;
+                lastLocationList = new ColoredPath();
                 sampleByChunk
-                        .get(ChunkPos.asLong(currentChunkPos.x, currentChunkPos.z))
+                        .computeIfAbsent(currentChunk, (chunk) -> new ArrayList<>())
                         .add(lastLocationList);
             }
-            lastLocationList.points().add(locationsList.points().get(i));
+            lastLocationList.add(x, y, z, usedColor);
+        }
+
+        if (lastLocationList != null) {
+            lastLocationList.trimToSize();
         }
+
         return sampleByChunk;
     }
 
-    private static List<Vector2d> generateSimplifiedPoints(LootrunPath raw, double tolerance) {
-        List<Vector2d> points = new ArrayList<>();
+    private static LootrunMapPath generateMapPath(LootrunPath raw) {
+        List<List<Vector2d>> simplifiedPaths = new ArrayList<>(LootrunMapPath.TOLERANCES.length);
 
-        // y is discarded in the process, as map doesn't show height info
-        for (Vec3 point : raw.points()) {
-            points.add(new Vector2d(point.x, point.z));
+        // Each zoom bucket is simplified from the previous one, which has a lot less points than the raw path
+        List<Vector2d> simplified = generateSimplifiedPoints(raw, LootrunMapPath.TOLERANCES[0]);
+        simplifiedPaths.add(simplified);
+        for (int i = 1; i < LootrunMapPath.TOLERANCES.length; i++) {
+            simplified = simplifyMapPoints(simplified, LootrunMapPath.TOLERANCES[i]);
+            simplifiedPaths.add(simplified);
         }
 
-        return simplify(points, tolerance);
+        return new LootrunMapPath(simplifiedPaths);
     }
 
-    // Douglas-Peucker implementation for shape simplification
-    private static List<Vector2d> simplify(List<Vector2d> points, double epsilon) {
-        // can't simplify the shape when having too few points, so return it as it is
-        if (points.size() < 3) {
-            return points;
-        }
-
-        int end = points.size() - 1;
-        int index = -1;
-        double dist = 0.0;
+    private static List<Vector2d> generateSimplifiedPoints(LootrunPath raw, double tolerance) {
+        List<Vec3> points = raw.points();
 
-        // find the farthest point for splitting
-        for (int i = 1; i < end; i++) {
-            double d = pointLineDistance(points.get(i), points.get(0), points.get(end));
-            if (d > dist) {
-                dist = d;
-                index = i;
-            }
+        // y is discarded in the process, as map doesn't show height info
+        BitSet kept = simplify(points.size(), tolerance, (point, lineStart, lineEnd) -> pointLineDistance(
+                points.get(point).x,
+                0,
+                points.get(point).z,
+                points.get(lineStart).x,
+                0,
+                points.get(lineStart).z,
+                points.get(lineEnd).x,
+                0,
+                points.get(lineEnd).z));
+
+        List<Vector2d> simplified = new ArrayList<>(kept.cardinality());
+        for (int i = kept.nextSetBit(0); i >= 0; i = kept.nextSetBit(i + 1)) {
+            simplified.add(new Vector2d(points.get(i).x, points.get(i).z));
         }
+        return simplified;
+    }
 
-        List<Vector2d> simplified = new ArrayList<>();
-
-        // split list with the farthest point and simplify both sublist recursively if distance is greater than epsilon
-        if (dist > epsilon) {
-            List<Vector2d> left = simplify(points.subList(0, index + 1), epsilon);
-            List<Vector2d> right = simplify(points.subList(index, end + 1), epsilon);
-            simplified.addAll(left.subList(0, left.size() - 1));
-            simplified.addAll(right);
-        } else {
-            // return both end of the simplified line otherwise
-            simplified.add(points.get(0));
-            simplified.add(points.get(end));
+    private static List<Vector2d> simplifyMapPoints(List<Vector2d> points, double tolerance) {
+        BitSet kept = simplify(points.size(), tolerance, (point, lineStart, lineEnd) -> pointLineDistance(
+                points.get(point).x,
+                0,
+                points.get(point).y,
+                points.get(lineStart).x,
+                0,
+                points.get(lineStart).y,
+                points.get(lineEnd).x,
+                0,
+                points.get(lineEnd).y));
+
+        List<Vector2d> simplified = new ArrayList<>(kept.cardinality());
+        for (int i = kept.nextSetBit(0); i >= 0; i = kept.nextSetBit(i + 1)) {
+            simplified.add(points.get(i));
         }
+        return simplified;
+    }
 
+    /**
+     * Simplifies part of a compiled path in 3D, for drawing it with less points at a distance.
+     *
+     * @param indices the indices of the points of the path to simplify, in order
+     * @return the indices of the points to keep
+     */
+    static IntList simplifyPath(ColoredPath path, IntList indices, double tolerance) {
+        BitSet kept = simplify(indices.size(), tolerance, (point, lineStart, lineEnd) -> {
+            int pointIndex = indices.getInt(point);
+            int startIndex = indices.getInt(lineStart);
+            int endIndex = indices.getInt(lineEnd);
+            return pointLineDistance(
+                    path.x(pointIndex),
+                    path.y(pointIndex),
+                    path.z(pointIndex),
+                    path.x(startIndex),
+                    path.y(startIndex),
+                    path.z(startIndex),
+                    path.x(endIndex),
+                    path.y(endIndex),
+                    path.z(endIndex));
+        });
+
+        IntList simplified = new IntArrayList(kept.cardinality());
+        for (int i = kept.nextSetBit(0); i >= 0; i = kept.nextSetBit(i + 1)) {
+            simplified.add(indices.getInt(i));
+        }
         return simplified;
     }
 
-    private static double pointLineDistance(Vector2d point, Vector2d lineStart, Vector2d lineEnd) {
-        Vector2d delta = new Vector2d(point).sub(lineStart);
-        Vector2d lineDelta = new Vector2d(lineEnd).sub(lineStart);
+    // Iterative Douglas-Peucker implementation for shape simplification, returns which points are kept
+    private static BitSet simplify(int size, double epsilon, PointLineDistance pointLineDistance) {
+        BitSet kept = new BitSet(size);
 
-        double param = delta.dot(lineDelta) / lineDelta.lengthSquared();
+        // can't simplify the shape when having too few points, so keep it as it is
+        if (size < 3) {
+            kept.set(0, size);
+            return kept;
+        }
+
+        kept.set(0);
+        kept.set(size - 1);
+
+        // pairs of start and end indices of the parts left to simplify
+        IntArrayList stack = new IntArrayList();
+        stack.add(0);
+        stack.add(size - 1);
+
+        while (!stack.isEmpty()) {
+            int end = stack.popInt();
+            int start = stack.popInt();
+            int index = -1;
+            double dist = 0.0;
+
+            // find the farthest point for splitting
+            for (int i = start + 1; i < end; i++) {
+                double d = pointLineDistance.distance(i, start, end);
+                if (d > dist) {
+                    dist = d;
+                    index = i;
+                }
+            }
 
-        Vector2d closestPoint;
-        if (param < 0) {
-            closestPoint = new Vector2d(lineStart);
-        } else if (param > 1) {
-            closestPoint = new Vector2d(lineEnd);
-        } else {
-            closestPoint = new Vector2d(lineStart).add(lineDelta.mul(param));
+            // split the part with the farthest point and simplify both halves if distance is greater than epsilon,
+            // otherwise only both ends of the part are kept
+            if (dist > epsilon) {
+                kept.set(index);
+                stack.add(start);
+                stack.add(index);
+                stack.add(index);
+                stack.add(end);
+            }
         }
 
-        return closestPoint.distance(point);
+        return kept;
+    }
+
+    private static double pointLineDistance(
+            double x,
+            double y,
+            double z,
+            double startX,
+            double startY,
+            double startZ,
+            double endX,
+            double endY,
+            double endZ) {
+        double lineX = endX - startX;
+        double lineY = endY - startY;
+        double lineZ = endZ - startZ;
+        double lengthSquared = lineX * lineX + lineY * lineY + lineZ * lineZ;
+
+        double param = lengthSquared == 0
+                ? 0
+                : Mth.clamp(((x - startX) * lineX + (y - startY) * lineY + (z - startZ) * lineZ) / lengthSquared, 0, 1);
+
+        return distance(x, y, z, startX + lineX * param, startY + lineY * param, startZ + lineZ * param);
+    }
+
+    private static double distance(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        double dz = z1 - z2;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
 
     private static Long2ObjectMap<Set<BlockPos>> getChests(Set<BlockPos> chests) {
@@ -292,4 +464,10 @@ public final class LootrunCompiler {
         }
         return result;
     }
+
+    @FunctionalInterface
+    private interface PointLineDistance {
+        // Takes the indices of the points
+        double distance(int point, int lineStart, int lineEnd);
+    }
 }
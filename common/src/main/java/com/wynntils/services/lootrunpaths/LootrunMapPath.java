@@ -0,0 +1,119 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.utils.type.BoundingBox;
+import com.wynntils.utils.type.BoundingShape;
+import java.util.ArrayList;
+import java.util.List;
+import org.joml.Vector2d;
+
+/**
+ * The path of a lootrun as drawn on the map, ignoring height.
+ *
+ * <p>The path is simplified once per zoom bucket, with a tolerance that doubles from bucket to bucket,
+ * so a zoomed out map draws a lot less points. Each simplified path is split into segments of
+ * {@link #SEGMENT_LENGTH} points with their bounding box, so only the segments in view are drawn.
+ */
+public final class LootrunMapPath {
+    static final LootrunMapPath EMPTY = new LootrunMapPath(List.of());
+
+    // The tolerance of each zoom bucket, in blocks
+    static final double[] TOLERANCES = {0.5, 1, 2, 4, 8, 16};
+
+    // A bucket is used while its tolerance is at most this many pixels on the map
+    private static final double MAX_PIXEL_TOLERANCE = 1;
+    private static final int SEGMENT_LENGTH = 64;
+    // Makes sure segments of straight lines still have an area
+    private static final float SEGMENT_PADDING = 1;
+
+    private final List<ZoomBucket> buckets;
+
+    /**
+     * @param simplifiedPaths the simplified path of every zoom bucket, in the order of {@link #TOLERANCES}
+     */
+    LootrunMapPath(List<List<Vector2d>> simplifiedPaths) {
+        this.buckets = simplifiedPaths.stream().map(ZoomBucket::new).toList();
+    }
+
+    /**
+     * Returns the parts of the path that are in the viewport, simplified for the given zoom.
+     * Consecutive parts of the path in view are returned as a single part.
+     *
+     * @param pixelsPerBlock the zoom of the map
+     * @param viewport the area of the map in view, in world coordinates
+     */
+    public List<List<Vector2d>> getVisibleParts(float pixelsPerBlock, BoundingBox viewport) {
+        if (buckets.isEmpty()) return List.of();
+
+        return buckets.get(getBucketIndex(pixelsPerBlock)).getVisibleParts(viewport);
+    }
+
+    public int size() {
+        return buckets.isEmpty() ? 0 : buckets.get(0).points.size();
+    }
+
+    private int getBucketIndex(float pixelsPerBlock) {
+        int index = 0;
+        while (index + 1 < buckets.size() && TOLERANCES[index + 1] * pixelsPerBlock <= MAX_PIXEL_TOLERANCE) {
+            index++;
+        }
+        return index;
+    }
+
+    private static final class ZoomBucket {
+        private final List<Vector2d> points;
+        private final List<BoundingBox> segmentBounds = new ArrayList<>();
+
+        private ZoomBucket(List<Vector2d> points) {
+            this.points = points;
+
+            // Segments share their last point with the next segment, so the line between them is drawn
+            for (int start = 0; start < points.size() - 1; start += SEGMENT_LENGTH) {
+                int end = Math.min(start + SEGMENT_LENGTH, points.size() - 1);
+
+                double minX = Double.MAX_VALUE;
+                double minZ = Double.MAX_VALUE;
+                double maxX = -Double.MAX_VALUE;
+                double maxZ = -Double.MAX_VALUE;
+                for (int i = start; i <= end; i++) {
+                    Vector2d point = points.get(i);
+                    minX = Math.min(minX, point.x());
+                    minZ = Math.min(minZ, point.y());
+                    maxX = Math.max(maxX, point.x());
+                    maxZ = Math.max(maxZ, point.y());
+                }
+
+                segmentBounds.add(new BoundingBox(
+                        (float) minX - SEGMENT_PADDING,
+                        (float) minZ - SEGMENT_PADDING,
+                        (float) maxX + SEGMENT_PADDING,
+                        (float) maxZ + SEGMENT_PADDING));
+            }
+        }
+
+        private List<List<Vector2d>> getVisibleParts(BoundingBox viewport) {
+            List<List<Vector2d>> parts = new ArrayList<>();
+
+            int partStart = -1;
+            for (int segment = 0; segment < segmentBounds.size(); segment++) {
+                boolean visible = BoundingShape.intersects(segmentBounds.get(segment), viewport);
+
+                if (visible && partStart == -1) {
+                    partStart = segment * SEGMENT_LENGTH;
+                } else if (!visible && partStart != -1) {
+                    parts.add(points.subList(partStart, segment * SEGMENT_LENGTH + 1));
+                    partStart = -1;
+                }
+            }
+
+            if (partStart != -1) {
+                parts.add(points.subList(partStart, points.size()));
+            }
+
+            return parts;
+        }
+    }
+}
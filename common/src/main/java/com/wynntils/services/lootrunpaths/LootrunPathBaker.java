@@ -0,0 +1,238 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.wynntils.services.lootrunpaths.type.BlockValidness;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import com.wynntils.utils.mc.PosUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.List;
+import java.util.function.Function;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Position;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Turns the compiled path of a chunk into vertices, relative to the chunk origin.
+ * Points in blocks without collision are skipped, and barriers break the path.
+ *
+ * <p>Baking does not depend on the render state, only on the consumer it is given.
+ */
+final class LootrunPathBaker {
+    private LootrunPathBaker() {}
+
+    static void bakeLines(
+            VertexConsumer consumer,
+            List<ColoredPath> locations,
+            Function<Position, BlockValidness> blockValidnessCheck,
+            LootrunRenderer.LevelOfDetail levelOfDetail,
+            Vec3 origin) {
+        for (ColoredPath locationsInRoute : locations) {
+            // Points are referred to by their index in the path
+            IntList strip = new IntArrayList();
+            boolean stripEnded = false;
+
+            IntList toRender = new IntArrayList();
+
+            boolean pauseDraw = false;
+            BlockPos lastBlockPos = null;
+
+            for (int point = 0; point < locationsInRoute.size(); point++) {
+                Vec3 position = getPosition(locationsInRoute, point);
+                BlockPos blockPos = PosUtils.newBlockPos(position);
+
+                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
+                    if (!toRender.isEmpty()) {
+                        toRender.add(point);
+                    }
+                } else {
+                    BlockValidness blockValidness = blockValidnessCheck.apply(position);
+
+                    if (blockValidness == BlockValidness.VALID) {
+                        pauseDraw = false;
+                        strip.addAll(toRender);
+                        toRender.clear();
+                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
+                        pauseDraw = true;
+                        toRender.clear();
+                    } else {
+                        pauseDraw = false;
+                        toRender.add(point);
+                        continue;
+                    }
+                }
+
+                lastBlockPos = blockPos;
+
+                if (!pauseDraw) {
+                    strip.add(point);
+                    stripEnded = false;
+                } else if (!stripEnded) {
+                    bakeLineStrip(consumer, locationsInRoute, strip, levelOfDetail, origin);
+                    strip.clear();
+                    stripEnded = true;
+                }
+            }
+            if (!stripEnded) {
+                strip.addAll(toRender);
+                bakeLineStrip(consumer, locationsInRoute, strip, levelOfDetail, origin);
+            }
+        }
+    }
+
+    static void bakeArrows(
+            VertexConsumer consumer,
+            List<ColoredPath> locations,
+            Function<Position, BlockValidness> blockValidnessCheck,
+            LootrunRenderer.LevelOfDetail levelOfDetail,
+            Vec3 origin) {
+        int step = (int) LootrunCompiler.SAMPLE_RATE * levelOfDetail.arrowSpacing;
+
+        for (ColoredPath locationsInRoute : locations) {
+            // Arrows are referred to by the index of their start point, they point to the next point
+            IntList toRender = new IntArrayList();
+            boolean drawEnded = false;
+            BlockPos lastBlockPos = null;
+
+            boolean pauseDraw = false;
+
+            for (int i = 0; i < locationsInRoute.size() - 1; i += step) {
+                Vec3 position = getPosition(locationsInRoute, i);
+                BlockPos blockPos = PosUtils.newBlockPos(position);
+
+                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
+                    if (!toRender.isEmpty()) {
+                        toRender.add(i);
+                    }
+                } else {
+                    BlockValidness blockValidness = blockValidnessCheck.apply(position);
+
+                    if (blockValidness == BlockValidness.VALID) {
+                        pauseDraw = false;
+                        drawEnded = false;
+                        bakeTexturedQueuedPoints(toRender, locationsInRoute, consumer, origin);
+                        toRender.clear();
+                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
+                        pauseDraw = true;
+                        toRender.clear();
+                    } else {
+                        pauseDraw = false;
+                        toRender.add(i);
+                        continue;
+                    }
+                }
+
+                lastBlockPos = blockPos;
+
+                if (!pauseDraw) {
+                    bakeTexturedPoint(locationsInRoute, i, consumer, origin);
+                } else {
+                    drawEnded = true;
+                }
+            }
+            if (!drawEnded) {
+                bakeTexturedQueuedPoints(toRender, locationsInRoute, consumer, origin);
+            }
+        }
+    }
+
+    private static void bakeLineStrip(
+            VertexConsumer consumer,
+            ColoredPath path,
+            IntList strip,
+            LootrunRenderer.LevelOfDetail levelOfDetail,
+            Vec3 origin) {
+        if (levelOfDetail.lineTolerance > 0) {
+            strip = LootrunCompiler.simplifyPath(path, strip, levelOfDetail.lineTolerance);
+        }
+
+        for (int i = 0; i < strip.size() - 1; i++) {
+            bakePoint(consumer, path, strip.getInt(i), origin);
+            bakePoint(consumer, path, strip.getInt(i + 1), origin);
+        }
+    }
+
+    private static void bakePoint(VertexConsumer consumer, ColoredPath path, int point, Vec3 origin) {
+        consumer.vertex(path.x(point) - origin.x, path.y(point) - origin.y, path.z(point) - origin.z)
+                .color(path.color(point))
+                .normal(0, 0, 1)
+                .endVertex();
+    }
+
+    private static void bakeTexturedQueuedPoints(
+            IntList startPoints, ColoredPath path, VertexConsumer vertexConsumer, Vec3 origin) {
+        for (int i = 0; i < startPoints.size(); i++) {
+            bakeTexturedPoint(path, startPoints.getInt(i), vertexConsumer, origin);
+        }
+    }
+
+    private static void bakeTexturedPoint(ColoredPath path, int start, VertexConsumer vertexConsumer, Vec3 origin) {
+        int end = Math.min(path.size() - 1, start + 1);
+
+        Vector3f originVec = origin.toVector3f();
+        Vector3f startVec = new Vector3f(path.x(start), path.y(start), path.z(start));
+        Vector3f endVec = new Vector3f(path.x(end), path.y(end), path.z(end));
+        int color = path.color(start);
+
+        // vertex position delta to starting point
+        Vector3f pos1 = new Vector3f(-0.5f, 0.24f, -0.5f);
+        Vector3f pos2 = new Vector3f(0.5f, 0.24f, -0.5f);
+        Vector3f pos3 = new Vector3f(0.5f, 0.24f, 0.5f);
+        Vector3f pos4 = new Vector3f(-0.5f, 0.24f, 0.5f);
+
+        Vector3f direction =
+                new Vector3f(endVec.x, endVec.y, endVec.z).sub(startVec).normalize();
+
+        // rotation angle to point surface normal to end position
+        // rotate the angle so the arrow point to the end position instead of surface normal
+        float xAngle = (float) ((float) Math.acos(direction.y / direction.length()) - Math.PI / 2);
+        float yAngle = (float) Math.atan2(direction.x, direction.z);
+
+        Quaternionf yRot = new Quaternionf().rotateY(yAngle);
+        Vector3f xRotAxis = new Vector3f(1, 0, 0).rotate(yRot);
+        Quaternionf xRot = new Quaternionf().rotateAxis(xAngle, xRotAxis);
+
+        // apply vertex rotation
+        pos1.rotate(yRot).rotate(xRot);
+        pos2.rotate(yRot).rotate(xRot);
+        pos3.rotate(yRot).rotate(xRot);
+        pos4.rotate(yRot).rotate(xRot);
+
+        // transform position back to world space and then to position chunk origin delta
+        pos1 = pos1.add(startVec).sub(originVec);
+        pos2 = pos2.add(startVec).sub(originVec);
+        pos3 = pos3.add(startVec).sub(originVec);
+        pos4 = pos4.add(startVec).sub(originVec);
+
+        vertexConsumer
+                .vertex(pos1.x, pos1.y, pos1.z)
+                .color(color)
+                .uv(0, 1)
+                .endVertex();
+        vertexConsumer
+                .vertex(pos2.x, pos2.y, pos2.z)
+                .color(color)
+                .uv(0, 0)
+                .endVertex();
+        vertexConsumer
+                .vertex(pos3.x, pos3.y, pos3.z)
+                .color(color)
+                .uv(1, 0)
+                .endVertex();
+        vertexConsumer
+                .vertex(pos4.x, pos4.y, pos4.z)
+                .color(color)
+                .uv(1, 1)
+                .endVertex();
+    }
+
+    private static Vec3 getPosition(ColoredPath path, int point) {
+        return new Vec3(path.x(point), path.y(point), path.z(point));
+    }
+}
@@ -4,17 +4,29 @@
  */
 package com.wynntils.services.lootrunpaths;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.wynntils.core.WynntilsMod;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.wynntils.services.lootrunpaths.type.LootrunChunkRun;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunPath;
 import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import com.wynntils.utils.MathUtils;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -28,9 +40,76 @@ import java.util.Set;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Position;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.Vec3;
 
 public final class LootrunPathFileParser {
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".wlr";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    // Not shared with WynntilsMod, so files can be parsed without the mod being loaded, e.g. in benchmarks
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Binary format: header, packed float triples for points, chunk index, chests, notes, save time
+    private static final int BINARY_MAGIC = 0x574c5250; // "WLRP"
+    private static final int BINARY_VERSION = 1;
+    private static final int BINARY_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int CHUNK_RUN_SIZE = Long.BYTES + Integer.BYTES * 2;
+
+    public static boolean isLootrunFile(File file) {
+        return file.getName().endsWith(JSON_EXTENSION) || file.getName().endsWith(BINARY_EXTENSION);
+    }
+
+    public static UncompiledLootrunPath readFile(File file) throws IOException {
+        if (file.getName().endsWith(BINARY_EXTENSION)) {
+            return readBinary(file);
+        }
+
+        try (FileReader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            return readJson(file, json);
+        }
+    }
+
+    public static LootrunSaveResult writeFile(UncompiledLootrunPath activeLootrun, File file) {
+        if (file.getName().endsWith(BINARY_EXTENSION)) {
+            return writeBinary(activeLootrun, file);
+        }
+
+        return writeJson(activeLootrun, file);
+    }
+
+    /**
+     * Writes the lootrun to a temporary file next to the given file, and moves it in place once it is complete,
+     * so the lootrun file is never seen half-written.
+     */
+    public static LootrunSaveResult writeFileAtomically(UncompiledLootrunPath activeLootrun, File file) {
+        if (file.exists()) {
+            return LootrunSaveResult.ERROR_ALREADY_EXISTS;
+        }
+
+        // The temporary file is not a lootrun file, so it is never listed in the library
+        File tempFile = new File(file.getParentFile(), file.getName() + TEMP_EXTENSION);
+        try {
+            Files.deleteIfExists(tempFile.toPath());
+
+            LootrunSaveResult result = file.getName().endsWith(BINARY_EXTENSION)
+                    ? writeBinary(activeLootrun, tempFile)
+                    : writeJson(activeLootrun, tempFile);
+            if (result != LootrunSaveResult.SAVED) {
+                Files.deleteIfExists(tempFile.toPath());
+                return result;
+            }
+
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return LootrunSaveResult.SAVED;
+        } catch (IOException e) {
+            tempFile.delete();
+            return LootrunSaveResult.ERROR_SAVING;
+        }
+    }
+
     public static UncompiledLootrunPath readJson(File file, JsonObject json) {
         JsonArray points = json.getAsJsonArray("points");
         LootrunPath pointsList = new LootrunPath(new ArrayList<>());
@@ -131,11 +210,224 @@ public final class LootrunPathFileParser {
 
             json.addProperty("date", time.format(formatter));
             FileWriter writer = new FileWriter(file, StandardCharsets.UTF_8);
-            WynntilsMod.GSON.toJson(json, writer);
+            GSON.toJson(json, writer);
             writer.close();
             return LootrunSaveResult.SAVED;
         } catch (IOException ex) {
             return LootrunSaveResult.ERROR_SAVING;
         }
     }
+
+    public static UncompiledLootrunPath readBinary(File file) throws IOException {
+        ByteBuffer buffer = readBinaryFile(file);
+
+        try {
+            int pointCount = readBinaryCount(buffer, 3 * Float.BYTES, file);
+            float[] coordinates = new float[pointCount * 3];
+            buffer.asFloatBuffer().get(coordinates);
+            buffer.position(buffer.position() + coordinates.length * Float.BYTES);
+
+            List<Vec3> points = new ArrayList<>(pointCount);
+            for (int i = 0; i < coordinates.length; i += 3) {
+                points.add(new Vec3(coordinates[i], coordinates[i + 1], coordinates[i + 2]));
+            }
+
+            // The chunk index is read on its own by readBinaryChunkIndex, when the library is indexed
+            int chunkRunCount = readBinaryCount(buffer, CHUNK_RUN_SIZE, file);
+            buffer.position(buffer.position() + chunkRunCount * CHUNK_RUN_SIZE);
+
+            int chestCount = readBinaryCount(buffer, 3 * Integer.BYTES, file);
+            Set<BlockPos> chests = new HashSet<>();
+            for (int i = 0; i < chestCount; i++) {
+                chests.add(new BlockPos(buffer.getInt(), buffer.getInt(), buffer.getInt()));
+            }
+
+            // Each note has at least its position and the length of its text
+            int noteCount = readBinaryCount(buffer, 3 * Float.BYTES + Integer.BYTES, file);
+            List<LootrunNote> notes = new ArrayList<>(noteCount);
+            for (int i = 0; i < noteCount; i++) {
+                Position position = new Vec3(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+                byte[] componentJson = new byte[readBinaryCount(buffer, 1, file)];
+                buffer.get(componentJson);
+                Component component =
+                        Component.Serializer.fromJson(new String(componentJson, StandardCharsets.UTF_8));
+                notes.add(new LootrunNote(position, component));
+            }
+
+            return new UncompiledLootrunPath(new LootrunPath(points), chests, notes, file);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated lootrun file " + file.getName(), e);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid note in lootrun file " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Reads the chunk index of a binary lootrun file, without reading the points themselves.
+     * Each entry is a run of consecutive points within the same chunk.
+     */
+    public static List<LootrunChunkRun> readBinaryChunkIndex(File file) throws IOException {
+        ByteBuffer buffer = readBinaryFile(file);
+
+        try {
+            int pointCount = readBinaryCount(buffer, 3 * Float.BYTES, file);
+            buffer.position(buffer.position() + pointCount * 3 * Float.BYTES);
+
+            int chunkRunCount = readBinaryCount(buffer, CHUNK_RUN_SIZE, file);
+            List<LootrunChunkRun> chunkRuns = new ArrayList<>(chunkRunCount);
+            for (int i = 0; i < chunkRunCount; i++) {
+                chunkRuns.add(new LootrunChunkRun(buffer.getLong(), buffer.getInt(), buffer.getInt()));
+            }
+
+            return chunkRuns;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated lootrun file " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the chunks the points of a lootrun file pass through, in ascending order. Binary files are read
+     * through their chunk index, for other files they are bucketed from the already read points.
+     */
+    public static List<Long> getChunks(File file, UncompiledLootrunPath lootrun) throws IOException {
+        List<LootrunChunkRun> chunkRuns = file.getName().endsWith(BINARY_EXTENSION)
+                ? readBinaryChunkIndex(file)
+                : getChunkRuns(lootrun.path().points());
+
+        return chunkRuns.stream().map(LootrunChunkRun::chunk).distinct().sorted().toList();
+    }
+
+    public static LootrunSaveResult writeBinary(UncompiledLootrunPath activeLootrun, File file) {
+        try {
+            boolean result = file.createNewFile();
+
+            if (!result) {
+                return LootrunSaveResult.ERROR_ALREADY_EXISTS;
+            }
+
+            List<Vec3> points = activeLootrun.path().points();
+            List<LootrunChunkRun> chunkRuns = getChunkRuns(points);
+            List<byte[]> noteComponents = activeLootrun.notes().stream()
+                    .map(note -> Component.Serializer.toJson(note.component()).getBytes(StandardCharsets.UTF_8))
+                    .toList();
+
+            int size = BINARY_HEADER_SIZE
+                    + Integer.BYTES
+                    + points.size() * 3 * Float.BYTES
+                    + Integer.BYTES
+                    + chunkRuns.size() * CHUNK_RUN_SIZE
+                    + Integer.BYTES
+                    + activeLootrun.chests().size() * 3 * Integer.BYTES
+                    + Integer.BYTES
+                    + noteComponents.stream()
+                            .mapToInt(component -> 3 * Float.BYTES + Integer.BYTES + component.length)
+                            .sum()
+                    + Long.BYTES;
+
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(BINARY_MAGIC);
+            buffer.putInt(BINARY_VERSION);
+
+            buffer.putInt(points.size());
+            for (Vec3 point : points) {
+                buffer.putFloat((float) point.x);
+                buffer.putFloat((float) point.y);
+                buffer.putFloat((float) point.z);
+            }
+
+            buffer.putInt(chunkRuns.size());
+            for (LootrunChunkRun chunkRun : chunkRuns) {
+                buffer.putLong(chunkRun.chunk());
+                buffer.putInt(chunkRun.firstPoint());
+                buffer.putInt(chunkRun.pointCount());
+            }
+
+            buffer.putInt(activeLootrun.chests().size());
+            for (BlockPos chest : activeLootrun.chests()) {
+                buffer.putInt(chest.getX());
+                buffer.putInt(chest.getY());
+                buffer.putInt(chest.getZ());
+            }
+
+            buffer.putInt(activeLootrun.notes().size());
+            for (int i = 0; i < activeLootrun.notes().size(); i++) {
+                Position position = activeLootrun.notes().get(i).position();
+                buffer.putFloat((float) position.x());
+                buffer.putFloat((float) position.y());
+                buffer.putFloat((float) position.z());
+                buffer.putInt(noteComponents.get(i).length);
+                buffer.put(noteComponents.get(i));
+            }
+
+            buffer.putLong(System.currentTimeMillis());
+            buffer.flip();
+
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            return LootrunSaveResult.SAVED;
+        } catch (IOException ex) {
+            return LootrunSaveResult.ERROR_SAVING;
+        }
+    }
+
+    /**
+     * Reads the whole file onto the heap and checks its header. Lootrun files are small enough for this, and unlike
+     * a mapped buffer, the file is closed once this returns, so it can be deleted or replaced right away on Windows.
+     */
+    private static ByteBuffer readBinaryFile(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        if (buffer.remaining() < BINARY_HEADER_SIZE || buffer.getInt() != BINARY_MAGIC) {
+            throw new IOException("Not a binary lootrun file: " + file.getName());
+        }
+
+        // There is only one version so far, anything else was written by a newer or broken writer
+        int version = buffer.getInt();
+        if (version != BINARY_VERSION) {
+            throw new IOException("Unknown lootrun file version " + version + ": " + file.getName());
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Reads the number of records that follow, and checks that the rest of the file can hold that many, so a
+     * corrupt count can't make the reader allocate more than the file's size.
+     */
+    private static int readBinaryCount(ByteBuffer buffer, int recordSize, File file) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * recordSize > buffer.remaining()) {
+            throw new IOException("Corrupt lootrun file " + file.getName() + ", invalid count " + count);
+        }
+
+        return count;
+    }
+
+    private static List<LootrunChunkRun> getChunkRuns(List<Vec3> points) {
+        List<LootrunChunkRun> chunkRuns = new ArrayList<>();
+
+        int runStart = 0;
+        long runChunk = 0;
+        for (int i = 0; i < points.size(); i++) {
+            Vec3 point = points.get(i);
+            long chunk = ChunkPos.asLong(MathUtils.floor(point.x) >> 4, MathUtils.floor(point.z) >> 4);
+
+            if (i == 0) {
+                runChunk = chunk;
+            } else if (chunk != runChunk) {
+                chunkRuns.add(new LootrunChunkRun(runChunk, runStart, i - runStart));
+                runStart = i;
+                runChunk = chunk;
+            }
+        }
+
+        if (!points.isEmpty()) {
+            chunkRuns.add(new LootrunChunkRun(runChunk, runStart, points.size() - runStart));
+        }
+
+        return chunkRuns;
+    }
 }
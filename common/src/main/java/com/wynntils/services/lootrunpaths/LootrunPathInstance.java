@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.services.lootrunpaths;
@@ -11,12 +11,11 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import java.util.List;
 import java.util.Set;
 import net.minecraft.core.BlockPos;
-import org.joml.Vector2d;
 
 public record LootrunPathInstance(
         String name,
         LootrunPath path,
-        List<Vector2d> simplifiedPath,
+        LootrunMapPath mapPath,
         Long2ObjectMap<List<ColoredPath>> points,
         Long2ObjectMap<Set<BlockPos>> chests,
         Long2ObjectMap<List<LootrunNote>> notes) {}
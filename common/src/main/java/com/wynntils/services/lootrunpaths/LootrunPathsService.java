@@ -4,21 +4,25 @@
  */
 package com.wynntils.services.lootrunpaths;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.components.Service;
 import com.wynntils.core.components.Services;
+import com.wynntils.core.persisted.Persisted;
+import com.wynntils.core.persisted.storage.Storage;
 import com.wynntils.features.LootrunFeature;
+import com.wynntils.mc.event.BlockUpdateEvent;
+import com.wynntils.mc.event.ChunkEvent;
 import com.wynntils.mc.event.PlayerInteractEvent;
 import com.wynntils.mc.event.RenderLevelEvent;
 import com.wynntils.mc.event.ScreenOpenedEvent;
 import com.wynntils.mc.event.TickEvent;
 import com.wynntils.models.containers.containers.reward.LootChestContainer;
 import com.wynntils.services.lootrunpaths.event.LootrunPathCacheRefreshEvent;
+import com.wynntils.services.lootrunpaths.type.LootrunLibraryEntry;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunPath;
 import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
@@ -28,11 +32,19 @@ import com.wynntils.utils.FileUtils;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.mc.PosUtils;
 import java.io.File;
-import java.io.FileReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.client.resources.language.I18n;
@@ -40,6 +52,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Position;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
@@ -48,7 +61,20 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 public final class LootrunPathsService extends Service {
     public static final File LOOTRUNS = WynntilsMod.getModStorageDir("lootruns");
 
-    private List<LootrunPathInstance> lootrunPathInstanceCache = new ArrayList<>();
+    private static final ExecutorService LIBRARY_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            new ThreadFactoryBuilder()
+                    .setNameFormat("wynntils-lootrun-library-%d")
+                    .setDaemon(true)
+                    .build());
+
+    // Summaries of all saved lootruns, by file name, so the library can be listed without compiling every file
+    @Persisted
+    private final Storage<Map<String, LootrunLibraryEntry>> libraryIndex = new Storage<>(new TreeMap<>());
+
+    // Published as a whole on the render thread, so it never shows a partially refreshed library
+    private volatile List<LootrunLibraryEntry> lootrunLibrary = List.of();
+    private LootrunSpatialIndex spatialIndex = LootrunSpatialIndex.EMPTY;
 
     private UncompiledLootrunPath uncompiled = null;
 
@@ -59,11 +85,23 @@ public final class LootrunPathsService extends Service {
     private UncompiledLootrunPath recording = null;
 
     private RecordingInformation recordingInformation = null;
+    private LootrunRecordingJournal recordingJournal = null;
+
+    // Several saved lootruns merged into one graph, shown in addition to the current lootrun
+    private LootrunRouteGraph routeGraphSource = null;
+    private LootrunPathInstance routeGraph = null;
+
+    private final LootrunVertexBuffers lootrunVertexBuffers = new LootrunVertexBuffers();
+    private final LootrunVertexBuffers recordingVertexBuffers = new LootrunVertexBuffers();
+    private final LootrunVertexBuffers routeGraphVertexBuffers = new LootrunVertexBuffers();
+    private final BlockValidnessCache blockValidnessCache = new BlockValidnessCache();
 
     public LootrunPathsService() {
         super(List.of());
 
         FileUtils.mkdir(Services.LootrunPaths.LOOTRUNS);
+
+        recoverRecordingJournal();
     }
 
     public LootrunState getState() {
@@ -76,7 +114,11 @@ public final class LootrunPathsService extends Service {
 
         Entity root = McUtils.player().getRootVehicle();
 
-        current.notes().add(new LootrunNote(root.position(), text));
+        LootrunNote note = new LootrunNote(root.position(), text);
+        current.notes().add(note);
+        if (isJournaled(current)) {
+            recordingJournal.appendNoteAdded(note);
+        }
         return recompileLootrun(true);
     }
 
@@ -84,27 +126,23 @@ public final class LootrunPathsService extends Service {
         return lootrun;
     }
 
+    /**
+     * Recompiles the current lootrun and the route graph, as both of them depend on the lootrun config.
+     */
+    public void recompileAll() {
+        recompileLootrun(false);
+        recompileRouteGraph();
+    }
+
     public int recompileLootrun(boolean saveToFile) {
         if (recording != null) {
             recordingInformation.setDirty(true);
         } else if (uncompiled != null) {
             lootrun = LootrunCompiler.compile(uncompiled, false);
             if (saveToFile && uncompiled.file() != null) {
-                LootrunSaveResult lootrunSaveResult =
-                        saveCurrentLootrun(uncompiled.file().getName().replace(".json", ""));
-
-                if (lootrunSaveResult == null) {
+                if (saveCurrentLootrun(uncompiled.file().getName()) == null) {
                     return 0;
                 }
-
-                switch (lootrunSaveResult) {
-                    case SAVED -> {
-                        return 1;
-                    }
-                    case ERROR_SAVING, ERROR_ALREADY_EXISTS -> {
-                        return 0;
-                    }
-                }
             }
         }
         return 1;
@@ -117,6 +155,8 @@ public final class LootrunPathsService extends Service {
         recording = null;
         recordingCompiled = null;
         recordingInformation = null;
+        blockValidnessCache.clear();
+        deleteRecordingJournal();
     }
 
     public void stopRecording() {
@@ -134,44 +174,221 @@ public final class LootrunPathsService extends Service {
         recording =
                 new UncompiledLootrunPath(new LootrunPath(new ArrayList<>()), new HashSet<>(), new ArrayList<>(), null);
         recordingInformation = new RecordingInformation();
+
+        deleteRecordingJournal();
+        recordingJournal = LootrunRecordingJournal.create(recording);
     }
 
-    public List<LootrunPathInstance> getLootruns() {
-        return lootrunPathInstanceCache;
+    public List<LootrunLibraryEntry> getLootruns() {
+        return lootrunLibrary;
     }
 
-    public void refreshLootrunCache() {
-        List<LootrunPathInstance> lootruns = new ArrayList<>();
+    /**
+     * Updates the lootrun library from the lootrun folder. Only files that were changed since they were last indexed
+     * are read, and none of them are compiled; a lootrun is only compiled once it is loaded.
+     * Changed files are read in parallel, and the new library is published on the next tick.
+     */
+    public CompletableFuture<Void> refreshLootrunCache() {
+        Map<String, LootrunLibraryEntry> oldIndex = libraryIndex.get();
+        List<CompletableFuture<LootrunLibraryEntry>> futures = new ArrayList<>();
 
         File[] files = LOOTRUNS.listFiles();
         for (File file : files != null ? files : new File[0]) {
-            if (file.getName().endsWith(".json")) {
-                try {
-                    FileReader reader = new FileReader(file, StandardCharsets.UTF_8);
-                    JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
-                    UncompiledLootrunPath uncompiled = LootrunPathFileParser.readJson(file, json);
-                    lootruns.add(LootrunCompiler.compile(uncompiled, false));
-                } catch (Exception e) {
-                    WynntilsMod.warn("Could not parse lootrun file.", e);
+            if (!LootrunPathFileParser.isLootrunFile(file)) continue;
+
+            // Entries indexed before chunks were stored have no chunks, and are indexed again
+            LootrunLibraryEntry entry = oldIndex.get(file.getName());
+            if (entry != null && entry.lastModified() == file.lastModified() && entry.chunks() != null) {
+                futures.add(CompletableFuture.completedFuture(entry));
+            } else {
+                futures.add(CompletableFuture.supplyAsync(() -> indexFile(file), LIBRARY_EXECUTOR));
+            }
+        }
+
+        Map<String, LootrunLibraryEntry> newIndex = new TreeMap<>();
+        for (CompletableFuture<LootrunLibraryEntry> future : futures) {
+            LootrunLibraryEntry entry = future.join();
+            if (entry != null) {
+                newIndex.put(entry.fileName(), entry);
+            }
+        }
+
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        Managers.TickScheduler.scheduleNextTick(() -> {
+            if (!newIndex.equals(libraryIndex.get())) {
+                libraryIndex.store(newIndex);
+            }
+
+            lootrunLibrary = List.copyOf(newIndex.values());
+            WynntilsMod.postEvent(new LootrunPathCacheRefreshEvent());
+            published.complete(null);
+        });
+
+        return published;
+    }
+
+    /**
+     * Returns the spatial index over all lootruns of the library, built from their library entries.
+     * Use {@link #refreshLootrunCache()} to make sure it is up to date with the lootrun folder.
+     */
+    public LootrunSpatialIndex getSpatialIndex() {
+        List<LootrunLibraryEntry> library = lootrunLibrary;
+        if (!spatialIndex.isBuiltFrom(library)) {
+            spatialIndex = new LootrunSpatialIndex(library);
+        }
+
+        return spatialIndex;
+    }
+
+    /**
+     * Merges the given lootruns of the library into a route graph and shows it, replacing the previous one.
+     * The files are read and merged off the render thread, and the graph is shown from the next tick on,
+     * when the returned future completes.
+     */
+    public CompletableFuture<LootrunRouteGraph> showRouteGraph(List<LootrunLibraryEntry> entries) {
+        List<CompletableFuture<UncompiledLootrunPath>> futures = entries.stream()
+                .map(entry -> CompletableFuture.supplyAsync(() -> readLibraryEntry(entry), LIBRARY_EXECUTOR))
+                .toList();
+
+        CompletableFuture<LootrunRouteGraph> published = new CompletableFuture<>();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(
+                        ignored -> LootrunRouteGraph.build(futures.stream()
+                                .map(CompletableFuture::join)
+                                .filter(Objects::nonNull)
+                                .toList()),
+                        LIBRARY_EXECUTOR)
+                .thenAccept(graph -> {
+                    LootrunPathInstance compiled = LootrunCompiler.compile(graph);
+                    Managers.TickScheduler.scheduleNextTick(() -> {
+                        routeGraphSource = graph;
+                        routeGraph = compiled;
+                        routeGraphVertexBuffers.clear();
+                        published.complete(graph);
+                    });
+                })
+                .exceptionally(throwable -> {
+                    // Reading, merging and compiling all fail here, so the caller is never left waiting
+                    WynntilsMod.warn("Could not merge lootruns into a route graph.", throwable);
+                    published.completeExceptionally(throwable);
+                    return null;
+                });
+
+        return published;
+    }
+
+    public void clearRouteGraph() {
+        routeGraphSource = null;
+        routeGraph = null;
+        routeGraphVertexBuffers.clear();
+    }
+
+    public LootrunPathInstance getRouteGraph() {
+        return routeGraph;
+    }
+
+    private void recompileRouteGraph() {
+        LootrunRouteGraph graph = routeGraphSource;
+        if (graph == null) return;
+
+        CompletableFuture.supplyAsync(() -> LootrunCompiler.compile(graph), LIBRARY_EXECUTOR)
+                .whenComplete((compiled, throwable) -> {
+                    if (throwable != null) {
+                        WynntilsMod.warn("Could not recompile the route graph.", throwable);
+                        return;
+                    }
+
+                    Managers.TickScheduler.scheduleNextTick(() -> {
+                        // The graph might have been cleared or replaced in the meantime
+                        if (routeGraphSource != graph) return;
+
+                        routeGraph = compiled;
+                        routeGraphVertexBuffers.clear();
+                    });
+                });
+    }
+
+    private UncompiledLootrunPath readLibraryEntry(LootrunLibraryEntry entry) {
+        try {
+            return LootrunPathFileParser.readFile(new File(LOOTRUNS, entry.fileName()));
+        } catch (Exception e) {
+            WynntilsMod.warn("Could not parse lootrun file.", e);
+            return null;
+        }
+    }
+
+    private static LootrunLibraryEntry indexFile(File file) {
+        try {
+            UncompiledLootrunPath uncompiled = LootrunPathFileParser.readFile(file);
+            return createLibraryEntry(file, uncompiled, LootrunPathFileParser.getChunks(file, uncompiled));
+        } catch (Exception e) {
+            WynntilsMod.warn("Could not parse lootrun file.", e);
+            return null;
+        }
+    }
+
+    private static LootrunLibraryEntry createLibraryEntry(
+            File file, UncompiledLootrunPath uncompiled, List<Long> chunks) {
+        List<Vec3> points = uncompiled.path().points();
+
+        Vec3 start = points.isEmpty() ? Vec3.ZERO : points.get(0);
+        double minX = start.x;
+        double minY = start.y;
+        double minZ = start.z;
+        double maxX = start.x;
+        double maxY = start.y;
+        double maxZ = start.z;
+        double totalLength = 0;
+
+        Vec3 last = null;
+        for (Vec3 point : points) {
+            minX = Math.min(minX, point.x);
+            minY = Math.min(minY, point.y);
+            minZ = Math.min(minZ, point.z);
+            maxX = Math.max(maxX, point.x);
+            maxY = Math.max(maxY, point.y);
+            maxZ = Math.max(maxZ, point.z);
+
+            if (last != null) {
+                double distance = last.distanceTo(point);
+                // Segment breaks are teleports, they are not part of the route
+                if (distance < LootrunCompiler.SEGMENT_BREAK_DISTANCE) {
+                    totalLength += distance;
                 }
             }
+            last = point;
         }
 
-        lootrunPathInstanceCache = lootruns;
-        WynntilsMod.postEvent(new LootrunPathCacheRefreshEvent());
+        return new LootrunLibraryEntry(
+                file.getName(),
+                file.lastModified(),
+                points.size(),
+                minX,
+                minY,
+                minZ,
+                maxX,
+                maxY,
+                maxZ,
+                start.x,
+                start.y,
+                start.z,
+                uncompiled.chests().size(),
+                totalLength,
+                chunks);
     }
 
     private boolean loadFile(String fileName) {
-        String lootrunFileName = fileName + ".json";
-        File lootrunFile = new File(LOOTRUNS, lootrunFileName);
+        File lootrunFile = getLootrunFile(fileName);
         if (lootrunFile.exists()) {
             try {
-                FileReader file = new FileReader(lootrunFile, StandardCharsets.UTF_8);
-                JsonObject json = JsonParser.parseReader(file).getAsJsonObject();
-                uncompiled = LootrunPathFileParser.readJson(lootrunFile, json);
+                uncompiled = LootrunPathFileParser.readFile(lootrunFile);
                 lootrun = LootrunCompiler.compile(uncompiled, false);
                 state = LootrunState.LOADED;
-                file.close();
+
+                // An unsaved finished recording is discarded by loading another lootrun
+                if (recording == null) {
+                    deleteRecordingJournal();
+                }
                 return true;
             } catch (Exception e) {
                 WynntilsMod.error("Error when trying to load lootrun file.", e);
@@ -181,6 +398,25 @@ public final class LootrunPathsService extends Service {
         return false;
     }
 
+    /**
+     * Resolves a lootrun name to its file. Names with a file extension pick that format,
+     * names without one refer to the JSON file, or the binary file if only that exists.
+     */
+    public File getLootrunFile(String name) {
+        if (name.endsWith(LootrunPathFileParser.JSON_EXTENSION)
+                || name.endsWith(LootrunPathFileParser.BINARY_EXTENSION)) {
+            return new File(LOOTRUNS, name);
+        }
+
+        File jsonFile = new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
+        File binaryFile = new File(LOOTRUNS, name + LootrunPathFileParser.BINARY_EXTENSION);
+        if (!jsonFile.exists() && binaryFile.exists()) {
+            return binaryFile;
+        }
+
+        return jsonFile;
+    }
+
     public void tryLoadLootrun(String fileName) {
         if (loadFile(fileName)) {
             Position startingPoint = Services.LootrunPaths.getStartingPoint();
@@ -220,6 +456,8 @@ public final class LootrunPathsService extends Service {
         }
 
         points.points().removeAll(removed.points());
+        recordingJournal.appendPointsTruncated(points.points().size());
+        recordingInformation.setCompilation(null);
         recordingInformation.setDirty(true);
         return LootrunUndoResult.SUCCESSFUL;
     }
@@ -228,14 +466,22 @@ public final class LootrunPathsService extends Service {
         UncompiledLootrunPath current = getActiveLootrun();
         if (current == null) return false;
 
-        return current.chests().add(pos);
+        boolean added = current.chests().add(pos);
+        if (added && isJournaled(current)) {
+            recordingJournal.appendChestAdded(pos);
+        }
+        return added;
     }
 
     public boolean removeChest(BlockPos pos) {
         UncompiledLootrunPath current = getActiveLootrun();
         if (current == null) return false;
 
-        return current.chests().remove(pos);
+        boolean removed = current.chests().remove(pos);
+        if (removed && isJournaled(current)) {
+            recordingJournal.appendChestRemoved(pos);
+        }
+        return removed;
     }
 
     public LootrunNote deleteNoteAt(BlockPos pos) {
@@ -246,6 +492,9 @@ public final class LootrunPathsService extends Service {
         for (int i = 0; i < notes.size(); i++) {
             LootrunNote note = notes.get(i);
             if (pos.equals(PosUtils.newBlockPos(note.position()))) {
+                if (isJournaled(current)) {
+                    recordingJournal.appendNoteRemoved(i);
+                }
                 return notes.remove(i);
             }
         }
@@ -268,15 +517,51 @@ public final class LootrunPathsService extends Service {
         return activeLootrun.path().points().get(0);
     }
 
-    public LootrunSaveResult saveCurrentLootrun(String name) {
+    /**
+     * Saves the active lootrun to a new file of the library. The file is written off the render thread, from a
+     * copy of the lootrun taken now, and the result is completed on the next tick.
+     */
+    public CompletableFuture<LootrunSaveResult> saveCurrentLootrun(String name) {
         UncompiledLootrunPath activeLootrun = getActiveLootrun();
         if (activeLootrun == null) return null;
 
-        File file = new File(LOOTRUNS, name + ".json");
+        // Saving picks the format by extension, and defaults to JSON
+        File file = name.endsWith(LootrunPathFileParser.BINARY_EXTENSION)
+                        || name.endsWith(LootrunPathFileParser.JSON_EXTENSION)
+                ? new File(LOOTRUNS, name)
+                : new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
         uncompiled =
                 new UncompiledLootrunPath(activeLootrun.path(), activeLootrun.chests(), activeLootrun.notes(), file);
 
-        return LootrunPathFileParser.writeJson(activeLootrun, file);
+        // A running recording keeps changing while the file is written
+        UncompiledLootrunPath snapshot = new UncompiledLootrunPath(
+                new LootrunPath(List.copyOf(activeLootrun.path().points())),
+                Set.copyOf(activeLootrun.chests()),
+                List.copyOf(activeLootrun.notes()),
+                file);
+        // A finished recording is safe once it is saved, while a running one still needs its journal
+        LootrunRecordingJournal replacedJournal =
+                recording == null && isJournaled(activeLootrun) ? recordingJournal : null;
+
+        CompletableFuture<LootrunSaveResult> saved = new CompletableFuture<>();
+        LootrunRecordingJournal.save(snapshot, file).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                WynntilsMod.warn("Could not save lootrun to " + file.getName(), throwable);
+            }
+            LootrunSaveResult saveResult = throwable == null ? result : LootrunSaveResult.ERROR_SAVING;
+
+            Managers.TickScheduler.scheduleNextTick(() -> {
+                if (saveResult == LootrunSaveResult.SAVED
+                        && replacedJournal != null
+                        && replacedJournal == recordingJournal) {
+                    deleteRecordingJournal();
+                }
+
+                saved.complete(saveResult);
+            });
+        });
+
+        return saved;
     }
 
     @SubscribeEvent
@@ -289,14 +574,58 @@ public final class LootrunPathsService extends Service {
                 Managers.Feature.getFeatureInstance(LootrunFeature.class)
                         .activePathColor
                         .get()
-                        .asInt());
+                        .asInt(),
+                lootrunVertexBuffers,
+                blockValidnessCache);
         LootrunRenderer.renderLootrun(
                 poseStack,
                 recordingCompiled,
                 Managers.Feature.getFeatureInstance(LootrunFeature.class)
                         .recordingPathColor
                         .get()
-                        .asInt());
+                        .asInt(),
+                recordingVertexBuffers,
+                blockValidnessCache);
+        LootrunRenderer.renderLootrun(
+                poseStack,
+                routeGraph,
+                Managers.Feature.getFeatureInstance(LootrunFeature.class)
+                        .activePathColor
+                        .get()
+                        .asInt(),
+                routeGraphVertexBuffers,
+                blockValidnessCache);
+    }
+
+    @SubscribeEvent
+    public void onBlockUpdate(BlockUpdateEvent event) {
+        // Path validness is checked slightly around each point, which can reach into neighbouring chunks
+        BlockPos pos = event.getPos();
+        blockValidnessCache.onBlockUpdate(McUtils.mc().level, pos, event.getNewState());
+
+        for (int dx = -1; dx <= 1; dx += 2) {
+            for (int dz = -1; dz <= 1; dz += 2) {
+                invalidateChunk(new ChunkPos(pos.offset(dx, 0, dz)).toLong());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        // Paths at the edge of neighbouring chunks might have been baked without this chunk's blocks
+        ChunkPos chunkPos = event.getChunkPos();
+        blockValidnessCache.invalidateChunk(chunkPos);
+        invalidateChunk(chunkPos.toLong());
+        invalidateChunk(ChunkPos.asLong(chunkPos.x - 1, chunkPos.z));
+        invalidateChunk(ChunkPos.asLong(chunkPos.x + 1, chunkPos.z));
+        invalidateChunk(ChunkPos.asLong(chunkPos.x, chunkPos.z - 1));
+        invalidateChunk(ChunkPos.asLong(chunkPos.x, chunkPos.z + 1));
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        blockValidnessCache.invalidateChunk(event.getChunkPos());
+        invalidateChunk(event.getChunkPos().toLong());
     }
 
     @SubscribeEvent
@@ -316,7 +645,9 @@ public final class LootrunPathsService extends Service {
         if (recordingInformation.getLastChest() == null) return;
         if (!(Models.Container.getCurrentContainer() instanceof LootChestContainer)) return;
 
-        recording.chests().add(recordingInformation.getLastChest());
+        if (recording.chests().add(recordingInformation.getLastChest())) {
+            recordingJournal.appendChestAdded(recordingInformation.getLastChest());
+        }
         recordingInformation.setDirty(true);
         recordingInformation.setLastChest(null);
     }
@@ -333,16 +664,60 @@ public final class LootrunPathsService extends Service {
         if (recordingInformation.getLastLocation() == null
                 || pos.distanceToSqr(recordingInformation.getLastLocation()) >= 4d) {
             recording.path().points().add(pos);
+            recordingJournal.appendPointAdded(pos);
             recordingInformation.setLastLocation(pos);
             recordingInformation.setDirty(true);
         }
 
         if (recordingInformation.isDirty()) {
-            recordingCompiled = LootrunCompiler.compile(recording, true);
+            recordingCompiled = LootrunCompiler.compileIncremental(recording, recordingInformation);
             recordingInformation.setDirty(false);
         }
     }
 
+    private boolean isJournaled(UncompiledLootrunPath lootrun) {
+        return recordingJournal != null && recordingJournal.isJournalOf(lootrun);
+    }
+
+    private void deleteRecordingJournal() {
+        if (recordingJournal == null) return;
+
+        recordingJournal.delete();
+        recordingJournal = null;
+    }
+
+    private void recoverRecordingJournal() {
+        if (!LootrunRecordingJournal.exists()) return;
+
+        try {
+            UncompiledLootrunPath recovered = LootrunRecordingJournal.recover();
+            if (!recovered.path().points().isEmpty()) {
+                String name = "recovered_lootrun_"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+                File file = new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
+
+                if (LootrunPathFileParser.writeFile(recovered, file) != LootrunSaveResult.SAVED) {
+                    WynntilsMod.warn("Could not save recovered lootrun recording to " + file.getName());
+                    return;
+                }
+
+                WynntilsMod.info("Recovered an unsaved lootrun recording to " + file.getName());
+            }
+
+            LootrunRecordingJournal.deleteRecovered();
+        } catch (IOException | RuntimeException e) {
+            // A corrupt journal must not stop the service from loading, and is kept aside instead of replayed again
+            WynntilsMod.warn("Could not recover lootrun recording journal.", e);
+            LootrunRecordingJournal.quarantineRecovered();
+        }
+    }
+
+    private void invalidateChunk(long chunk) {
+        lootrunVertexBuffers.invalidate(chunk);
+        recordingVertexBuffers.invalidate(chunk);
+        routeGraphVertexBuffers.invalidate(chunk);
+    }
+
     private UncompiledLootrunPath getActiveLootrun() {
         UncompiledLootrunPath instance = null;
         if (recording != null) {
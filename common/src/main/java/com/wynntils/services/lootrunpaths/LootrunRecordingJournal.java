@@ -0,0 +1,297 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonParseException;
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import com.wynntils.utils.FileUtils;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Position;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * An append-only journal of a lootrun recording, so a recording survives a client crash.
+ *
+ * <p>Every change to the recording is appended to an in-memory batch on the render thread. The batch is
+ * written to the journal file and synced to disk off the render thread, every {@link #FLUSH_INTERVAL_MS}.
+ * All file operations happen on a single thread, in the order they were requested. A journal that is
+ * cut off in the middle of an entry is replayed up to the last complete entry.
+ *
+ * <p>Saved lootrun files are written on the same thread, so saving a long recording does not stall rendering,
+ * and the journal is only deleted after the file that replaces it was written.
+ */
+final class LootrunRecordingJournal {
+    private static final File JOURNAL_DIR = WynntilsMod.getModStorageDir("lootrun-journal");
+    private static final File JOURNAL_FILE = new File(JOURNAL_DIR, "recording.journal");
+
+    private static final int JOURNAL_MAGIC = 0x574c524a; // "WLRJ"
+    private static final int JOURNAL_VERSION = 1;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+
+    private static final byte POINT_ADDED = 0;
+    private static final byte POINTS_TRUNCATED = 1;
+    private static final byte CHEST_ADDED = 2;
+    private static final byte CHEST_REMOVED = 3;
+    private static final byte NOTE_ADDED = 4;
+    private static final byte NOTE_REMOVED = 5;
+
+    private static final ScheduledExecutorService FILE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("wynntils-lootrun-journal-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final UncompiledLootrunPath lootrun;
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private final DataOutputStream batchOutput = new DataOutputStream(batch);
+    private final ScheduledFuture<?> flushTask;
+
+    private LootrunRecordingJournal(UncompiledLootrunPath lootrun) {
+        this.lootrun = lootrun;
+
+        FILE_EXECUTOR.execute(LootrunRecordingJournal::createJournalFile);
+        flushTask = FILE_EXECUTOR.scheduleWithFixedDelay(
+                this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a new journal for the given (empty) recording, replacing any previous journal.
+     */
+    static LootrunRecordingJournal create(UncompiledLootrunPath lootrun) {
+        return new LootrunRecordingJournal(lootrun);
+    }
+
+    static boolean exists() {
+        return JOURNAL_FILE.exists();
+    }
+
+    /**
+     * Replays the journal file left over by a previous session.
+     */
+    static UncompiledLootrunPath recover() throws IOException {
+        List<Vec3> points = new ArrayList<>();
+        Set<BlockPos> chests = new HashSet<>();
+        List<LootrunNote> notes = new ArrayList<>();
+
+        try (DataInputStream input =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(JOURNAL_FILE)))) {
+            if (input.readInt() != JOURNAL_MAGIC || input.readInt() != JOURNAL_VERSION) {
+                throw new IOException("Not a lootrun journal: " + JOURNAL_FILE.getName());
+            }
+
+            while (true) {
+                byte type;
+                try {
+                    type = input.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                try {
+                    switch (type) {
+                        case POINT_ADDED -> points.add(readPosition(input));
+                        case POINTS_TRUNCATED -> {
+                            int size = input.readInt();
+                            if (size < points.size()) {
+                                points.subList(size, points.size()).clear();
+                            }
+                        }
+                        case CHEST_ADDED -> chests.add(readBlockPos(input));
+                        case CHEST_REMOVED -> chests.remove(readBlockPos(input));
+                        case NOTE_ADDED -> {
+                            Vec3 position = readPosition(input);
+                            int length = input.readInt();
+                            if (length < 0 || length > JOURNAL_FILE.length()) {
+                                throw new IOException("Invalid lootrun journal note length " + length);
+                            }
+
+                            byte[] componentJson = new byte[length];
+                            input.readFully(componentJson);
+                            notes.add(new LootrunNote(position, readComponent(componentJson)));
+                        }
+                        case NOTE_REMOVED -> {
+                            int index = input.readInt();
+                            if (index < notes.size()) {
+                                notes.remove(index);
+                            }
+                        }
+                        default -> throw new IOException("Unknown lootrun journal entry " + type);
+                    }
+                } catch (EOFException e) {
+                    // The client was closed while the last entry was written
+                    break;
+                }
+            }
+        }
+
+        return new UncompiledLootrunPath(new LootrunPath(points), chests, notes, null);
+    }
+
+    /**
+     * Moves a journal file that could not be replayed out of the way, so it does not fail again on every start.
+     */
+    static void quarantineRecovered() {
+        FILE_EXECUTOR.execute(() -> FileUtils.moveInvalidFile(JOURNAL_FILE));
+    }
+
+    /**
+     * Writes a snapshot of a lootrun to its file off the render thread.
+     */
+    static CompletableFuture<LootrunSaveResult> save(UncompiledLootrunPath snapshot, File file) {
+        return CompletableFuture.supplyAsync(
+                () -> LootrunPathFileParser.writeFileAtomically(snapshot, file), FILE_EXECUTOR);
+    }
+
+    /**
+     * Deletes the journal file left over by a previous session.
+     */
+    static void deleteRecovered() {
+        FILE_EXECUTOR.execute(() -> FileUtils.deleteFile(JOURNAL_FILE));
+    }
+
+    boolean isJournalOf(UncompiledLootrunPath lootrun) {
+        return this.lootrun == lootrun;
+    }
+
+    void appendPointAdded(Vec3 point) {
+        append(POINT_ADDED, () -> writePosition(point));
+    }
+
+    void appendPointsTruncated(int size) {
+        append(POINTS_TRUNCATED, () -> batchOutput.writeInt(size));
+    }
+
+    void appendChestAdded(BlockPos chest) {
+        append(CHEST_ADDED, () -> writeBlockPos(chest));
+    }
+
+    void appendChestRemoved(BlockPos chest) {
+        append(CHEST_REMOVED, () -> writeBlockPos(chest));
+    }
+
+    void appendNoteAdded(LootrunNote note) {
+        byte[] componentJson = Component.Serializer.toJson(note.component()).getBytes(StandardCharsets.UTF_8);
+
+        append(NOTE_ADDED, () -> {
+            writePosition(note.position());
+            batchOutput.writeInt(componentJson.length);
+            batchOutput.write(componentJson);
+        });
+    }
+
+    void appendNoteRemoved(int index) {
+        append(NOTE_REMOVED, () -> batchOutput.writeInt(index));
+    }
+
+    /**
+     * Stops the journal and deletes its file, once the recording was saved or discarded.
+     */
+    void delete() {
+        flushTask.cancel(false);
+        synchronized (this) {
+            batch.reset();
+        }
+
+        FILE_EXECUTOR.execute(() -> FileUtils.deleteFile(JOURNAL_FILE));
+    }
+
+    private void flush() {
+        byte[] bytes;
+        synchronized (this) {
+            if (batch.size() == 0) return;
+
+            bytes = batch.toByteArray();
+            batch.reset();
+        }
+
+        try (FileOutputStream output = new FileOutputStream(JOURNAL_FILE, true)) {
+            output.write(bytes);
+            output.getFD().sync();
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write lootrun journal.", e);
+        }
+    }
+
+    private synchronized void append(byte type, EntryWriter entryWriter) {
+        try {
+            batchOutput.writeByte(type);
+            entryWriter.write();
+        } catch (IOException e) {
+            // The batch is in memory, writing to it does not fail
+        }
+    }
+
+    private void writePosition(Position position) throws IOException {
+        batchOutput.writeDouble(position.x());
+        batchOutput.writeDouble(position.y());
+        batchOutput.writeDouble(position.z());
+    }
+
+    private void writeBlockPos(BlockPos pos) throws IOException {
+        batchOutput.writeInt(pos.getX());
+        batchOutput.writeInt(pos.getY());
+        batchOutput.writeInt(pos.getZ());
+    }
+
+    private static Vec3 readPosition(DataInputStream input) throws IOException {
+        return new Vec3(input.readDouble(), input.readDouble(), input.readDouble());
+    }
+
+    private static BlockPos readBlockPos(DataInputStream input) throws IOException {
+        return new BlockPos(input.readInt(), input.readInt(), input.readInt());
+    }
+
+    private static Component readComponent(byte[] componentJson) throws IOException {
+        try {
+            Component component = Component.Serializer.fromJson(new String(componentJson, StandardCharsets.UTF_8));
+            if (component == null) {
+                throw new IOException("Empty lootrun journal note");
+            }
+            return component;
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid lootrun journal note", e);
+        }
+    }
+
+    private static void createJournalFile() {
+        FileUtils.mkdir(JOURNAL_DIR);
+
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(JOURNAL_FILE))) {
+            output.writeInt(JOURNAL_MAGIC);
+            output.writeInt(JOURNAL_VERSION);
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not create lootrun journal.", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write() throws IOException;
+    }
+}
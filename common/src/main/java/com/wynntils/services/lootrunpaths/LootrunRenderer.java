@@ -7,21 +7,20 @@ package com.wynntils.services.lootrunpaths;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
 import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexFormat;
 import com.wynntils.core.components.Managers;
 import com.wynntils.features.LootrunFeature;
 import com.wynntils.services.lootrunpaths.type.BlockValidness;
 import com.wynntils.services.lootrunpaths.type.ColoredPath;
-import com.wynntils.services.lootrunpaths.type.ColoredPosition;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.utils.mc.McUtils;
-import com.wynntils.utils.mc.PosUtils;
 import com.wynntils.utils.render.buffered.CustomRenderType;
-import com.wynntils.utils.type.Pair;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import net.minecraft.client.Camera;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -30,6 +29,7 @@ import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Position;
+import net.minecraft.core.SectionPos;
 import net.minecraft.util.FastColor;
 import net.minecraft.util.FormattedCharSequence;
 import net.minecraft.world.level.ChunkPos;
@@ -37,16 +37,22 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 import org.joml.Matrix4f;
-import org.joml.Quaternionf;
-import org.joml.Vector3f;
 
 public final class LootrunRenderer {
     private static final MultiBufferSource.BufferSource BUFFER_SOURCE =
             MultiBufferSource.immediate(new BufferBuilder(256));
+    private static final BufferBuilder BAKE_BUFFER = new BufferBuilder(256);
 
-    public static void renderLootrun(PoseStack poseStack, LootrunPathInstance lootrun, int color) {
+    public static void renderLootrun(
+            PoseStack poseStack,
+            LootrunPathInstance lootrun,
+            int color,
+            LootrunVertexBuffers vertexBuffers,
+            BlockValidnessCache blockValidnessCache) {
         if (lootrun == null) {
+            vertexBuffers.clear();
             return;
         }
 
@@ -63,6 +69,7 @@ public final class LootrunRenderer {
         poseStack.translate(-camera.getPosition().x, -camera.getPosition().y, -camera.getPosition().z);
 
         Long2ObjectMap<List<ColoredPath>> points = lootrun.points();
+        vertexBuffers.setSource(points);
         int renderDistance = McUtils.options().renderDistance().get();
         BlockPos pos = camera.getBlockPosition();
         ChunkPos origin = new ChunkPos(pos);
@@ -79,7 +86,8 @@ public final class LootrunRenderer {
                 long chunkLong = chunk.toLong();
 
                 if (points.containsKey(chunkLong)) {
-                    renderPoints(poseStack, points, chunkLong);
+                    renderPoints(
+                            poseStack, points, chunkLong, camera.getPosition(), vertexBuffers, blockValidnessCache);
                 }
 
                 if (lootrun.chests().containsKey(chunkLong)) {
@@ -150,228 +158,118 @@ public final class LootrunRenderer {
         BUFFER_SOURCE.endBatch();
     }
 
-    private static void renderPoints(PoseStack poseStack, Long2ObjectMap<List<ColoredPath>> points, long chunkLong) {
+    private static void renderPoints(
+            PoseStack poseStack,
+            Long2ObjectMap<List<ColoredPath>> points,
+            long chunkLong,
+            Vec3 cameraPosition,
+            LootrunVertexBuffers vertexBuffers,
+            BlockValidnessCache blockValidnessCache) {
         List<ColoredPath> locations = points.get(chunkLong);
 
         Level level = McUtils.mc().level;
         if (level == null) return;
 
-        switch (Managers.Feature.getFeatureInstance(LootrunFeature.class)
+        LootrunFeature.PathType pathType = Managers.Feature.getFeatureInstance(LootrunFeature.class)
                 .pathType
-                .get()) {
-            case TEXTURED -> renderTexturedLootrunPoints(poseStack, locations, level, CustomRenderType.LOOTRUN_QUAD);
-            case LINE -> renderNonTexturedLootrunPoints(poseStack, locations, level, CustomRenderType.LOOTRUN_LINE);
+                .get();
+        Vec3 origin = getChunkOrigin(chunkLong);
+        LevelOfDetail levelOfDetail = LevelOfDetail.forChunk(origin, cameraPosition);
+
+        if (!vertexBuffers.isUpToDate(chunkLong, locations, pathType, levelOfDetail)) {
+            vertexBuffers.update(
+                    chunkLong,
+                    locations,
+                    pathType,
+                    levelOfDetail,
+                    bakePoints(locations, level, blockValidnessCache, pathType, levelOfDetail, origin));
         }
-    }
 
-    private static void renderNonTexturedLootrunPoints(
-            PoseStack poseStack, List<ColoredPath> locations, Level level, RenderType renderType) {
-        for (ColoredPath locationsInRoute : locations) {
-            VertexConsumer consumer = BUFFER_SOURCE.getBuffer(renderType);
-            Matrix4f lastMatrix = poseStack.last().pose();
-            boolean sourceBatchEnded = false;
-
-            ColoredPath toRender = new ColoredPath(new ArrayList<>());
-
-            boolean pauseDraw = false;
-            BlockPos lastBlockPos = null;
-
-            for (ColoredPosition point : locationsInRoute.points()) {
-                BlockPos blockPos = PosUtils.newBlockPos(point.position());
-
-                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
-                    if (!toRender.points().isEmpty()) {
-                        toRender.points().add(point);
-                    }
-                } else {
-                    BlockValidness blockValidness = BlockValidness.checkBlockValidness(level, point);
-
-                    if (blockValidness == BlockValidness.VALID) {
-                        pauseDraw = false;
-                        if (sourceBatchEnded) {
-                            consumer = BUFFER_SOURCE.getBuffer(renderType);
-                            sourceBatchEnded = false;
-                        }
-                        renderQueuedPoints(consumer, lastMatrix, toRender);
-                        toRender.points().clear();
-                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
-                        pauseDraw = true;
-                        toRender.points().clear();
-                    } else {
-                        pauseDraw = false;
-                        toRender.points().add(point);
-                        continue;
-                    }
-                }
+        VertexBuffer vertexBuffer = vertexBuffers.get(chunkLong);
+        if (vertexBuffer == null) return;
 
-                lastBlockPos = blockPos;
+        RenderType renderType =
+                switch (pathType) {
+                    case TEXTURED -> CustomRenderType.LOOTRUN_QUAD;
+                    case LINE -> CustomRenderType.LOOTRUN_LINE;
+                };
 
-                if (!pauseDraw) {
-                    renderPoint(consumer, lastMatrix, point);
-                } else if (!sourceBatchEnded) {
-                    BUFFER_SOURCE.endBatch();
-                    sourceBatchEnded = true;
-                }
-            }
-            if (!sourceBatchEnded) {
-                renderQueuedPoints(consumer, lastMatrix, toRender);
-                BUFFER_SOURCE.endBatch();
-            }
-        }
-    }
-
-    private static void renderTexturedLootrunPoints(
-            PoseStack poseStack, List<ColoredPath> locations, Level level, RenderType renderType) {
-        Camera camera = McUtils.mc().gameRenderer.getMainCamera();
-        poseStack.pushPose();
-        poseStack.translate(camera.getPosition().x, camera.getPosition().y, camera.getPosition().z);
+        renderType.setupRenderState();
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
 
-        for (ColoredPath locationsInRoute : locations) {
-            VertexConsumer consumer = BUFFER_SOURCE.getBuffer(renderType);
-            List<Pair<ColoredPosition, ColoredPosition>> toRender = new ArrayList<>();
-            boolean sourceBatchEnded = false;
-            BlockPos lastBlockPos = null;
-
-            boolean pauseDraw = false;
-
-            for (int i = 0; i < locationsInRoute.points().size() - 1; i += 10) {
-                ColoredPosition point = locationsInRoute.points().get(i);
-                BlockPos blockPos = PosUtils.newBlockPos(point.position());
-
-                ColoredPosition end = locationsInRoute
-                        .points()
-                        .get(Math.min(locationsInRoute.points().size() - 1, i + 1));
-                Pair<ColoredPosition, ColoredPosition> pointPair = new Pair<>(point, end);
-
-                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
-                    if (!toRender.isEmpty()) {
-                        toRender.add(pointPair);
-                    }
-                } else {
-                    BlockValidness blockValidness = BlockValidness.checkBlockValidness(level, point);
-
-                    if (blockValidness == BlockValidness.VALID) {
-                        pauseDraw = false;
-                        if (sourceBatchEnded) {
-                            consumer = BUFFER_SOURCE.getBuffer(renderType);
-                            sourceBatchEnded = false;
-                        }
-                        renderTexturedQueuedPoints(toRender, poseStack, consumer);
-                        toRender.clear();
-                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
-                        pauseDraw = true;
-                        toRender.clear();
-                    } else {
-                        pauseDraw = false;
-                        toRender.add(pointPair);
-                        continue;
-                    }
-                }
+        // Baked vertices are relative to the chunk origin, the pose is already relative to the camera
+        Matrix4f modelView = new Matrix4f(RenderSystem.getModelViewMatrix())
+                .mul(poseStack.last().pose())
+                .translate((float) origin.x, (float) origin.y, (float) origin.z);
 
-                lastBlockPos = blockPos;
+        vertexBuffer.bind();
+        vertexBuffer.drawWithShader(modelView, RenderSystem.getProjectionMatrix(), RenderSystem.getShader());
+        VertexBuffer.unbind();
 
-                if (!pauseDraw) {
-                    renderTexturedPoint(pointPair, poseStack, consumer);
-                } else if (!sourceBatchEnded) {
-                    BUFFER_SOURCE.endBatch();
-                    sourceBatchEnded = true;
-                }
+        renderType.clearRenderState();
+    }
+
+    private static BufferBuilder.RenderedBuffer bakePoints(
+            List<ColoredPath> locations,
+            Level level,
+            BlockValidnessCache blockValidnessCache,
+            LootrunFeature.PathType pathType,
+            LevelOfDetail levelOfDetail,
+            Vec3 origin) {
+        Function<Position, BlockValidness> blockValidnessCheck =
+                (position) -> blockValidnessCache.checkBlockValidness(level, position);
+
+        switch (pathType) {
+            case TEXTURED -> {
+                BAKE_BUFFER.begin(VertexFormat.Mode.QUADS, CustomRenderType.LOOTRUN_QUAD.format());
+                LootrunPathBaker.bakeArrows(BAKE_BUFFER, locations, blockValidnessCheck, levelOfDetail, origin);
             }
-            if (!sourceBatchEnded) {
-                renderTexturedQueuedPoints(toRender, poseStack, consumer);
-                BUFFER_SOURCE.endBatch();
+            case LINE -> {
+                // Strips are baked as separate line segments, so that several strips can share one buffer
+                BAKE_BUFFER.begin(VertexFormat.Mode.LINES, CustomRenderType.LOOTRUN_LINE.format());
+                LootrunPathBaker.bakeLines(BAKE_BUFFER, locations, blockValidnessCheck, levelOfDetail, origin);
             }
         }
-        poseStack.popPose();
-    }
 
-    private static void renderQueuedPoints(VertexConsumer consumer, Matrix4f lastMatrix, ColoredPath toRender) {
-        for (ColoredPosition position : toRender.points()) {
-            renderPoint(consumer, lastMatrix, position);
-        }
+        return BAKE_BUFFER.endOrDiscardIfEmpty();
     }
 
-    private static void renderPoint(VertexConsumer consumer, Matrix4f lastMatrix, ColoredPosition coloredPosition) {
-        Position position = coloredPosition.position();
-        int pathColor = coloredPosition.color();
-        consumer.vertex(lastMatrix, (float) position.x(), (float) position.y(), (float) position.z())
-                .color(pathColor)
-                .normal(0, 0, 1)
-                .endVertex();
+    private static Vec3 getChunkOrigin(long chunkLong) {
+        return new Vec3(
+                SectionPos.sectionToBlockCoord(ChunkPos.getX(chunkLong)),
+                0,
+                SectionPos.sectionToBlockCoord(ChunkPos.getZ(chunkLong)));
     }
 
-    private static void renderTexturedQueuedPoints(
-            List<Pair<ColoredPosition, ColoredPosition>> pointPairList,
-            PoseStack poseStack,
-            VertexConsumer vertexConsumer) {
-        for (Pair<ColoredPosition, ColoredPosition> pointPair : pointPairList) {
-            renderTexturedPoint(pointPair.a(), pointPair.b(), poseStack, vertexConsumer);
+    /**
+     * How detailed the path of a chunk is drawn, based on its distance to the camera.
+     * Lines are simplified with a growing tolerance, and arrows are drawn further apart.
+     */
+    enum LevelOfDetail {
+        FULL(0, 1),
+        REDUCED(0.05, 2),
+        LOW(0.25, 4);
+
+        private static final int REDUCED_DISTANCE = 48;
+        private static final int LOW_DISTANCE = 128;
+
+        final double lineTolerance;
+        final int arrowSpacing;
+
+        LevelOfDetail(double lineTolerance, int arrowSpacing) {
+            this.lineTolerance = lineTolerance;
+            this.arrowSpacing = arrowSpacing;
         }
-    }
 
-    private static void renderTexturedPoint(
-            Pair<ColoredPosition, ColoredPosition> pointPair, PoseStack poseStack, VertexConsumer vertexConsumer) {
-        renderTexturedPoint(pointPair.a(), pointPair.b(), poseStack, vertexConsumer);
-    }
+        private static LevelOfDetail forChunk(Vec3 chunkOrigin, Vec3 cameraPosition) {
+            // Horizontal distance to the closest point of the chunk
+            double dx = Math.max(0, Math.abs(chunkOrigin.x + 8 - cameraPosition.x) - 8);
+            double dz = Math.max(0, Math.abs(chunkOrigin.z + 8 - cameraPosition.z) - 8);
+            double distance = Math.sqrt(dx * dx + dz * dz);
 
-    private static void renderTexturedPoint(
-            ColoredPosition start, ColoredPosition end, PoseStack poseStack, VertexConsumer vertexConsumer) {
-        Vector3f camPos =
-                McUtils.mc().gameRenderer.getMainCamera().getPosition().toVector3f();
-        Vector3f startVec = start.position().toVector3f();
-        Vector3f endVec = end.position().toVector3f();
-        int color = start.color();
-
-        // vertex position delta to starting point
-        Vector3f pos1 = new Vector3f(-0.5f, 0.24f, -0.5f);
-        Vector3f pos2 = new Vector3f(0.5f, 0.24f, -0.5f);
-        Vector3f pos3 = new Vector3f(0.5f, 0.24f, 0.5f);
-        Vector3f pos4 = new Vector3f(-0.5f, 0.24f, 0.5f);
-
-        Vector3f direction =
-                new Vector3f(endVec.x, endVec.y, endVec.z).sub(startVec).normalize();
-
-        // rotation angle to point surface normal to end position
-        // rotate the angle so the arrow point to the end position instead of surface normal
-        float xAngle = (float) ((float) Math.acos(direction.y / direction.length()) - Math.PI / 2);
-        float yAngle = (float) Math.atan2(direction.x, direction.z);
-
-        Quaternionf yRot = new Quaternionf().rotateY(yAngle);
-        Vector3f xRotAxis = new Vector3f(1, 0, 0).rotate(yRot);
-        Quaternionf xRot = new Quaternionf().rotateAxis(xAngle, xRotAxis);
-
-        // apply vertex rotation
-        pos1.rotate(yRot).rotate(xRot);
-        pos2.rotate(yRot).rotate(xRot);
-        pos3.rotate(yRot).rotate(xRot);
-        pos4.rotate(yRot).rotate(xRot);
-
-        // transform position back to world space and then to position camera delta
-        pos1 = pos1.add(startVec).sub(camPos);
-        pos2 = pos2.add(startVec).sub(camPos);
-        pos3 = pos3.add(startVec).sub(camPos);
-        pos4 = pos4.add(startVec).sub(camPos);
-
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos1.x, pos1.y, pos1.z)
-                .color(color)
-                .uv(0, 1)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos2.x, pos2.y, pos2.z)
-                .color(color)
-                .uv(0, 0)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos3.x, pos3.y, pos3.z)
-                .color(color)
-                .uv(1, 0)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos4.x, pos4.y, pos4.z)
-                .color(color)
-                .uv(1, 1)
-                .endVertex();
+            if (distance < REDUCED_DISTANCE) return FULL;
+            if (distance < LOW_DISTANCE) return REDUCED;
+            return LOW;
+        }
     }
 }
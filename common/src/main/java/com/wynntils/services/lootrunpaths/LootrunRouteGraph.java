@@ -0,0 +1,237 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Several lootruns merged into one graph, so routes that were recorded through the same area many times
+ * are drawn once.
+ *
+ * <p>Every point of every route is snapped to the closest node within {@link #SNAP_DISTANCE}, or becomes a new
+ * node. Nodes are kept in a spatial hash with cells of that size, so snapping a point only looks at the nodes in
+ * the 27 cells around it, and building the graph is linear in the total number of points. Consecutive points of
+ * a route connect their nodes with an edge, and edges that several routes share are only kept once.
+ *
+ * <p>For drawing, the edges are joined into chains that run between nodes where routes split or end.
+ * Chests and notes of all routes are merged as well, notes are only kept once per block and text.
+ */
+public final class LootrunRouteGraph {
+    // About half the distance between recorded points, see LootrunPathsService#recordMovement
+    private static final double SNAP_DISTANCE = 1.5;
+
+    private final DoubleArrayList xs = new DoubleArrayList();
+    private final DoubleArrayList ys = new DoubleArrayList();
+    private final DoubleArrayList zs = new DoubleArrayList();
+    private final Long2ObjectMap<IntList> nodesByCell = new Long2ObjectOpenHashMap<>();
+
+    // Both node indices of an edge, the lower one in the upper half
+    private final LongSet edges = new LongLinkedOpenHashSet();
+
+    private final Set<BlockPos> chests = new HashSet<>();
+    private final Map<String, LootrunNote> notes = new LinkedHashMap<>();
+
+    private int routeCount = 0;
+    private int pointCount = 0;
+
+    private LootrunRouteGraph() {}
+
+    public static LootrunRouteGraph build(List<UncompiledLootrunPath> routes) {
+        LootrunRouteGraph graph = new LootrunRouteGraph();
+        routes.forEach(graph::addRoute);
+        return graph;
+    }
+
+    public int getRouteCount() {
+        return routeCount;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public int getNodeCount() {
+        return xs.size();
+    }
+
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    Set<BlockPos> getChests() {
+        return chests;
+    }
+
+    List<LootrunNote> getNotes() {
+        return new ArrayList<>(notes.values());
+    }
+
+    /**
+     * Splits the graph into paths of node positions, so every edge is in exactly one path and paths only
+     * end at nodes where routes split, join or end.
+     */
+    List<LootrunPath> getChains() {
+        List<IntList> adjacency = getAdjacency();
+        LongSet visited = new LongOpenHashSet(edges.size());
+        List<LootrunPath> chains = new ArrayList<>();
+
+        // Start at every node that is not in the middle of a chain first, so only cycles are left afterwards
+        for (int node = 0; node < adjacency.size(); node++) {
+            if (adjacency.get(node).size() == 2) continue;
+
+            walkChains(adjacency, visited, node, chains);
+        }
+
+        for (int node = 0; node < adjacency.size(); node++) {
+            walkChains(adjacency, visited, node, chains);
+        }
+
+        return chains;
+    }
+
+    private void addRoute(UncompiledLootrunPath route) {
+        routeCount++;
+
+        int previousNode = -1;
+        Vec3 previousPoint = null;
+        for (Vec3 point : route.path().points()) {
+            pointCount++;
+            int node = snap(point);
+
+            // Teleports are not connected, just like they are not when compiling a single lootrun
+            if (previousNode != -1
+                    && previousNode != node
+                    && previousPoint.distanceTo(point) < LootrunCompiler.SEGMENT_BREAK_DISTANCE) {
+                edges.add(getEdge(previousNode, node));
+            }
+
+            previousNode = node;
+            previousPoint = point;
+        }
+
+        chests.addAll(route.chests());
+        for (LootrunNote note : route.notes()) {
+            BlockPos pos = BlockPos.containing(note.position());
+            notes.putIfAbsent(pos.asLong() + ":" + note.component().getString(), note);
+        }
+    }
+
+    private int snap(Vec3 point) {
+        int cellX = getCell(point.x);
+        int cellY = getCell(point.y);
+        int cellZ = getCell(point.z);
+
+        int closest = -1;
+        double closestDistance = SNAP_DISTANCE * SNAP_DISTANCE;
+        for (int x = cellX - 1; x <= cellX + 1; x++) {
+            for (int y = cellY - 1; y <= cellY + 1; y++) {
+                for (int z = cellZ - 1; z <= cellZ + 1; z++) {
+                    IntList cellNodes = nodesByCell.get(BlockPos.asLong(x, y, z));
+                    if (cellNodes == null) continue;
+
+                    for (int i = 0; i < cellNodes.size(); i++) {
+                        int node = cellNodes.getInt(i);
+                        double distance =
+                                point.distanceToSqr(xs.getDouble(node), ys.getDouble(node), zs.getDouble(node));
+                        if (distance <= closestDistance) {
+                            closest = node;
+                            closestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (closest != -1) return closest;
+
+        int node = xs.size();
+        xs.add(point.x);
+        ys.add(point.y);
+        zs.add(point.z);
+        nodesByCell.computeIfAbsent(BlockPos.asLong(cellX, cellY, cellZ), (cell) -> new IntArrayList()).add(node);
+        return node;
+    }
+
+    private List<IntList> getAdjacency() {
+        List<IntList> adjacency = new ArrayList<>(xs.size());
+        for (int i = 0; i < xs.size(); i++) {
+            adjacency.add(new IntArrayList(2));
+        }
+
+        for (LongIterator iterator = edges.iterator(); iterator.hasNext(); ) {
+            long edge = iterator.nextLong();
+            int first = (int) (edge >>> 32);
+            int second = (int) edge;
+            adjacency.get(first).add(second);
+            adjacency.get(second).add(first);
+        }
+
+        return adjacency;
+    }
+
+    private void walkChains(List<IntList> adjacency, LongSet visited, int node, List<LootrunPath> chains) {
+        IntList neighbours = adjacency.get(node);
+        for (int i = 0; i < neighbours.size(); i++) {
+            if (visited.contains(getEdge(node, neighbours.getInt(i)))) continue;
+
+            chains.add(walkChain(adjacency, visited, node, neighbours.getInt(i)));
+        }
+    }
+
+    private LootrunPath walkChain(List<IntList> adjacency, LongSet visited, int start, int next) {
+        List<Vec3> points = new ArrayList<>();
+        points.add(getPosition(start));
+
+        int previous = start;
+        int current = next;
+        while (true) {
+            visited.add(getEdge(previous, current));
+            points.add(getPosition(current));
+
+            // Chains continue through nodes with exactly two edges, until they reach a split or close a cycle
+            IntList neighbours = adjacency.get(current);
+            if (neighbours.size() != 2 || current == start) break;
+
+            int following = neighbours.getInt(0) == previous ? neighbours.getInt(1) : neighbours.getInt(0);
+            if (visited.contains(getEdge(current, following))) break;
+
+            previous = current;
+            current = following;
+        }
+
+        return new LootrunPath(points);
+    }
+
+    private Vec3 getPosition(int node) {
+        return new Vec3(xs.getDouble(node), ys.getDouble(node), zs.getDouble(node));
+    }
+
+    private static long getEdge(int first, int second) {
+        return ((long) Math.min(first, second) << 32) | Math.max(first, second);
+    }
+
+    private static int getCell(double coordinate) {
+        return Mth.floor(coordinate / SNAP_DISTANCE);
+    }
+}
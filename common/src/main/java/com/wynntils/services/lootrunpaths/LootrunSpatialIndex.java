@@ -0,0 +1,141 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.LootrunLibraryEntry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import net.minecraft.core.Position;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.AABB;
+
+/**
+ * A grid index over the lootruns of the library, answering which routes pass through a chunk,
+ * which route starts closest to a position, and which routes pass through a box.
+ *
+ * <p>Routes are indexed by the chunks stored in their library entries, so no lootrun has to be read or compiled.
+ * Their starts are additionally put in a coarse grid, so the nearest start is found by only looking at the cells
+ * around the position.
+ */
+public final class LootrunSpatialIndex {
+    static final LootrunSpatialIndex EMPTY = new LootrunSpatialIndex(List.of());
+
+    private static final int CELL_SHIFT = 8;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    private final List<LootrunLibraryEntry> source;
+
+    private final Long2ObjectMap<List<LootrunLibraryEntry>> routesByChunk = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<List<LootrunLibraryEntry>> startsByCell = new Long2ObjectOpenHashMap<>();
+
+    private int minStartCellX = Integer.MAX_VALUE;
+    private int minStartCellZ = Integer.MAX_VALUE;
+    private int maxStartCellX = Integer.MIN_VALUE;
+    private int maxStartCellZ = Integer.MIN_VALUE;
+
+    LootrunSpatialIndex(List<LootrunLibraryEntry> lootrunLibrary) {
+        this.source = lootrunLibrary;
+
+        lootrunLibrary.forEach(this::addRoute);
+    }
+
+    boolean isBuiltFrom(List<LootrunLibraryEntry> lootrunLibrary) {
+        return source == lootrunLibrary;
+    }
+
+    public List<LootrunLibraryEntry> getRoutesThroughChunk(ChunkPos chunkPos) {
+        return routesByChunk.getOrDefault(chunkPos.toLong(), List.of());
+    }
+
+    public Optional<LootrunLibraryEntry> getNearestStart(Position position) {
+        if (startsByCell.isEmpty()) return Optional.empty();
+
+        int cellX = getCell(position.x());
+        int cellZ = getCell(position.z());
+        int maxRing = Math.max(
+                Math.max(Math.abs(cellX - minStartCellX), Math.abs(cellX - maxStartCellX)),
+                Math.max(Math.abs(cellZ - minStartCellZ), Math.abs(cellZ - maxStartCellZ)));
+
+        LootrunLibraryEntry nearest = null;
+        // Compared squared, to avoid square roots
+        double nearestDistance = Double.MAX_VALUE;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int x = cellX - ring; x <= cellX + ring; x++) {
+                for (int z = cellZ - ring; z <= cellZ + ring; z++) {
+                    // Only the border of the ring, the inside has already been searched
+                    if (Math.abs(x - cellX) != ring && Math.abs(z - cellZ) != ring) continue;
+
+                    for (LootrunLibraryEntry entry : startsByCell.getOrDefault(ChunkPos.asLong(x, z), List.of())) {
+                        double distance = entry.start().distanceToSqr(position.x(), position.y(), position.z());
+                        if (distance < nearestDistance) {
+                            nearest = entry;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+
+            // Starts in the next rings are at least this far away
+            double ringDistance = (double) ring * CELL_SIZE;
+            if (nearestDistance <= ringDistance * ringDistance) break;
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    public List<LootrunLibraryEntry> getRoutesInBox(AABB box) {
+        // The boxes of the lootrun commands span at most 256 by 256 chunks, which are looked up one by one
+        Set<LootrunLibraryEntry> candidates = new LinkedHashSet<>();
+        for (int x = (int) Math.floor(box.minX) >> 4; x <= (int) Math.floor(box.maxX) >> 4; x++) {
+            for (int z = (int) Math.floor(box.minZ) >> 4; z <= (int) Math.floor(box.maxZ) >> 4; z++) {
+                candidates.addAll(getRoutesThroughChunk(new ChunkPos(x, z)));
+            }
+        }
+
+        // The chunks only tell the routes apart horizontally
+        List<LootrunLibraryEntry> routes = new ArrayList<>();
+        for (LootrunLibraryEntry entry : candidates) {
+            if (getSampledBoundingBox(entry).intersects(box)) {
+                routes.add(entry);
+            }
+        }
+
+        return routes;
+    }
+
+    private void addRoute(LootrunLibraryEntry entry) {
+        if (entry.pointCount() == 0) return;
+
+        for (long chunk : entry.chunks()) {
+            routesByChunk.computeIfAbsent(chunk, (chunkLong) -> new ArrayList<>()).add(entry);
+        }
+
+        int startCellX = getCell(entry.startX());
+        int startCellZ = getCell(entry.startZ());
+        startsByCell
+                .computeIfAbsent(ChunkPos.asLong(startCellX, startCellZ), (cell) -> new ArrayList<>())
+                .add(entry);
+
+        minStartCellX = Math.min(minStartCellX, startCellX);
+        minStartCellZ = Math.min(minStartCellZ, startCellZ);
+        maxStartCellX = Math.max(maxStartCellX, startCellX);
+        maxStartCellZ = Math.max(maxStartCellZ, startCellZ);
+    }
+
+    private static AABB getSampledBoundingBox(LootrunLibraryEntry entry) {
+        // The spline through the recorded points can overshoot them a little
+        return entry.boundingBox().inflate(1);
+    }
+
+    private static int getCell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.wynntils.features.LootrunFeature;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.List;
+
+/**
+ * Holds the baked path geometry of a lootrun, one {@link VertexBuffer} per chunk.
+ *
+ * <p>Compiled chunk paths are only ever changed at their end (see {@link IncrementalLootrunCompilation}),
+ * so a cheap signature of the chunk's path list is enough to notice that it has changed.
+ */
+public final class LootrunVertexBuffers {
+    private final Long2ObjectMap<ChunkBuffer> buffers = new Long2ObjectOpenHashMap<>();
+    private Long2ObjectMap<List<ColoredPath>> source = null;
+
+    void setSource(Long2ObjectMap<List<ColoredPath>> points) {
+        if (points == source) return;
+
+        clear();
+        source = points;
+    }
+
+    boolean isUpToDate(
+            long chunk,
+            List<ColoredPath> paths,
+            LootrunFeature.PathType pathType,
+            LootrunRenderer.LevelOfDetail levelOfDetail) {
+        ChunkBuffer buffer = buffers.get(chunk);
+        return buffer != null && buffer.matches(paths, pathType, levelOfDetail);
+    }
+
+    VertexBuffer get(long chunk) {
+        ChunkBuffer buffer = buffers.get(chunk);
+        return buffer == null ? null : buffer.vertexBuffer;
+    }
+
+    void update(
+            long chunk,
+            List<ColoredPath> paths,
+            LootrunFeature.PathType pathType,
+            LootrunRenderer.LevelOfDetail levelOfDetail,
+            BufferBuilder.RenderedBuffer renderedBuffer) {
+        invalidate(chunk);
+
+        VertexBuffer vertexBuffer = null;
+        if (renderedBuffer != null) {
+            vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+            vertexBuffer.bind();
+            vertexBuffer.upload(renderedBuffer);
+            VertexBuffer.unbind();
+        }
+
+        buffers.put(chunk, new ChunkBuffer(vertexBuffer, paths, pathType, levelOfDetail));
+    }
+
+    public void invalidate(long chunk) {
+        ChunkBuffer buffer = buffers.remove(chunk);
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    public void clear() {
+        buffers.values().forEach(ChunkBuffer::close);
+        buffers.clear();
+        source = null;
+    }
+
+    private static final class ChunkBuffer {
+        private final VertexBuffer vertexBuffer;
+        private final List<ColoredPath> paths;
+        private final LootrunFeature.PathType pathType;
+        private final LootrunRenderer.LevelOfDetail levelOfDetail;
+        private final int pathCount;
+        private final ColoredPath lastPath;
+        private final int lastPathModificationCount;
+
+        private ChunkBuffer(
+                VertexBuffer vertexBuffer,
+                List<ColoredPath> paths,
+                LootrunFeature.PathType pathType,
+                LootrunRenderer.LevelOfDetail levelOfDetail) {
+            this.vertexBuffer = vertexBuffer;
+            this.paths = paths;
+            this.pathType = pathType;
+            this.levelOfDetail = levelOfDetail;
+            this.pathCount = paths.size();
+            this.lastPath = getLastPath(paths);
+            this.lastPathModificationCount = lastPath == null ? 0 : lastPath.getModificationCount();
+        }
+
+        private boolean matches(
+                List<ColoredPath> paths,
+                LootrunFeature.PathType pathType,
+                LootrunRenderer.LevelOfDetail levelOfDetail) {
+            return this.paths == paths
+                    && this.pathType == pathType
+                    && this.levelOfDetail == levelOfDetail
+                    && pathCount == paths.size()
+                    && lastPath == getLastPath(paths)
+                    && (lastPath == null || lastPathModificationCount == lastPath.getModificationCount());
+        }
+
+        private void close() {
+            if (vertexBuffer != null) {
+                vertexBuffer.close();
+            }
+        }
+
+        private static ColoredPath getLastPath(List<ColoredPath> paths) {
+            return paths.isEmpty() ? null : paths.get(paths.size() - 1);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.services.lootrunpaths;
@@ -11,6 +11,7 @@ class RecordingInformation {
     private Vec3 lastLocation;
     private BlockPos lastChest;
     private boolean dirty;
+    private IncrementalLootrunCompilation compilation;
 
     protected Vec3 getLastLocation() {
         return lastLocation;
@@ -35,4 +36,12 @@ class RecordingInformation {
     protected void setDirty(boolean dirty) {
         this.dirty = dirty;
     }
+
+    protected IncrementalLootrunCompilation getCompilation() {
+        return compilation;
+    }
+
+    protected void setCompilation(IncrementalLootrunCompilation compilation) {
+        this.compilation = compilation;
+    }
 }
@@ -1,11 +1,12 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.services.lootrunpaths.type;
 
 import com.wynntils.utils.mc.PosUtils;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Position;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
@@ -15,7 +16,7 @@ public enum BlockValidness {
     HAS_BARRIER,
     INVALID;
 
-    public static BlockValidness checkBlockValidness(Level level, ColoredPosition point) {
+    public static BlockValidness checkBlockValidness(Level level, Position point) {
         BlockValidness state = INVALID;
         Iterable<BlockPos> blocks = getBlocksForPoint(point);
 
@@ -32,15 +33,9 @@ public enum BlockValidness {
         return state;
     }
 
-    private static Iterable<BlockPos> getBlocksForPoint(ColoredPosition loc) {
-        BlockPos minPos = PosUtils.newBlockPos(
-                loc.position().x() - 0.3D,
-                loc.position().y() - 1D,
-                loc.position().z() - 0.3D);
-        BlockPos maxPos = PosUtils.newBlockPos(
-                loc.position().x() + 0.3D,
-                loc.position().y() - 1D,
-                loc.position().z() + 0.3D);
+    public static Iterable<BlockPos> getBlocksForPoint(Position loc) {
+        BlockPos minPos = PosUtils.newBlockPos(loc.x() - 0.3D, loc.y() - 1D, loc.z() - 0.3D);
+        BlockPos maxPos = PosUtils.newBlockPos(loc.x() + 0.3D, loc.y() - 1D, loc.z() + 0.3D);
 
         return BlockPos.betweenClosed(minPos, maxPos);
     }
@@ -1,9 +1,127 @@
 /*
- * Copyright © Wynntils 2023.
+ * Copyright © Wynntils 2023-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.services.lootrunpaths.type;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import net.minecraft.world.phys.Vec3;
 
-public record ColoredPath(List<ColoredPosition> points) {}
+/**
+ * A compiled path, stored as one primitive array per coordinate and one for the colors.
+ * Points are only ever added to or removed from the end of the path.
+ */
+public final class ColoredPath {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private int[] colors;
+    private int size = 0;
+    private int modificationCount = 0;
+
+    public ColoredPath() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ColoredPath(int capacity) {
+        xs = new float[capacity];
+        ys = new float[capacity];
+        zs = new float[capacity];
+        colors = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float x(int index) {
+        return xs[index];
+    }
+
+    public float y(int index) {
+        return ys[index];
+    }
+
+    public float z(int index) {
+        return zs[index];
+    }
+
+    public int color(int index) {
+        return colors[index];
+    }
+
+    /**
+     * Returns a count that changes whenever points are added or removed,
+     * so views of the path can tell it has changed.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    public void add(double x, double y, double z, int color) {
+        if (size == xs.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            zs = Arrays.copyOf(zs, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+        }
+
+        xs[size] = (float) x;
+        ys[size] = (float) y;
+        zs[size] = (float) z;
+        colors[size] = color;
+        size++;
+        modificationCount++;
+    }
+
+    public void add(ColoredPath other, int index) {
+        add(other.x(index), other.y(index), other.z(index), other.color(index));
+    }
+
+    public void truncate(int newSize) {
+        if (newSize >= size) return;
+
+        size = newSize;
+        modificationCount++;
+    }
+
+    public void trimToSize() {
+        xs = Arrays.copyOf(xs, size);
+        ys = Arrays.copyOf(ys, size);
+        zs = Arrays.copyOf(zs, size);
+        colors = Arrays.copyOf(colors, size);
+    }
+
+    public ColoredPosition get(int index) {
+        return new ColoredPosition(new Vec3(xs[index], ys[index], zs[index]), colors[index]);
+    }
+
+    /**
+     * Returns a read-only view of the points of this path. Each access creates a new {@link ColoredPosition},
+     * prefer the primitive accessors in hot code.
+     */
+    public List<ColoredPosition> points() {
+        return new AbstractList<>() {
+            @Override
+            public ColoredPosition get(int index) {
+                if (index >= size) throw new IndexOutOfBoundsException(index);
+
+                return ColoredPath.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
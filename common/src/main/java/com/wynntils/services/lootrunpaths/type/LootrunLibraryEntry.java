@@ -0,0 +1,43 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths.type;
+
+import java.util.List;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Summary of a saved lootrun file, which is persisted so the lootrun library can be listed and searched
+ * without parsing and compiling every file. The chunks are the ones the points of the lootrun pass through.
+ */
+public record LootrunLibraryEntry(
+        String fileName,
+        long lastModified,
+        int pointCount,
+        double minX,
+        double minY,
+        double minZ,
+        double maxX,
+        double maxY,
+        double maxZ,
+        double startX,
+        double startY,
+        double startZ,
+        int chestCount,
+        double totalLength,
+        List<Long> chunks) {
+    public String name() {
+        // Matches the name of the compiled lootrun, binary lootruns keep their extension
+        return fileName.replace(".json", "");
+    }
+
+    public Vec3 start() {
+        return new Vec3(startX, startY, startZ);
+    }
+
+    public AABB boundingBox() {
+        return new AABB(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022-2023.
+ * Copyright © Wynntils 2022-2024.
  * This file is released under LGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.utils;
@@ -11,7 +11,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileSystemException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Objects;
+import org.apache.commons.lang3.RandomStringUtils;
 
 public final class FileUtils {
     /**
@@ -75,6 +78,19 @@ public final class FileUtils {
         }
     }
 
+    /**
+     * Moves a file that could not be read out of the way, so a new one can be written in its place. The file is
+     * kept next to its old location with an "invalid_" name, as it may still contain data that can be recovered.
+     */
+    public static void moveInvalidFile(File file) {
+        String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+        moveFile(
+                file,
+                new File(
+                        file.getParentFile(),
+                        "invalid_" + time + "_" + RandomStringUtils.randomAlphanumeric(5) + "_" + file.getName()));
+    }
+
     public static void tryCopyFile(File sourceFile, File destFile) {
         try {
             copyFile(sourceFile, destFile);
@@ -7,6 +7,7 @@ package com.wynntils.utils.mc;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.wynntils.core.text.StyledText;
@@ -26,10 +27,14 @@ import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
 
 public final class LoreUtils {
+    // The style ItemStack#getTooltipLines gives to lore lines
+    private static final Style LORE_STYLE = Style.EMPTY.withColor(ChatFormatting.DARK_PURPLE).withItalic(true);
+
     /**
      * Get the lore from an item, note that it may not be fully parsed. To do so, check out {@link
      * ComponentUtils}
@@ -198,6 +203,41 @@ public final class LoreUtils {
         return itemStack.getTooltipLines(McUtils.player(), flag);
     }
 
+    /**
+     * Returns the name and lore lines of the item like {@link #getTooltipLines(ItemStack)} does if all other parts of
+     * the tooltip are hidden. The lines are built from the tag of the item, so unlike getting the tooltip lines, this
+     * doesn't fire tooltip events or read the player, and can be used off the main thread.
+     */
+    public static List<Component> getNameAndLoreLines(ItemStack itemStack) {
+        List<Component> lines = new ArrayList<>();
+
+        MutableComponent name =
+                Component.empty().append(itemStack.getHoverName()).withStyle(itemStack.getRarity().color);
+        if (itemStack.hasCustomHoverName()) {
+            name.withStyle(ChatFormatting.ITALIC);
+        }
+        lines.add(name);
+
+        ListTag loreTag = getLoreTag(itemStack);
+        if (loreTag == null) return lines;
+
+        for (int i = 0; i < loreTag.size(); i++) {
+            MutableComponent line;
+            try {
+                line = Component.Serializer.fromJson(loreTag.getString(i));
+            } catch (JsonParseException e) {
+                // Minecraft stops showing the lore at the first invalid line as well
+                break;
+            }
+
+            if (line != null) {
+                lines.add(line.setStyle(line.getStyle().applyTo(LORE_STYLE)));
+            }
+        }
+
+        return lines;
+    }
+
     public static List<Component> appendTooltip(
             ItemStack itemStack, List<Component> baseTooltip, List<Component> tooltipAddon) {
         if (McUtils.options().advancedItemTooltips) {
@@ -21,6 +21,7 @@ import com.wynntils.utils.colors.CustomColor;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.render.buffered.CustomRenderType;
 import com.wynntils.utils.render.type.PointerType;
+import com.wynntils.utils.type.BoundingBox;
 import java.util.ArrayList;
 import java.util.List;
 import net.minecraft.client.renderer.GameRenderer;
@@ -194,6 +195,12 @@ public final class MapRenderer {
         poseStack.popPose();
     }
 
+    /**
+     * Draws the parts of the lootrun path that are in view, simplified for the current zoom.
+     *
+     * @param mapWidth the width of the view, in screen render coordinates
+     * @param mapHeight the height of the view, in screen render coordinates
+     */
     public static void renderLootrunLine(
             LootrunPathInstance lootrun,
             float lootrunWidth,
@@ -203,10 +210,19 @@ public final class MapRenderer {
             float centerZ,
             float mapTextureX,
             float mapTextureZ,
+            float mapWidth,
+            float mapHeight,
             float currentZoom,
             int lootrunColor,
             int outlineColor) {
-        if (lootrun.simplifiedPath().size() < 3) return;
+        if (lootrun.mapPath().size() < 3) return;
+
+        // Include lines just outside the viewport, whose outline is still visible
+        float margin = outlineWidth * 2;
+        BoundingBox viewport = BoundingBox.centered(
+                mapTextureX, mapTextureZ, (mapWidth + margin) / currentZoom, (mapHeight + margin) / currentZoom);
+        List<List<Vector2d>> parts = lootrun.mapPath().getVisibleParts(currentZoom, viewport);
+        if (parts.isEmpty()) return;
 
         BufferBuilder bufferBuilder = Tesselator.getInstance().getBuilder();
         bufferBuilder.begin(VertexFormat.Mode.TRIANGLES, DefaultVertexFormat.POSITION_COLOR);
@@ -214,12 +230,45 @@ public final class MapRenderer {
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
         RenderSystem.disableCull();
 
+        for (List<Vector2d> part : parts) {
+            renderLootrunPart(
+                    bufferBuilder,
+                    part,
+                    lootrunWidth,
+                    outlineWidth,
+                    poseStack,
+                    centerX,
+                    centerZ,
+                    mapTextureX,
+                    mapTextureZ,
+                    currentZoom,
+                    lootrunColor,
+                    outlineColor);
+        }
+
+        BufferUploader.drawWithShader(bufferBuilder.end());
+        RenderSystem.enableCull();
+    }
+
+    private static void renderLootrunPart(
+            BufferBuilder bufferBuilder,
+            List<Vector2d> part,
+            float lootrunWidth,
+            float outlineWidth,
+            PoseStack poseStack,
+            float centerX,
+            float centerZ,
+            float mapTextureX,
+            float mapTextureZ,
+            float currentZoom,
+            int lootrunColor,
+            int outlineColor) {
         List<Vector2f> points = new ArrayList<>();
 
         List<Vector2f> middlePoints = new ArrayList<>();
 
         Vector2f last = null;
-        for (Vector2d point : lootrun.simplifiedPath()) {
+        for (Vector2d point : part) {
             Vector2f screenPos = new Vector2f(
                     getRenderX((int) point.x(), mapTextureX, centerX, currentZoom),
                     getRenderZ((int) point.y(), mapTextureZ, centerZ, currentZoom));
@@ -265,9 +314,6 @@ public final class MapRenderer {
                     lootrunColor,
                     lootrunWidth);
         }
-
-        BufferUploader.drawWithShader(bufferBuilder.end());
-        RenderSystem.enableCull();
     }
 
     private static void drawTriangles(
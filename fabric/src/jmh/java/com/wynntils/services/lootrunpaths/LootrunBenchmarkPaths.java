@@ -0,0 +1,85 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Creates the lootruns the lootrun benchmarks run over. They are generated from a fixed seed rather than read from
+ * recorded lootruns, so every run on every checkout measures the same lootruns.
+ */
+final class LootrunBenchmarkPaths {
+    private static final long SEED = 0x57594e4eL;
+    private static final int CHEST_SPACING = 500;
+    private static final int NOTE_SPACING = 2000;
+    // Long enough to split the path into segments, as teleports do
+    private static final int JUMP_SPACING = 5000;
+    private static final double JUMP_DISTANCE = 64;
+
+    private static boolean bootstrapped = false;
+
+    private LootrunBenchmarkPaths() {}
+
+    /**
+     * Loads the registries, which chat components and block positions need.
+     */
+    static synchronized void bootstrap() {
+        if (bootstrapped) return;
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        bootstrapped = true;
+    }
+
+    /**
+     * Generates a walk with the speed of a player and a slowly changing heading over hilly terrain,
+     * with chests, notes and teleports in between.
+     */
+    static UncompiledLootrunPath create(int pointCount) {
+        Random random = new Random(SEED);
+        List<Vec3> points = new ArrayList<>(pointCount);
+        Set<BlockPos> chests = new HashSet<>();
+        List<LootrunNote> notes = new ArrayList<>();
+
+        double x = 0;
+        double z = 0;
+        double heading = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (i > 0 && i % JUMP_SPACING == 0) {
+                x += JUMP_DISTANCE * Math.cos(heading);
+                z += JUMP_DISTANCE * Math.sin(heading);
+            }
+
+            double speed = 0.2 + random.nextDouble() * 0.4;
+            heading += (random.nextDouble() - 0.5) * 0.2;
+            x += speed * Math.cos(heading);
+            z += speed * Math.sin(heading);
+            double y = 64 + 8 * Math.sin(x / 32) + 4 * Math.cos(z / 16);
+
+            Vec3 point = new Vec3(x, y, z);
+            points.add(point);
+
+            if (i % CHEST_SPACING == 0) {
+                chests.add(BlockPos.containing(point).offset(2, 0, 2));
+            }
+            if (i % NOTE_SPACING == 0) {
+                notes.add(new LootrunNote(point.add(0, 2, 0), Component.literal("Note " + i)));
+            }
+        }
+
+        return new UncompiledLootrunPath(new LootrunPath(points), chests, notes, null);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LootrunCompilerBenchmark {
+    private static final int PATH_COLOR = 0x00ffff;
+    private static final int CYCLE_DISTANCE = 20;
+    private static final double SIMPLIFY_TOLERANCE = 0.25;
+
+    @Param({"1000", "10000", "100000"})
+    private int points;
+
+    private UncompiledLootrunPath lootrun;
+    private ColoredPath path;
+    private IntList indices;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LootrunBenchmarkPaths.bootstrap();
+        lootrun = LootrunBenchmarkPaths.create(points);
+
+        path = new ColoredPath(points);
+        indices = new IntArrayList(points);
+        for (Vec3 point : lootrun.path().points()) {
+            indices.add(path.size());
+            path.add(point.x(), point.y(), point.z(), PATH_COLOR);
+        }
+    }
+
+    @Benchmark
+    public LootrunPathInstance compileStatic() {
+        return LootrunCompiler.compile(lootrun, false, PATH_COLOR, true, CYCLE_DISTANCE);
+    }
+
+    @Benchmark
+    public LootrunPathInstance compileRecording() {
+        return LootrunCompiler.compile(lootrun, true, PATH_COLOR, false, CYCLE_DISTANCE);
+    }
+
+    @Benchmark
+    public IntList simplify() {
+        return LootrunCompiler.simplifyPath(path, indices, SIMPLIFY_TOLERANCE);
+    }
+}
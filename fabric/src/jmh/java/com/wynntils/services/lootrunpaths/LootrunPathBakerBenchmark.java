@@ -0,0 +1,144 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.wynntils.services.lootrunpaths.type.BlockValidness;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import net.minecraft.core.Position;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Bakes the vertices of all chunks of a compiled lootrun, into a consumer that discards them,
+ * so only the vertex generation is measured and no render state is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LootrunPathBakerBenchmark {
+    private static final int PATH_COLOR = 0x00ffff;
+    private static final int CYCLE_DISTANCE = 20;
+    private static final Function<Position, BlockValidness> ALL_VALID = (position) -> BlockValidness.VALID;
+
+    @Param({"1000", "10000", "100000"})
+    private int points;
+
+    @Param({"FULL", "REDUCED", "LOW"})
+    private String levelOfDetail;
+
+    private Long2ObjectMap<List<ColoredPath>> pointsByChunk;
+    private LootrunRenderer.LevelOfDetail detail;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LootrunBenchmarkPaths.bootstrap();
+        UncompiledLootrunPath lootrun = LootrunBenchmarkPaths.create(points);
+
+        pointsByChunk = LootrunCompiler.compile(lootrun, false, PATH_COLOR, true, CYCLE_DISTANCE).points();
+        detail = LootrunRenderer.LevelOfDetail.valueOf(levelOfDetail);
+    }
+
+    @Benchmark
+    public void bakeLines(Blackhole blackhole) {
+        VertexConsumer consumer = new BlackholeVertexConsumer(blackhole);
+        for (Long2ObjectMap.Entry<List<ColoredPath>> chunk : pointsByChunk.long2ObjectEntrySet()) {
+            LootrunPathBaker.bakeLines(consumer, chunk.getValue(), ALL_VALID, detail, getOrigin(chunk.getLongKey()));
+        }
+    }
+
+    @Benchmark
+    public void bakeArrows(Blackhole blackhole) {
+        VertexConsumer consumer = new BlackholeVertexConsumer(blackhole);
+        for (Long2ObjectMap.Entry<List<ColoredPath>> chunk : pointsByChunk.long2ObjectEntrySet()) {
+            LootrunPathBaker.bakeArrows(consumer, chunk.getValue(), ALL_VALID, detail, getOrigin(chunk.getLongKey()));
+        }
+    }
+
+    private static Vec3 getOrigin(long chunkLong) {
+        return new Vec3(
+                SectionPos.sectionToBlockCoord(ChunkPos.getX(chunkLong)),
+                0,
+                SectionPos.sectionToBlockCoord(ChunkPos.getZ(chunkLong)));
+    }
+
+    private static final class BlackholeVertexConsumer implements VertexConsumer {
+        private final Blackhole blackhole;
+
+        private BlackholeVertexConsumer(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public VertexConsumer vertex(double x, double y, double z) {
+            blackhole.consume(x);
+            blackhole.consume(y);
+            blackhole.consume(z);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int red, int green, int blue, int alpha) {
+            blackhole.consume(red);
+            blackhole.consume(green);
+            blackhole.consume(blue);
+            blackhole.consume(alpha);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv(float u, float v) {
+            blackhole.consume(u);
+            blackhole.consume(v);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer overlayCoords(int u, int v) {
+            blackhole.consume(u);
+            blackhole.consume(v);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv2(int u, int v) {
+            blackhole.consume(u);
+            blackhole.consume(v);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer normal(float x, float y, float z) {
+            blackhole.consume(x);
+            blackhole.consume(y);
+            blackhole.consume(z);
+            return this;
+        }
+
+        @Override
+        public void endVertex() {}
+
+        @Override
+        public void defaultColor(int red, int green, int blue, int alpha) {}
+
+        @Override
+        public void unsetDefaultColor() {}
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LootrunPathFileParserBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int points;
+
+    private UncompiledLootrunPath lootrun;
+    private File directory;
+    private File readFile;
+    private File writeFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        LootrunBenchmarkPaths.bootstrap();
+        lootrun = LootrunBenchmarkPaths.create(points);
+
+        directory = Files.createTempDirectory("wynntils-lootrun-benchmark").toFile();
+        readFile = new File(directory, "read" + LootrunPathFileParser.JSON_EXTENSION);
+        writeFile = new File(directory, "write" + LootrunPathFileParser.JSON_EXTENSION);
+
+        LootrunSaveResult result = LootrunPathFileParser.writeJson(lootrun, readFile);
+        if (result != LootrunSaveResult.SAVED) {
+            throw new IllegalStateException("Could not write " + readFile + ": " + result);
+        }
+    }
+
+    // writeJson refuses to overwrite files
+    @Setup(Level.Invocation)
+    public void deleteWriteFile() {
+        writeFile.delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        readFile.delete();
+        writeFile.delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public UncompiledLootrunPath readJson() throws IOException {
+        try (FileReader reader = new FileReader(readFile, StandardCharsets.UTF_8)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            return LootrunPathFileParser.readJson(readFile, json);
+        }
+    }
+
+    @Benchmark
+    public LootrunSaveResult writeJson() {
+        return LootrunPathFileParser.writeJson(lootrun, writeFile);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestBeaconAssignmentSolver {
+    // The solver is internal to the lootrun model
+    private static Method solve;
+
+    @BeforeAll
+    public static void setup() throws ReflectiveOperationException {
+        solve = Class.forName("com.wynntils.models.lootrun.BeaconAssignmentSolver")
+                .getDeclaredMethod("solve", double[][].class);
+        solve.setAccessible(true);
+    }
+
+    @Test
+    public void beaconAssignmentSolver_findsOptimalAssignment() {
+        // The greedy choice of the lowest cost in the first row is not optimal
+        double[][] costs = {
+            {1, 2, 9},
+            {1, 9, 9},
+            {9, 9, 1}
+        };
+
+        Assertions.assertArrayEquals(
+                new int[] {1, 0, 2}, solve(costs), "BeaconAssignmentSolver.solve() returned an unexpected assignment.");
+    }
+
+    @Test
+    public void beaconAssignmentSolver_leavesBestColumnsUnassigned() {
+        double[][] costs = {
+            {5, 1, 7, 3},
+            {2, 6, 4, 8}
+        };
+
+        Assertions.assertArrayEquals(
+                new int[] {1, 0}, solve(costs), "BeaconAssignmentSolver.solve() returned an unexpected assignment.");
+    }
+
+    @Test
+    public void beaconAssignmentSolver_avoidsInfeasibleAssignments() throws ReflectiveOperationException {
+        Field infeasibleField = solve.getDeclaringClass().getDeclaredField("INFEASIBLE");
+        infeasibleField.setAccessible(true);
+        double infeasible = infeasibleField.getDouble(null);
+        double[][] costs = {
+            {infeasible, 10, infeasible},
+            {infeasible, infeasible, 10},
+            {10, infeasible, infeasible}
+        };
+
+        Assertions.assertArrayEquals(
+                new int[] {1, 2, 0}, solve(costs), "BeaconAssignmentSolver.solve() chose an infeasible assignment.");
+    }
+
+    @Test
+    public void beaconAssignmentSolver_matchesBruteForce() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            int rows = 1 + random.nextInt(5);
+            int columns = rows + random.nextInt(3);
+            double[][] costs = new double[rows][columns];
+            for (double[] row : costs) {
+                for (int j = 0; j < columns; j++) {
+                    // Few distinct values, so there are many ties
+                    row[j] = random.nextInt(10);
+                }
+            }
+
+            int[] assignment = solve(costs);
+
+            Assertions.assertEquals(rows, assignment.length, "Not every row was assigned.");
+            boolean[] used = new boolean[columns];
+            for (int column : assignment) {
+                Assertions.assertFalse(used[column], "A column was assigned to several rows.");
+                used[column] = true;
+            }
+            Assertions.assertEquals(
+                    bruteForce(costs, 0, new boolean[columns]),
+                    getCost(costs, assignment),
+                    "BeaconAssignmentSolver.solve() returned an assignment that is not optimal.");
+        }
+    }
+
+    @Test
+    public void beaconAssignmentSolver_handlesEmptyAndInvalidInput() {
+        Assertions.assertArrayEquals(new int[0], solve(new double[0][]), "Solving nothing assigned something.");
+
+        InvocationTargetException exception = Assertions.assertThrows(
+                InvocationTargetException.class, () -> solve.invoke(null, (Object) new double[][] {{1}, {2}}));
+        Assertions.assertInstanceOf(
+                IllegalArgumentException.class,
+                exception.getCause(),
+                "Solving with more rows than columns did not throw an IllegalArgumentException.");
+    }
+
+    private static int[] solve(double[][] costs) {
+        try {
+            return (int[]) solve.invoke(null, (Object) costs);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static double getCost(double[][] costs, int[] assignment) {
+        double cost = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            cost += costs[row][assignment[row]];
+        }
+        return cost;
+    }
+
+    private static double bruteForce(double[][] costs, int row, boolean[] used) {
+        if (row == costs.length) return 0;
+
+        double best = Double.MAX_VALUE;
+        for (int column = 0; column < used.length; column++) {
+            if (used[column]) continue;
+
+            used[column] = true;
+            best = Math.min(best, costs[row][column] + bruteForce(costs, row + 1, used));
+            used[column] = false;
+        }
+        return best;
+    }
+}
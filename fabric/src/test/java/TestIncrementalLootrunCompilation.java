@@ -0,0 +1,160 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import com.wynntils.services.lootrunpaths.LootrunPathInstance;
+import com.wynntils.services.lootrunpaths.UncompiledLootrunPath;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.phys.Vec3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestIncrementalLootrunCompilation {
+    private static final int COLOR = 0xff00ff00;
+    private static final float EPSILON = 1e-4f;
+
+    // Both the incremental compilation and the compiler overload without config are internal to the service
+    private static Constructor<?> compilationConstructor;
+    private static Method canAppend;
+    private static Method appendNewPoints;
+    private static Method getPoints;
+    private static Method compile;
+
+    @BeforeAll
+    public static void setup() throws ReflectiveOperationException {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        Class<?> compilation = Class.forName("com.wynntils.services.lootrunpaths.IncrementalLootrunCompilation");
+        compilationConstructor = compilation.getDeclaredConstructor(int.class);
+        compilationConstructor.setAccessible(true);
+        canAppend = compilation.getDeclaredMethod("canAppend", List.class, int.class);
+        canAppend.setAccessible(true);
+        appendNewPoints = compilation.getDeclaredMethod("appendNewPoints", List.class);
+        appendNewPoints.setAccessible(true);
+        getPoints = compilation.getDeclaredMethod("getPoints");
+        getPoints.setAccessible(true);
+
+        compile = Class.forName("com.wynntils.services.lootrunpaths.LootrunCompiler")
+                .getDeclaredMethod(
+                        "compile", UncompiledLootrunPath.class, boolean.class, int.class, boolean.class, int.class);
+        compile.setAccessible(true);
+    }
+
+    @Test
+    public void incrementalCompilation_matchesCompilingAtOnce() throws ReflectiveOperationException {
+        List<Vec3> path = createPath();
+
+        Object compilation = compilationConstructor.newInstance(COLOR);
+        appendNewPoints.invoke(compilation, path);
+
+        assertSamePoints(compileAtOnce(path), getPoints(compilation));
+    }
+
+    @Test
+    public void incrementalCompilation_matchesCompilingAtOnceWhenAppendingPointByPoint()
+            throws ReflectiveOperationException {
+        List<Vec3> path = createPath();
+        List<Vec3> recording = new ArrayList<>();
+
+        Object compilation = compilationConstructor.newInstance(COLOR);
+        for (Vec3 point : path) {
+            recording.add(point);
+            Assertions.assertTrue(
+                    (boolean) canAppend.invoke(compilation, recording, COLOR),
+                    "A recording with a new point can't be appended to its compilation.");
+            appendNewPoints.invoke(compilation, recording);
+
+            // Every intermediate state matches compiling the recording so far
+            assertSamePoints(compileAtOnce(recording), getPoints(compilation));
+        }
+    }
+
+    @Test
+    public void incrementalCompilation_onlyAppendsToSameRecording() throws ReflectiveOperationException {
+        List<Vec3> recording = new ArrayList<>(createPath());
+
+        Object compilation = compilationConstructor.newInstance(COLOR);
+        appendNewPoints.invoke(compilation, recording);
+
+        Assertions.assertTrue(
+                (boolean) canAppend.invoke(compilation, recording, COLOR),
+                "An unchanged recording can't be appended to its compilation.");
+        Assertions.assertFalse(
+                (boolean) canAppend.invoke(compilation, recording, 0xffff0000),
+                "A recording can be appended to a compilation with another color.");
+        Assertions.assertFalse(
+                (boolean) canAppend.invoke(compilation, recording.subList(0, recording.size() - 1), COLOR),
+                "A recording with less points can be appended to its compilation.");
+
+        // Undoing the last point and recording another one in its place
+        Vec3 last = recording.remove(recording.size() - 1);
+        recording.add(new Vec3(last.x, last.y, last.z));
+        Assertions.assertFalse(
+                (boolean) canAppend.invoke(compilation, recording, COLOR),
+                "A recording with a replaced point can be appended to its compilation.");
+    }
+
+    // Walks through several chunks, with a jump to another place and a jump straight up within the same chunk
+    private static List<Vec3> createPath() {
+        List<Vec3> path = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            path.add(new Vec3(i * 1.5, 64 + Math.sin(i / 3.0), i * 0.75 - 10));
+        }
+        for (int i = 0; i < 10; i++) {
+            path.add(new Vec3(200 + i, 70, 200 - i * 0.5));
+        }
+        for (int i = 0; i < 10; i++) {
+            path.add(new Vec3(209 + i * 0.1, 120, 195.5 + i * 0.1));
+        }
+        return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long2ObjectMap<List<ColoredPath>> getPoints(Object compilation) throws ReflectiveOperationException {
+        return (Long2ObjectMap<List<ColoredPath>>) getPoints.invoke(compilation);
+    }
+
+    private static Long2ObjectMap<List<ColoredPath>> compileAtOnce(List<Vec3> path)
+            throws ReflectiveOperationException {
+        UncompiledLootrunPath uncompiled =
+                new UncompiledLootrunPath(new LootrunPath(List.copyOf(path)), Set.of(), List.of(), null);
+        LootrunPathInstance instance = (LootrunPathInstance) compile.invoke(null, uncompiled, true, COLOR, false, 1);
+        return instance.points();
+    }
+
+    private static void assertSamePoints(
+            Long2ObjectMap<List<ColoredPath>> expected, Long2ObjectMap<List<ColoredPath>> actual) {
+        Assertions.assertEquals(expected.keySet(), actual.keySet(), "The paths are in different chunks.");
+
+        for (long chunk : expected.keySet()) {
+            List<ColoredPath> expectedPaths = expected.get(chunk);
+            List<ColoredPath> actualPaths = actual.get(chunk);
+            Assertions.assertEquals(
+                    expectedPaths.size(), actualPaths.size(), "A chunk has a different number of paths.");
+
+            for (int i = 0; i < expectedPaths.size(); i++) {
+                ColoredPath expectedPath = expectedPaths.get(i);
+                ColoredPath actualPath = actualPaths.get(i);
+                Assertions.assertEquals(expectedPath.size(), actualPath.size(), "A path has a different length.");
+
+                for (int j = 0; j < expectedPath.size(); j++) {
+                    Assertions.assertEquals(expectedPath.x(j), actualPath.x(j), EPSILON, "A sample differs.");
+                    Assertions.assertEquals(expectedPath.y(j), actualPath.y(j), EPSILON, "A sample differs.");
+                    Assertions.assertEquals(expectedPath.z(j), actualPath.z(j), EPSILON, "A sample differs.");
+                    Assertions.assertEquals(expectedPath.color(j), actualPath.color(j), "A sample has another color.");
+                }
+            }
+        }
+    }
+}
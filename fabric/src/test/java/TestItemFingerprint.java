@@ -0,0 +1,115 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import com.wynntils.handlers.item.ItemFingerprint;
+import com.wynntils.mc.extension.ItemStackExtension;
+import com.wynntils.utils.mc.LoreUtils;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestItemFingerprint {
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    @Test
+    public void itemFingerprint_isStableForEqualItems() {
+        ItemStack first = createItem("§bSword", "§7Line 1", "§7Line 2");
+        ItemStack second = createItem("§bSword", "§7Line 1", "§7Line 2");
+
+        ItemFingerprint fingerprint = ItemFingerprint.of(first);
+
+        Assertions.assertEquals(
+                fingerprint, ItemFingerprint.of(first), "ItemFingerprint.of() is not stable for the same item.");
+        Assertions.assertEquals(
+                fingerprint, ItemFingerprint.of(second), "ItemFingerprint.of() differs for equal items.");
+        Assertions.assertEquals(
+                fingerprint.getHash(),
+                ItemFingerprint.of(second).getHash(),
+                "ItemFingerprint.getHash() differs for equal items.");
+        Assertions.assertEquals(2, fingerprint.getLoreLineCount(), "ItemFingerprint has the wrong lore line count.");
+    }
+
+    @Test
+    public void itemFingerprint_tellsNameAndLoreApart() {
+        ItemFingerprint fingerprint = ItemFingerprint.of(createItem("§bSword", "§7Line 1", "§7Line 2"));
+        ItemFingerprint renamed = ItemFingerprint.of(createItem("§bAxe", "§7Line 1", "§7Line 2"));
+        ItemFingerprint changedLore = ItemFingerprint.of(createItem("§bSword", "§7Line 1", "§7Line 3"));
+
+        Assertions.assertNotEquals(fingerprint, renamed, "ItemFingerprint is equal for items with different names.");
+        Assertions.assertFalse(fingerprint.isNameMatching(renamed), "Different names are matching.");
+        Assertions.assertTrue(fingerprint.isLoreMatching(renamed), "Equal lore is not matching.");
+
+        Assertions.assertNotEquals(fingerprint, changedLore, "ItemFingerprint is equal for items with different lore.");
+        Assertions.assertTrue(fingerprint.isNameMatching(changedLore), "Equal names are not matching.");
+        Assertions.assertFalse(fingerprint.isLoreMatching(changedLore), "Different lore is matching.");
+
+        // Only the changed line has a different hash
+        Assertions.assertEquals(
+                fingerprint.getLoreLineHash(0), changedLore.getLoreLineHash(0), "An unchanged lore line differs.");
+        Assertions.assertNotEquals(
+                fingerprint.getLoreLineHash(1), changedLore.getLoreLineHash(1), "A changed lore line is equal.");
+    }
+
+    @Test
+    public void itemFingerprint_countsLoreLines() {
+        ItemFingerprint fingerprint = ItemFingerprint.of(createItem("§bSword", "§7Line"));
+        ItemFingerprint moreLines = ItemFingerprint.of(createItem("§bSword", "§7Line", ""));
+        ItemFingerprint noLore = ItemFingerprint.of(new ItemStack(Items.DIAMOND_SWORD));
+
+        Assertions.assertFalse(fingerprint.isLoreMatching(moreLines), "Lore with an extra empty line is matching.");
+        Assertions.assertEquals(0, noLore.getLoreLineCount(), "An item without lore has lore lines.");
+        Assertions.assertNotEquals(
+                noLore,
+                ItemFingerprint.of(new ItemStack(Items.DIAMOND_AXE)),
+                "ItemFingerprint is equal for different items without a custom name.");
+    }
+
+    @Test
+    public void itemFingerprint_isInvalidatedWhenItemChanges() {
+        ItemStack itemStack = createItem("§bSword", "§7Line 1");
+        ItemStackExtension extension = (ItemStackExtension) itemStack;
+
+        ItemFingerprint fingerprint = extension.getFingerprint();
+        Assertions.assertSame(fingerprint, extension.getFingerprint(), "The fingerprint of the stack is not kept.");
+
+        itemStack.setHoverName(Component.literal("§bAxe"));
+        ItemFingerprint renamed = extension.getFingerprint();
+        Assertions.assertFalse(fingerprint.isNameMatching(renamed), "Setting the name did not update the fingerprint.");
+
+        ListTag lore = new ListTag();
+        lore.add(LoreUtils.toLoreStringTag("§7Line 2"));
+        LoreUtils.replaceLore(itemStack, lore);
+        Assertions.assertFalse(
+                renamed.isLoreMatching(extension.getFingerprint()), "Setting the tag did not update the fingerprint.");
+
+        itemStack.resetHoverName();
+        Assertions.assertEquals(
+                ItemFingerprint.of(itemStack),
+                extension.getFingerprint(),
+                "Resetting the name did not update the fingerprint.");
+    }
+
+    private static ItemStack createItem(String name, String... lore) {
+        ItemStack itemStack = new ItemStack(Items.DIAMOND_SWORD);
+        itemStack.setHoverName(Component.literal(name));
+
+        ListTag loreTag = new ListTag();
+        for (String line : lore) {
+            loreTag.add(LoreUtils.toLoreStringTag(line));
+        }
+        LoreUtils.replaceLore(itemStack, loreTag);
+
+        return itemStack;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import com.wynntils.services.lootrunpaths.LootrunPathFileParser;
+import com.wynntils.services.lootrunpaths.UncompiledLootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunChunkRun;
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestLootrunPathFileParser {
+    // All coordinates are exact as floats, which is how binary files store them
+    private static final UncompiledLootrunPath LOOTRUN = new UncompiledLootrunPath(
+            new LootrunPath(List.of(
+                    new Vec3(1.5, 64, 2.25),
+                    new Vec3(10.5, 65, 3),
+                    new Vec3(17, 65.5, -4.75),
+                    new Vec3(20.25, 66, -20),
+                    new Vec3(5, 66, 1))),
+            Set.of(new BlockPos(3, 64, 5), new BlockPos(-18, 70, 40)),
+            List.of(new LootrunNote(new Vec3(16.5, 66, -4), Component.literal("§aChest here"))),
+            null);
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    @Test
+    public void binaryLootrun_roundTripsPathChestsAndNotes() throws IOException {
+        File file = writeBinary("roundtrip");
+
+        UncompiledLootrunPath read = LootrunPathFileParser.readFile(file);
+
+        Assertions.assertEquals(LOOTRUN.path(), read.path(), "The points of the lootrun changed when read back.");
+        Assertions.assertEquals(LOOTRUN.chests(), read.chests(), "The chests of the lootrun changed when read back.");
+        Assertions.assertEquals(LOOTRUN.notes().size(), read.notes().size(), "Notes of the lootrun were lost.");
+        LootrunNote note = read.notes().get(0);
+        Assertions.assertEquals(
+                LOOTRUN.notes().get(0).position(), note.position(), "The note position changed when read back.");
+        Assertions.assertEquals(
+                LOOTRUN.notes().get(0).component(), note.component(), "The note text changed when read back.");
+        Assertions.assertEquals(file, read.file(), "The read lootrun does not know its file.");
+    }
+
+    @Test
+    public void binaryLootrun_roundTripsEmptyLootrun() throws IOException {
+        File file = tempDir.resolve("empty" + LootrunPathFileParser.BINARY_EXTENSION).toFile();
+        UncompiledLootrunPath empty = new UncompiledLootrunPath(new LootrunPath(List.of()), Set.of(), List.of(), null);
+
+        Assertions.assertEquals(
+                LootrunSaveResult.SAVED,
+                LootrunPathFileParser.writeFile(empty, file),
+                "The lootrun could not be written.");
+
+        UncompiledLootrunPath read = LootrunPathFileParser.readFile(file);
+        Assertions.assertTrue(read.path().points().isEmpty(), "An empty lootrun has points when read back.");
+        Assertions.assertTrue(read.chests().isEmpty(), "An empty lootrun has chests when read back.");
+        Assertions.assertTrue(read.notes().isEmpty(), "An empty lootrun has notes when read back.");
+        Assertions.assertEquals(
+                List.of(),
+                LootrunPathFileParser.readBinaryChunkIndex(file),
+                "An empty lootrun has a chunk index when read back.");
+    }
+
+    @Test
+    public void binaryLootrun_chunkIndexMatchesPoints() throws IOException {
+        File file = writeBinary("chunks");
+
+        long first = ChunkPos.asLong(0, 0);
+        long second = ChunkPos.asLong(1, -1);
+        long third = ChunkPos.asLong(1, -2);
+        Assertions.assertEquals(
+                List.of(
+                        new LootrunChunkRun(first, 0, 2),
+                        new LootrunChunkRun(second, 2, 1),
+                        new LootrunChunkRun(third, 3, 1),
+                        new LootrunChunkRun(first, 4, 1)),
+                LootrunPathFileParser.readBinaryChunkIndex(file),
+                "The chunk index does not match the points of the lootrun.");
+
+        // The chunks of binary files are read from the index, for json files they are calculated from the points
+        List<Long> chunks = LootrunPathFileParser.getChunks(file, LootrunPathFileParser.readFile(file));
+        Assertions.assertEquals(
+                List.of(first, second, third).stream().sorted().toList(),
+                chunks,
+                "LootrunPathFileParser.getChunks() returned unexpected chunks.");
+        Assertions.assertEquals(
+                chunks,
+                LootrunPathFileParser.getChunks(
+                        tempDir.resolve("chunks" + LootrunPathFileParser.JSON_EXTENSION).toFile(), LOOTRUN),
+                "The chunks of a json lootrun differ from the chunk index of the binary lootrun.");
+    }
+
+    @Test
+    public void binaryLootrun_doesNotOverwriteFiles() {
+        File file = writeBinary("existing");
+
+        Assertions.assertEquals(
+                LootrunSaveResult.ERROR_ALREADY_EXISTS,
+                LootrunPathFileParser.writeFile(LOOTRUN, file),
+                "An existing lootrun file was overwritten.");
+    }
+
+    @Test
+    public void binaryLootrun_rejectsUnknownVersionsAndTruncatedFiles() throws IOException {
+        File unknownVersion = writeBinary("version");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(unknownVersion, "rw")) {
+            // The version follows the magic number
+            randomAccessFile.seek(Integer.BYTES);
+            randomAccessFile.writeInt(0);
+        }
+        Assertions.assertThrows(IOException.class, () -> LootrunPathFileParser.readFile(unknownVersion));
+        Assertions.assertThrows(IOException.class, () -> LootrunPathFileParser.readBinaryChunkIndex(unknownVersion));
+
+        // Only the save time at the end of the file is never read
+        byte[] bytes = Files.readAllBytes(writeBinary("complete").toPath());
+        for (int length = 0; length < bytes.length - Long.BYTES; length++) {
+            File truncated = tempDir.resolve("truncated" + length + LootrunPathFileParser.BINARY_EXTENSION).toFile();
+            Files.write(truncated.toPath(), Arrays.copyOf(bytes, length));
+
+            Assertions.assertThrows(
+                    IOException.class,
+                    () -> LootrunPathFileParser.readFile(truncated),
+                    "A lootrun file truncated to " + length + " bytes was read.");
+        }
+    }
+
+    @Test
+    public void binaryLootrun_rejectsCorruptCounts() throws IOException {
+        // Offsets of the point count, chunk run count, chest count, note count and note length of LOOTRUN
+        int[] countOffsets = {8, 72, 140, 168, 184};
+        for (int offset : countOffsets) {
+            for (int count : new int[] {-1, Integer.MIN_VALUE, Integer.MAX_VALUE, 1_000_000}) {
+                File corrupt = writeBinary("corrupt" + offset + "_" + count);
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(corrupt, "rw")) {
+                    randomAccessFile.seek(offset);
+                    randomAccessFile.writeInt(count);
+                }
+
+                Assertions.assertThrows(
+                        IOException.class,
+                        () -> LootrunPathFileParser.readFile(corrupt),
+                        "A lootrun file with the count " + count + " at " + offset + " was read.");
+                if (offset < 140) {
+                    Assertions.assertThrows(
+                            IOException.class,
+                            () -> LootrunPathFileParser.readBinaryChunkIndex(corrupt),
+                            "The chunk index of a lootrun file with the count " + count + " at " + offset
+                                    + " was read.");
+                }
+
+                // The file is not kept open after reading it
+                Assertions.assertTrue(corrupt.delete(), "A lootrun file could not be deleted after reading it.");
+            }
+        }
+    }
+
+    @Test
+    public void lootrun_isWrittenAtomically() throws IOException {
+        for (String extension : List.of(LootrunPathFileParser.JSON_EXTENSION, LootrunPathFileParser.BINARY_EXTENSION)) {
+            File file = tempDir.resolve("atomic" + extension).toFile();
+
+            Assertions.assertEquals(
+                    LootrunSaveResult.SAVED,
+                    LootrunPathFileParser.writeFileAtomically(LOOTRUN, file),
+                    "The lootrun could not be written.");
+            Assertions.assertEquals(
+                    LOOTRUN.path(), LootrunPathFileParser.readFile(file).path(), "The written lootrun differs.");
+            Assertions.assertEquals(
+                    LootrunSaveResult.ERROR_ALREADY_EXISTS,
+                    LootrunPathFileParser.writeFileAtomically(LOOTRUN, file),
+                    "An existing lootrun file was overwritten.");
+        }
+
+        // Only the written lootrun files are left, no temporary files
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(
+                    List.of(
+                            "atomic" + LootrunPathFileParser.JSON_EXTENSION,
+                            "atomic" + LootrunPathFileParser.BINARY_EXTENSION),
+                    files.map(path -> path.getFileName().toString()).sorted().toList(),
+                    "Writing a lootrun left other files behind.");
+        }
+    }
+
+    private File writeBinary(String name) {
+        File file = tempDir.resolve(name + LootrunPathFileParser.BINARY_EXTENSION).toFile();
+        Assertions.assertEquals(
+                LootrunSaveResult.SAVED,
+                LootrunPathFileParser.writeFile(LOOTRUN, file),
+                "The lootrun could not be written.");
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestLoreLineClassifier {
+    // The classifier is internal to the item parser, so line types are compared by name
+    private static Method classify;
+
+    @BeforeAll
+    public static void setup() throws ReflectiveOperationException {
+        classify = Class.forName("com.wynntils.models.wynnitem.parsing.LoreLineClassifier")
+                .getDeclaredMethod("classify", String.class);
+        classify.setAccessible(true);
+    }
+
+    @Test
+    public void loreLineClassifier_classifiesEveryLineType() {
+        assertLineType("POWDER", "§7[2/3] Powder Slots §c[§b✹§7]");
+        assertLineType("TIER", "§5Mythic Item");
+        assertLineType("HEALTH", "§4❤ Health: +3200");
+        assertLineType("COMBAT_LEVEL_REQUIREMENT", "§a✔§7 Combat Lv. Min: 80");
+        assertLineType("REQUIREMENT", "§c✖§7 Strength Min: 40");
+        assertLineType("SET", "§aMorph Set §7(2/8)");
+        assertLineType("SET_ITEM", "§a- §2Morph-Stardust");
+        assertLineType("SET_ITEM", "§a- §8Morph-Iron");
+        assertLineType("SET_BONUS", "§aSet Bonus:");
+        assertLineType("EFFECT_HEADER", "§6Effect:");
+        assertLineType("EFFECT", "§6- §7Heal: §f30%");
+        assertLineType("IDENTIFICATION", "§a+15% §7Walk Speed");
+        assertLineType("SHINY_STAT", "§f⬡ §7Mobs Killed: §f1337");
+        assertLineType("OTHER", "§8§oA description of the item");
+    }
+
+    @Test
+    public void loreLineClassifier_tellsLookAlikeLinesApart() {
+        // A list item is only a set item or effect depending on the color of its text
+        assertLineType("SET_ITEM", "§a- §2Morph-Gold");
+        assertLineType("EFFECT", "§6- §7Duration: §f60 Seconds");
+        assertLineType("OTHER", "§6- §fSomething else");
+
+        // A negative identification has no space after the minus
+        assertLineType("IDENTIFICATION", "§c-5% §7Walk Speed");
+        assertLineType("IDENTIFICATION", "§c-12§7/3s Mana Regen");
+
+        // Only a number after the combat level prefix makes it a combat level requirement
+        assertLineType("REQUIREMENT", "§c✖§7 Combat Lv. Min: 80-90");
+        assertLineType("REQUIREMENT", "§c✖§7 Combat Lv. Min: ");
+
+        // Set lines can start with a capital letter, like tiers, but end with the set count
+        assertLineType("TIER", "§aSet Bonus");
+        assertLineType("SET", "§aBlue Team Set §7(1/4)");
+    }
+
+    @Test
+    public void loreLineClassifier_classifiesShortAndUncodedLinesAsOther() {
+        assertLineType("OTHER", "");
+        assertLineType("OTHER", "§7");
+        assertLineType("OTHER", "Line without color");
+        assertLineType("OTHER", "§7lowercase text");
+        assertLineType("OTHER", "§6- ");
+        assertLineType("OTHER", "§6- x");
+    }
+
+    private static void assertLineType(String expected, String line) {
+        try {
+            Assertions.assertEquals(
+                    expected,
+                    ((Enum<?>) classify.invoke(null, line)).name(),
+                    "LoreLineClassifier.classify() returned an unexpected line type for " + line);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
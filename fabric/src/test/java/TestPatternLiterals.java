@@ -0,0 +1,112 @@
+/*
+ * Copyright © Wynntils 2024.
+ * This file is released under LGPLv3. See LICENSE for full license details.
+ */
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestPatternLiterals {
+    // Both classes are internal to the chat handler
+    private static Method getRequiredLiteral;
+    private static Constructor<?> automatonConstructor;
+    private static Method findAll;
+
+    @BeforeAll
+    public static void setup() throws ReflectiveOperationException {
+        getRequiredLiteral = Class.forName("com.wynntils.handlers.chat.PatternLiterals")
+                .getDeclaredMethod("getRequiredLiteral", Pattern.class);
+        getRequiredLiteral.setAccessible(true);
+
+        Class<?> automaton = Class.forName("com.wynntils.handlers.chat.LiteralAutomaton");
+        automatonConstructor = automaton.getDeclaredConstructor(List.class);
+        automatonConstructor.setAccessible(true);
+        findAll = automaton.getDeclaredMethod("findAll", String.class, BitSet.class);
+        findAll.setAccessible(true);
+    }
+
+    @Test
+    public void requiredLiteral_isLongestLiteralOutsideGroups() {
+        assertRequiredLiteral("§6§lLootrun Completed!", "[À\\s]*§6§lLootrun Completed!");
+        assertRequiredLiteral(
+                "§3! The entire server", "^§b(?<user>.+) has thrown a §b(?<bomb>.+)§3! The entire server");
+        assertRequiredLiteral("§3[INFO]§b New Weekly", "§3\\[INFO\\]§b New Weekly");
+        assertRequiredLiteral("cde", "(a|b)cde");
+        assertRequiredLiteral("cdef", "ab\\dcdef");
+    }
+
+    @Test
+    public void requiredLiteral_dropsOptionalCharacters() {
+        assertRequiredLiteral("abc", "abcd?");
+        assertRequiredLiteral("yz", "x*yz");
+        assertRequiredLiteral("abc", "abcd{0,2}");
+        // The character before + is still required once
+        assertRequiredLiteral("abcd", "abcd+e");
+    }
+
+    @Test
+    public void requiredLiteral_isEmptyForAlternations() {
+        assertRequiredLiteral("", "a|b");
+        assertRequiredLiteral("", "abcdef|g");
+    }
+
+    @Test
+    public void requiredLiteral_isEmptyForUnsupportedSyntax() {
+        // Anything after these could be an alternation, which makes the literal before them optional
+        assertRequiredLiteral("", "abc\\u00A7x|def");
+        assertRequiredLiteral("", "abc\\Qx\\E");
+        assertRequiredLiteral("", "abc\\nx");
+        assertRequiredLiteral("", "\\p{L}abc");
+        assertRequiredLiteral("", "(a)abc\\1");
+        assertRequiredLiteral("", "abc(?i)def");
+    }
+
+    @Test
+    public void requiredLiteral_respectsFlags() throws ReflectiveOperationException {
+        Assertions.assertEquals(
+                "a.b", getRequiredLiteral.invoke(null, Pattern.compile("a.b", Pattern.LITERAL)), "Pattern.LITERAL");
+        Assertions.assertEquals(
+                "",
+                getRequiredLiteral.invoke(null, Pattern.compile("Guild", Pattern.CASE_INSENSITIVE)),
+                "Pattern.CASE_INSENSITIVE");
+    }
+
+    @Test
+    public void literalAutomaton_findsAllLiterals() throws ReflectiveOperationException {
+        List<String> literals = List.of("he", "she", "his", "hers", "", "x");
+
+        Assertions.assertEquals(BitSet.valueOf(new long[] {0b1011}), findLiterals(literals, "ushers"));
+        Assertions.assertEquals(BitSet.valueOf(new long[] {0b0111}), findLiterals(literals, "ahishe"));
+    }
+
+    @Test
+    public void literalAutomaton_neverFindsEmptyLiterals() throws ReflectiveOperationException {
+        List<String> literals = List.of("", "abc");
+
+        Assertions.assertEquals(new BitSet(), findLiterals(literals, ""));
+        Assertions.assertEquals(new BitSet(), findLiterals(literals, "ab"));
+        Assertions.assertEquals(BitSet.valueOf(new long[] {0b10}), findLiterals(literals, "xabcx"));
+    }
+
+    private static void assertRequiredLiteral(String expected, String regex) {
+        try {
+            Assertions.assertEquals(
+                    expected,
+                    getRequiredLiteral.invoke(null, Pattern.compile(regex)),
+                    "PatternLiterals.getRequiredLiteral returned an unexpected literal for " + regex);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static BitSet findLiterals(List<String> literals, String text) throws ReflectiveOperationException {
+        BitSet found = new BitSet();
+        findAll.invoke(automatonConstructor.newInstance(literals), text, found);
+        return found;
+    }
+}
@@ -4,8 +4,10 @@
  */
 import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
+import com.wynntils.core.text.StyledTextBuilder;
 import com.wynntils.core.text.StyledTextPart;
 import com.wynntils.utils.colors.CustomColor;
+import com.wynntils.utils.type.IterationDecision;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -14,6 +16,7 @@ import net.minecraft.SharedConstants;
 import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
 import net.minecraft.server.Bootstrap;
 import org.junit.jupiter.api.Assertions;
@@ -843,4 +846,162 @@ public class TestStyledText {
                 styledText.getComponent().toFlatList().get(0).getStyle().getHoverEvent(),
                 "StyledText.fromComponent() did not inherit the correct hover event.");
     }
+
+    @Test
+    public void styledText_cachesStrings() {
+        StyledText styledText = StyledText.fromString("§c§lred §9blue");
+
+        String coded = styledText.getString(PartStyle.StyleType.DEFAULT);
+        Assertions.assertEquals("§c§lred §9blue", coded, "StyledText.getString() returned an unexpected value.");
+        Assertions.assertSame(
+                coded,
+                styledText.getString(PartStyle.StyleType.DEFAULT),
+                "StyledText.getString() did not return the cached string.");
+
+        // Every style type has its own string
+        Assertions.assertEquals(
+                "red blue",
+                styledText.getString(PartStyle.StyleType.NONE),
+                "StyledText.getString(NONE) returned an unexpected value.");
+        Assertions.assertEquals(
+                "§c§lred §9blue",
+                styledText.getString(PartStyle.StyleType.DEFAULT),
+                "StyledText.getString(DEFAULT) changed after getting another style type.");
+    }
+
+    @Test
+    public void styledText_cachedHashMatchesEquality() {
+        StyledText first = StyledText.fromString("§asame text");
+        StyledText second = StyledText.fromString("§asame text");
+        StyledText other = StyledText.fromString("§aother text");
+
+        Assertions.assertEquals(first.hashCode(), first.hashCode(), "StyledText.hashCode() is not stable.");
+        Assertions.assertEquals(first.hashCode(), second.hashCode(), "Equal StyledTexts have different hashes.");
+        Assertions.assertEquals(first, second, "Equal StyledTexts are not equal.");
+
+        // Both hashes are cached now, which lets equals return early
+        other.hashCode();
+        Assertions.assertNotEquals(first, other, "Different StyledTexts are equal.");
+    }
+
+    @Test
+    public void styledTextBuilder_keepsOrderOfBothEnds() {
+        StyledText styledText = new StyledTextBuilder(StyledText.fromString("§bmiddle"))
+                .append("§c end")
+                .prepend("§a start ")
+                .append(StyledText.fromString("§d!"))
+                .prepend(StyledText.fromString("§e>"))
+                .build();
+
+        Assertions.assertEquals(
+                "§e>§a start §bmiddle§c end§d!",
+                styledText.getString(),
+                "StyledTextBuilder.build() returned an unexpected value.");
+        Assertions.assertEquals(
+                StyledText.concat(
+                        StyledText.fromString("§e>"),
+                        StyledText.fromString("§a start "),
+                        StyledText.fromString("§bmiddle"),
+                        StyledText.fromString("§c end"),
+                        StyledText.fromString("§d!")),
+                styledText,
+                "StyledTextBuilder.build() is not equal to the concatenated texts.");
+    }
+
+    @Test
+    public void styledTextBuilder_canBuildMoreThanOnce() {
+        StyledTextBuilder builder = new StyledTextBuilder();
+        Assertions.assertTrue(builder.isEmpty(), "StyledTextBuilder is not empty when created.");
+        Assertions.assertSame(StyledText.EMPTY, builder.build(), "An empty StyledTextBuilder did not build EMPTY.");
+
+        StyledText first = builder.append("§afirst").build();
+        StyledText second = builder.append("§bsecond").build();
+
+        Assertions.assertEquals("§afirst", first.getString(), "StyledTextBuilder changed a text it already built.");
+        Assertions.assertEquals(
+                "§afirst§bsecond", second.getString(), "StyledTextBuilder.build() returned an unexpected value.");
+    }
+
+    @Test
+    public void styledText_unchangedEditsReturnSameInstance() {
+        StyledText styledText = StyledText.fromString("§afirst §bsecond");
+
+        Assertions.assertSame(
+                styledText,
+                styledText.iterate((part, changes) -> IterationDecision.CONTINUE),
+                "StyledText.iterate() copied a text without replacing any part.");
+        Assertions.assertSame(
+                styledText,
+                styledText.iterateBackwards((part, changes) -> IterationDecision.CONTINUE),
+                "StyledText.iterateBackwards() copied a text without replacing any part.");
+        Assertions.assertSame(styledText, styledText.trim(), "StyledText.trim() copied a text without whitespace.");
+        Assertions.assertSame(
+                styledText,
+                styledText.append(StyledText.EMPTY),
+                "StyledText.append() copied a text when appending nothing.");
+        Assertions.assertSame(
+                styledText,
+                StyledText.EMPTY.append(styledText),
+                "StyledText.append() did not return the appended text when appending to nothing.");
+    }
+
+    @Test
+    public void styledText_iterateBackwardsKeepsUnvisitedParts() {
+        StyledText styledText = StyledText.fromString("§afirst §bsecond §cthird");
+
+        StyledText replaced = styledText.iterateBackwards((part, changes) -> {
+            if (!part.getString(null, PartStyle.StyleType.NONE).equals("second ")) {
+                return IterationDecision.CONTINUE;
+            }
+
+            changes.set(0, new StyledTextPart("2nd ", part.getPartStyle().getStyle(), null, Style.EMPTY));
+            return IterationDecision.BREAK;
+        });
+
+        Assertions.assertEquals(
+                "§afirst §b2nd §cthird",
+                replaced.getString(),
+                "StyledText.iterateBackwards() returned an unexpected value.");
+        Assertions.assertEquals(
+                "§afirst §bsecond §cthird", styledText.getString(), "StyledText.iterateBackwards() changed the text.");
+    }
+
+    @Test
+    public void styledText_fromComponentNoticesChangesDeepInsideComponent() {
+        MutableComponent inner = Component.literal("inner");
+        MutableComponent argument = Component.literal("argument");
+        MutableComponent component = Component.literal("root")
+                .append(Component.literal("child").append(inner))
+                .append(Component.translatable("%s", argument));
+
+        StyledText unchanged = StyledText.fromComponent(component);
+        Assertions.assertEquals(
+                "rootchildinnerargument",
+                unchanged.getStringWithoutFormatting(),
+                "StyledText.fromComponent() returned an unexpected value.");
+
+        // A copy of the component is a new instance, so it is converted from its structure
+        inner.withStyle(ChatFormatting.RED);
+        StyledText restyled = StyledText.fromComponent(component);
+        Assertions.assertNotEquals(
+                unchanged.getString(),
+                restyled.getString(),
+                "StyledText.fromComponent() missed a changed style deep inside the component.");
+        Assertions.assertEquals(
+                StyledText.fromComponent(component.copy()).getString(),
+                restyled.getString(),
+                "StyledText.fromComponent() returned an unexpected value.");
+
+        inner.append("appended");
+        Assertions.assertEquals(
+                "rootchildinnerappendedargument",
+                StyledText.fromComponent(component).getStringWithoutFormatting(),
+                "StyledText.fromComponent() missed a sibling added deep inside the component.");
+
+        argument.append("changed");
+        Assertions.assertEquals(
+                "rootchildinnerappendedargumentchanged",
+                StyledText.fromComponent(component).getStringWithoutFormatting(),
+                "StyledText.fromComponent() missed a changed translation argument.");
+    }
 }